@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -1140,4 +1140,43 @@ public class JavaHeuristicScannerTest extends TestCase {
 		String indent= fScanner.computeIndentation(offset).toString();
 		assertEquals("\t", indent);
 	}
+
+	public void testFindOpeningPeerLargeDocument() throws Exception {
+		StringBuffer buf= new StringBuffer();
+		buf.append("class A {\n");
+		for (int i= 0; i < 300; i++) {
+			buf.append("    void m" + i + "(int a) {\n");
+			buf.append("        foo(\"{(\", '}', bar(a[0]));  // }) \n");
+			buf.append("        /* { */ if (a > 0) { a--; }\n");
+			buf.append("    }\n");
+		}
+		buf.append("    void last() {\n");
+		buf.append("        foo(bar(1), baz[2], \")\");\n");
+		int end= buf.length();
+		buf.append("    }\n");
+		buf.append("}\n");
+		fDocument.set(buf.toString());
+		assertTrue(fDocument.getLength() > 10000);
+
+		int lastMethod= buf.indexOf("void last() {") + "void last() ".length();
+		assertEquals(lastMethod, fHeuristicScanner.findOpeningPeer(end, '{', '}'));
+		assertEquals(0 + "class A ".length(), fHeuristicScanner.findOpeningPeer(lastMethod - 1, '{', '}'));
+		assertEquals(JavaHeuristicScanner.NOT_FOUND, fHeuristicScanner.findOpeningPeer(end, lastMethod + 1, '{', '}'));
+		int fooCall= buf.indexOf("foo(bar(1)") + "foo".length();
+		assertEquals(fooCall, fHeuristicScanner.findOpeningPeer(buf.indexOf("\")\");") + 2, '(', ')'));
+		assertEquals(JavaHeuristicScanner.NOT_FOUND, fHeuristicScanner.findOpeningPeer(end, '(', ')'));
+
+		// comment out the last method's opening brace, the index must be updated
+		fDocument.replace(lastMethod, 0, "// ");
+		assertEquals(0 + "class A ".length(), fHeuristicScanner.findOpeningPeer(end + 3, '{', '}'));
+
+		fDocument.replace(lastMethod, 3, "");
+		assertEquals(lastMethod, fHeuristicScanner.findOpeningPeer(end, '{', '}'));
+		String indent= fScanner.computeIndentation(end).toString();
+
+		// same indentation as in a short document, which is scanned without index
+		String tail= buf.substring(buf.indexOf("    void last()"));
+		fDocument.set("class A {\n" + tail);
+		assertEquals(indent, fScanner.computeIndentation("class A {\n".length() + end - buf.indexOf("    void last()")).toString());
+	}
 }
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.text.tests.performance.DisplayHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.ui.IPageLayout;
+import org.eclipse.ui.views.contentoutline.IContentOutlinePage;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+
+/**
+ * Tests the incremental update of the Java outline from reconcile deltas.
+ *
+ * @since 3.11
+ */
+public class JavaOutlinePageTest extends TestCase {
+
+	private static final String LEXICAL_SORTING= "LexicalSortingAction.isChecked";
+
+	private IJavaProject fJProject;
+	private JavaEditor fEditor;
+	private IDocument fDocument;
+	private Tree fTree;
+	private boolean fWasSorted;
+
+	public static Test suite() {
+		return new TestSuite(JavaOutlinePageTest.class);
+	}
+
+	protected void setUp() throws Exception {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		fWasSorted= store.getBoolean(LEXICAL_SORTING);
+		store.setValue(LEXICAL_SORTING, true);
+
+		fJProject= JavaProjectHelper.createJavaProject("OutlineTest", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack= root.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    void a() {\n");
+		buf.append("    }\n");
+		buf.append("    void b() {\n");
+		buf.append("    }\n");
+		buf.append("    void c() {\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		EditorTestHelper.showView(IPageLayout.ID_OUTLINE, true);
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) cu.getResource(), true);
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		IContentOutlinePage page= (IContentOutlinePage) fEditor.getAdapter(IContentOutlinePage.class);
+		fTree= (Tree) page.getControl();
+		assertNotNull(fTree);
+		assertMembers(new String[] { "a", "b", "c" });
+	}
+
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeAllEditors();
+		JavaProjectHelper.delete(fJProject);
+		JavaPlugin.getDefault().getPreferenceStore().setValue(LEXICAL_SORTING, fWasSorted);
+	}
+
+	private void replace(String oldText, String newText) throws Exception {
+		String content= fDocument.get();
+		int offset= content.indexOf(oldText);
+		assertTrue(offset != -1);
+		fDocument.replace(offset, oldText.length(), newText);
+	}
+
+	private TreeItem getTypeItem() {
+		TreeItem[] items= fTree.getItems();
+		for (int i= 0; i < items.length; i++) {
+			if (items[i].getData() instanceof IType)
+				return items[i];
+		}
+		return null;
+	}
+
+	private List<String> getMembers() {
+		List<String> result= new ArrayList<String>();
+		TreeItem typeItem= getTypeItem();
+		if (typeItem != null) {
+			TreeItem[] members= typeItem.getItems();
+			for (int i= 0; i < members.length; i++) {
+				Object data= members[i].getData();
+				if (data instanceof IJavaElement)
+					result.add(((IJavaElement) data).getElementName());
+			}
+		}
+		return result;
+	}
+
+	private void assertMembers(String[] expected) {
+		final List<String> expectedMembers= Arrays.asList(expected);
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				return expectedMembers.equals(getMembers());
+			}
+		};
+		helper.waitForCondition(fTree.getDisplay(), 10000);
+		assertEquals(expectedMembers, getMembers());
+	}
+
+	private void assertLabel(final TreeItem item, final String expected) {
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				return expected.equals(item.getText());
+			}
+		};
+		helper.waitForCondition(fTree.getDisplay(), 10000);
+		assertEquals(expected, item.getText());
+	}
+
+	public void testMemberAdded() throws Exception {
+		replace("    void a() {\n", "    void d() {\n    }\n    void a() {\n");
+		assertMembers(new String[] { "a", "b", "c", "d" });
+	}
+
+	public void testMemberRemoved() throws Exception {
+		replace("    void b() {\n    }\n", "");
+		assertMembers(new String[] { "a", "c" });
+	}
+
+	public void testBodyChanged() throws Exception {
+		TreeItem item= getTypeItem().getItems()[1];
+		replace("    void b() {\n", "    void b() {\n        int i= 0;\n");
+		EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 100, 10000, 100);
+		EditorTestHelper.runEventQueue(fEditor);
+		assertMembers(new String[] { "a", "b", "c" });
+		assertSame(item, getTypeItem().getItems()[1]);
+	}
+
+	public void testReturnTypeChanged() throws Exception {
+		TreeItem item= getTypeItem().getItems()[1];
+		assertLabel(item, "b() : void");
+		replace("    void b() {\n", "    int b() {\n        return 0;\n");
+		assertLabel(item, "b() : int");
+		assertSame(item, getTypeItem().getItems()[1]);
+	}
+
+	public void testModifiersChanged() throws Exception {
+		// static methods are sorted before instance methods
+		replace("    void b() {\n", "    static void b() {\n");
+		assertMembers(new String[] { "b", "a", "c" });
+		replace("    static void b() {\n", "    void b() {\n");
+		assertMembers(new String[] { "a", "b", "c" });
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.compare.IEncodedStreamContentAccessor;
+import org.eclipse.compare.structuremergeviewer.DocumentRangeNode;
+
+import org.eclipse.jdt.internal.ui.compare.JavaStructureCreator;
+
+/**
+ * Tests that the structure of compared Java sources is the same, whether it is parsed or
+ * restored from the structure cache.
+ *
+ * @since 3.11
+ */
+public class JavaStructureCreatorTest extends TestCase {
+
+	private static final Class THIS= JavaStructureCreatorTest.class;
+
+	private static class StringContentAccessor implements IEncodedStreamContentAccessor {
+
+		private final String fContents;
+
+		public StringContentAccessor(String contents) {
+			fContents= contents;
+		}
+
+		public InputStream getContents() throws CoreException {
+			try {
+				return new ByteArrayInputStream(fContents.getBytes("UTF-8"));
+			} catch (UnsupportedEncodingException e) {
+				return new ByteArrayInputStream(fContents.getBytes());
+			}
+		}
+
+		public String getCharset() throws CoreException {
+			return "UTF-8";
+		}
+	}
+
+	private static int fgUniqueCount= 0;
+
+	public static Test suite() {
+		return new TestSuite(THIS);
+	}
+
+	private JavaStructureCreator fCreator;
+
+	protected void setUp() throws Exception {
+		fCreator= new JavaStructureCreator();
+	}
+
+	/*
+	 * Contents that have not been compared before, so that the first structure is parsed.
+	 */
+	private String getSource() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("\n");
+		buf.append("import java.util.List;\n");
+		buf.append("import java.util.Map;\n");
+		buf.append("\n");
+		buf.append("public class E {\n");
+		buf.append("    private int fCount;\n");
+		buf.append("    static {\n");
+		buf.append("        System.out.println();\n");
+		buf.append("    }\n");
+		buf.append("    public E(int count) {\n");
+		buf.append("        fCount= count;\n");
+		buf.append("    }\n");
+		buf.append("    public void foo(List<String> list) {\n");
+		buf.append("    }\n");
+		buf.append("    public void foo(Map<String, String> map) {\n");
+		buf.append("    }\n");
+		buf.append("    class Aa {\n");
+		buf.append("        int x;\n");
+		buf.append("    }\n");
+		buf.append("    enum Color {\n");
+		buf.append("        RED, GREEN;\n");
+		buf.append("    }\n");
+		buf.append("    @interface Annot {\n");
+		buf.append("        String value();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		buf.append("interface I {\n");
+		buf.append("    void bar();\n");
+		buf.append("}\n");
+		buf.append("// ").append(getName()).append(' ').append(fgUniqueCount++).append(' ').append(System.currentTimeMillis()).append('\n');
+		return buf.toString();
+	}
+
+	public void testRestoredStructureMatchesParsedStructure() throws Exception {
+		String contents= getSource();
+		String parsed= getStructure(contents);
+		String restored= getStructure(contents);
+
+		assertTrue(parsed, parsed.indexOf("~foo(List<String>)") != -1);
+		assertTrue(parsed, parsed.indexOf("[Aa") != -1);
+		assertEquals(parsed, restored);
+	}
+
+	public void testChangedContentsOfSameLength() throws Exception {
+		String contents= getSource();
+		String original= getStructure(contents);
+		String changed= getStructure(contents.replaceAll("foo", "baz"));
+
+		assertEquals(original.replaceAll("foo", "baz"), changed);
+	}
+
+	public void testChangedContentsOfDifferentLength() throws Exception {
+		String contents= getSource();
+		String original= getStructure(contents);
+
+		String method= "    public void added() {\n    }\n";
+		int offset= contents.indexOf("    class Aa");
+		String changed= getStructure(contents.substring(0, offset) + method + contents.substring(offset));
+
+		assertTrue(changed, changed.indexOf("~added()") != -1);
+		assertFalse(original.equals(changed));
+		assertEquals(changed, getStructure(contents.substring(0, offset) + method + contents.substring(offset)));
+	}
+
+	public void testHashCollision() throws Exception {
+		String contents= getSource();
+		String colliding= contents.replaceAll("Aa", "BB");
+		assertEquals(Arrays.hashCode(contents.toCharArray()), Arrays.hashCode(colliding.toCharArray()));
+
+		String original= getStructure(contents);
+		String changed= getStructure(colliding);
+
+		assertTrue(changed, changed.indexOf("[BB") != -1);
+		assertEquals(original.replaceAll("Aa", "BB"), changed);
+	}
+
+	private String getStructure(String contents) {
+		DocumentRangeNode root= (DocumentRangeNode) fCreator.getStructure(new StringContentAccessor(contents));
+		assertNotNull(root);
+		StringBuffer buf= new StringBuffer();
+		append(root, 0, buf);
+		return buf.toString();
+	}
+
+	private static void append(DocumentRangeNode node, int indent, StringBuffer buf) {
+		for (int i= 0; i < indent; i++)
+			buf.append("  ");
+		Position range= node.getRange();
+		buf.append(node.getTypeCode()).append(' ').append(node.getId());
+		buf.append(" [").append(range.getOffset()).append('+').append(range.getLength()).append(']');
+		Position appendPosition= node.getAppendPosition();
+		if (appendPosition != null)
+			buf.append(" append ").append(appendPosition.getOffset());
+		buf.append('\n');
+
+		Object[] children= node.getChildren();
+		if (children != null) {
+			for (int i= 0; i < children.length; i++)
+				append((DocumentRangeNode) children[i], indent + 1, buf);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -67,6 +67,10 @@ public class JdtTextTestSuite {
 		suite.addTest(IndentActionTest.suite());
 		suite.addTest(TemplatesTestSuite.suite());
 		suite.addTest(JavaElementPrefixPatternMatcherTest.suite());
+		suite.addTest(JavaOutlinePageTest.suite());
+		suite.addTest(QuickAssistLightBulbTest.suite());
+		suite.addTest(ProblemAnnotationModelTest.suite());
+		suite.addTest(JavaStructureCreatorTest.suite());
 		//$JUnit-END$
 
 		return suite;
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.text.tests.performance.DisplayHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModelEvent;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModelListener;
+import org.eclipse.jface.text.source.IAnnotationModelListenerExtension;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitDocumentProvider.ProblemAnnotation;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+
+/**
+ * Tests that reconciling keeps the annotations of problems that are reported again, and that the
+ * annotation model events only contain the annotations of added and removed problems.
+ *
+ * @since 3.11
+ */
+public class ProblemAnnotationModelTest extends TestCase {
+
+	private class ProblemEventCollector implements IAnnotationModelListener, IAnnotationModelListenerExtension {
+
+		public void modelChanged(IAnnotationModel model) {
+			// the extension is used
+		}
+
+		public synchronized void modelChanged(AnnotationModelEvent event) {
+			collect(event.getAddedAnnotations(), fAdded);
+			collect(event.getRemovedAnnotations(), fRemoved);
+			collect(event.getChangedAnnotations(), fChanged);
+		}
+
+		private void collect(Annotation[] annotations, List<String> result) {
+			for (int i= 0; i < annotations.length; i++) {
+				if (annotations[i] instanceof ProblemAnnotation)
+					result.add(annotations[i].getText());
+			}
+		}
+	}
+
+	private IJavaProject fJProject;
+	private JavaEditor fEditor;
+	private IDocument fDocument;
+	private IAnnotationModel fAnnotationModel;
+	private ProblemEventCollector fCollector;
+
+	private final List<String> fAdded= new ArrayList<String>();
+	private final List<String> fRemoved= new ArrayList<String>();
+	private final List<String> fChanged= new ArrayList<String>();
+
+	public static Test suite() {
+		return new TestSuite(ProblemAnnotationModelTest.class);
+	}
+
+	protected void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("ProblemAnnotationTest", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack= root.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    Foo f1;\n");
+		buf.append("    Bar f2;\n");
+		buf.append("    Baz f3;\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) cu.getResource(), true);
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		fAnnotationModel= fEditor.getDocumentProvider().getAnnotationModel(fEditor.getEditorInput());
+		assertProblems(new String[] { "Foo", "Bar", "Baz" });
+
+		fCollector= new ProblemEventCollector();
+		fAnnotationModel.addAnnotationModelListener(fCollector);
+	}
+
+	protected void tearDown() throws Exception {
+		fAnnotationModel.removeAnnotationModelListener(fCollector);
+		EditorTestHelper.closeAllEditors();
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private static String getMessage(String typeName) {
+		return typeName + " cannot be resolved to a type";
+	}
+
+	/**
+	 * Returns the problem annotations of the model by their text.
+	 *
+	 * @return the problem annotations by text
+	 */
+	private Map<String, Annotation> getProblemAnnotations() {
+		Map<String, Annotation> result= new HashMap<String, Annotation>();
+		Iterator iter= fAnnotationModel.getAnnotationIterator();
+		while (iter.hasNext()) {
+			Object annotation= iter.next();
+			if (annotation instanceof ProblemAnnotation)
+				result.put(((ProblemAnnotation) annotation).getText(), (Annotation) annotation);
+		}
+		return result;
+	}
+
+	private void assertProblems(String[] typeNames) {
+		final List<String> expected= new ArrayList<String>();
+		for (int i= 0; i < typeNames.length; i++)
+			expected.add(getMessage(typeNames[i]));
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				Map<String, Annotation> annotations= getProblemAnnotations();
+				return annotations.size() == expected.size() && annotations.keySet().containsAll(expected);
+			}
+		};
+		helper.waitForCondition(EditorTestHelper.getActiveDisplay(), 10000);
+		Map<String, Annotation> annotations= getProblemAnnotations();
+		assertEquals(expected.size(), annotations.size());
+		assertTrue(annotations.keySet().containsAll(expected));
+	}
+
+	private void replace(String oldText, String newText) throws Exception {
+		int offset= fDocument.get().indexOf(oldText);
+		assertTrue(offset != -1);
+		fDocument.replace(offset, oldText.length(), newText);
+		EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 100, 10000, 100);
+	}
+
+	public void testUnchangedProblemsKeepAnnotations() throws Exception {
+		Map<String, Annotation> before= getProblemAnnotations();
+
+		// the second reconcile moves the positions of the problems after the edit
+		replace("    Bar f2;\n", "    int f2;\n");
+		replace("}\n", "    Qux f4;\n}\n");
+		replace("public class E {\n", "public class E {\n    int f0;\n");
+		assertProblems(new String[] { "Foo", "Baz", "Qux" });
+
+		Map<String, Annotation> after= getProblemAnnotations();
+		assertSame(before.get(getMessage("Foo")), after.get(getMessage("Foo")));
+		assertSame(before.get(getMessage("Baz")), after.get(getMessage("Baz")));
+
+		synchronized (fCollector) {
+			assertEquals(1, fAdded.size());
+			assertEquals(getMessage("Qux"), fAdded.get(0));
+			assertEquals(1, fRemoved.size());
+			assertEquals(getMessage("Bar"), fRemoved.get(0));
+			assertEquals(0, fChanged.size());
+		}
+	}
+
+	public void testReconcileWithoutChange() throws Exception {
+		Map<String, Annotation> before= getProblemAnnotations();
+
+		replace("    Foo f1;\n", "    Foo f1;\n    int i;\n");
+		assertProblems(new String[] { "Foo", "Bar", "Baz" });
+
+		Map<String, Annotation> after= getProblemAnnotations();
+		assertSame(before.get(getMessage("Foo")), after.get(getMessage("Foo")));
+		assertSame(before.get(getMessage("Bar")), after.get(getMessage("Bar")));
+		assertSame(before.get(getMessage("Baz")), after.get(getMessage("Baz")));
+
+		synchronized (fCollector) {
+			assertEquals(0, fAdded.size());
+			assertEquals(0, fRemoved.size());
+			assertEquals(0, fChanged.size());
+		}
+	}
+}
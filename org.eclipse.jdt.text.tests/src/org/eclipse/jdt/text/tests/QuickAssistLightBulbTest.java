@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.Iterator;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.text.tests.performance.DisplayHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.IAnnotationModel;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.correction.QuickAssistLightBulbUpdater.AssistAnnotation;
+
+/**
+ * Tests the quick assist light bulb while the caret moves inside the same AST node. The example
+ * processor <code>MyCommentQuickAssistProcessor</code> of org.eclipse.jdt.ui.tests only has
+ * assists when the caret is inside a line comment of <code>LightBulb.java</code>.
+ *
+ * @since 3.11
+ */
+public class QuickAssistLightBulbTest extends TestCase {
+
+	private IJavaProject fJProject;
+	private JavaEditor fEditor;
+	private IDocument fDocument;
+	private IAnnotationModel fAnnotationModel;
+	private boolean fWasLightBulbShown;
+
+	public static Test suite() {
+		return new TestSuite(QuickAssistLightBulbTest.class);
+	}
+
+	protected void setUp() throws Exception {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		fWasLightBulbShown= store.getBoolean(PreferenceConstants.EDITOR_QUICKASSIST_LIGHTBULB);
+		store.setValue(PreferenceConstants.EDITOR_QUICKASSIST_LIGHTBULB, true);
+
+		fJProject= JavaProjectHelper.createJavaProject("LightBulbTest", "bin");
+		JavaProjectHelper.addRTJar(fJProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		IPackageFragment pack= root.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class LightBulb {\n");
+		buf.append("    // comment\n");
+		buf.append("\n");
+		buf.append("    void foo() {\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack.createCompilationUnit("LightBulb.java", buf.toString(), false, null);
+
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) cu.getResource(), true);
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		fAnnotationModel= fEditor.getDocumentProvider().getAnnotationModel(fEditor.getEditorInput());
+		assertNotNull(fAnnotationModel);
+		EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 100, 10000, 100);
+	}
+
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeAllEditors();
+		JavaProjectHelper.delete(fJProject);
+		JavaPlugin.getDefault().getPreferenceStore().setValue(PreferenceConstants.EDITOR_QUICKASSIST_LIGHTBULB, fWasLightBulbShown);
+	}
+
+	private void moveCaret(String text, int delta) {
+		int offset= fDocument.get().indexOf(text);
+		assertTrue(offset != -1);
+		fEditor.selectAndReveal(offset + delta, 0);
+	}
+
+	private boolean isLightBulbShown() {
+		Iterator iter= fAnnotationModel.getAnnotationIterator();
+		while (iter.hasNext()) {
+			if (iter.next() instanceof AssistAnnotation)
+				return true;
+		}
+		return false;
+	}
+
+	private void assertLightBulb(final boolean expected) {
+		DisplayHelper helper= new DisplayHelper() {
+			protected boolean condition() {
+				return isLightBulbShown() == expected;
+			}
+		};
+		helper.waitForCondition(EditorTestHelper.getActiveDisplay(), 10000);
+		assertEquals(expected, isLightBulbShown());
+	}
+
+	public void testCaretInsideSameNode() throws Exception {
+		// both positions are covered by the type declaration only
+		moveCaret("// comment", 3);
+		assertLightBulb(true);
+		moveCaret("\n\n", 1);
+		assertLightBulb(false);
+		moveCaret("// comment", 5);
+		assertLightBulb(true);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -49,6 +49,7 @@ import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitEditor;
 import org.eclipse.jdt.internal.ui.text.java.FillArgumentNamesCompletionProposalCollector;
+import org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal;
 
 public class CodeCompletionPerformanceTest extends TextPerformanceTestCase {
 
@@ -76,6 +77,9 @@ public class CodeCompletionPerformanceTest extends TextPerformanceTestCase {
 	private static final int ACC_COMPLETION= 150;
 	private static final int ACC_APPLICATION= 20;
 	private static final int ACC_PARAMETER_APPLICATION= 20;
+	private static final int ACC_OVERLOADS= 10;
+
+	private static final int NUMBER_OF_OVERLOADS= 200;
 
 	private ICompilationUnit fCU;
 	private String fContents;
@@ -370,6 +374,79 @@ public class CodeCompletionPerformanceTest extends TextPerformanceTestCase {
 		assertAllPerformance();
 	}
 
+	public void testCompletionWithParamterGuessesOverloads() throws Exception {
+		createOverloads();
+
+		measureCompletionWithParamterGuessesOverloads(getNullPerformanceMeter(), getWarmUpRuns());
+		PerformanceMeter performanceMeter= createPerformanceMeterForSummary("Java Editor: proposal computation (param guessing, 200 overloads)", Dimension.ELAPSED_PROCESS);
+		measureCompletionWithParamterGuessesOverloads(performanceMeter, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void createOverloads() throws JavaModelException {
+		IPackageFragment fragment= fSourceFolder.createPackageFragment("test3", false, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test3;\n");
+		buf.append("\n");
+		buf.append("public class Overloads {\n");
+		buf.append("    String fName;\n");
+		buf.append("    \n");
+		for (int i= 0; i < NUMBER_OF_OVERLOADS; i++) {
+			buf.append("    void overload").append(i).append("(int intVal, long longVal, String name, Runnable run");
+			for (int k= 0; k < i % 4; k++) {
+				buf.append(", Object o").append(k);
+			}
+			buf.append(", Integer number) {\n");
+			buf.append("    }\n");
+		}
+		buf.append("    \n");
+		buf.append("    void foomethod() {\n");
+		buf.append("        int intVal=5;\n");
+		buf.append("        long longVal=3;\n");
+		buf.append("        Runnable run= null;\n");
+		buf.append("        Integer integer= null;\n");
+		buf.append("        this.//here\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String content= buf.toString();
+		fCU= fragment.createCompilationUnit("Overloads.java", content, false, null);
+
+		fContents= content;
+		fCodeAssistOffset= content.indexOf("//here");
+
+		EditorTestHelper.joinJobs(1000, 10000, 100);
+	}
+
+	/*
+	 * Computes the guessed arguments of all proposals, as if each of them was highlighted.
+	 */
+	private void measureCompletionWithParamterGuessesOverloads(PerformanceMeter meter, final int runs) throws Exception {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		store.setValue(PreferenceConstants.CODEASSIST_GUESS_METHOD_ARGUMENTS, true);
+
+		for (int run= 0; run < runs; run++) {
+			meter.start();
+
+			for (int accumulated= 0; accumulated < ACC_OVERLOADS; accumulated++) {
+				CompletionProposalCollector collector= new FillArgumentNamesCompletionProposalCollector(createContext());
+				collector.setIgnored(CompletionProposal.METHOD_REF, false);
+				IJavaCompletionProposal[] proposals= codeComplete(collector);
+				int guessed= 0;
+				for (int i= 0; i < proposals.length; i++) {
+					if (proposals[i] instanceof LazyJavaCompletionProposal && proposals[i].getDisplayString().startsWith("overload")) {
+						assertNotNull(((LazyJavaCompletionProposal) proposals[i]).getReplacementString());
+						guessed++;
+					}
+				}
+				assertEquals(NUMBER_OF_OVERLOADS, guessed);
+			}
+
+			meter.stop();
+		}
+	}
+
 	private void applyProposal(IJavaCompletionProposal proposal) {
 		ISourceViewer viewer= fEditor.getViewer();
 		viewer.getDocument().set(fContents);
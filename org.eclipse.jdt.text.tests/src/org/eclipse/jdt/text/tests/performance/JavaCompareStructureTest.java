@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.compare.IEncodedStreamContentAccessor;
+import org.eclipse.compare.contentmergeviewer.ITokenComparator;
+
+import org.eclipse.jdt.internal.ui.compare.JavaStructureCreator;
+import org.eclipse.jdt.internal.ui.compare.JavaTokenComparator;
+
+/**
+ * Measures the time to compute the structure of a large Java file for the Java compare
+ * editors, with and without a cached structure, and the time to tokenize it.
+ *
+ * @since 3.11
+ */
+public class JavaCompareStructureTest extends TextPerformanceTestCase {
+
+	private static final Class THIS= JavaCompareStructureTest.class;
+
+	private static final String FILE= PerformanceTestSetup.STYLED_TEXT;
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 5;
+
+	private static final int ITERATIONS= 10;
+
+	private static class StringContentAccessor implements IEncodedStreamContentAccessor {
+
+		private final String fContents;
+
+		public StringContentAccessor(String contents) {
+			fContents= contents;
+		}
+
+		public InputStream getContents() throws CoreException {
+			try {
+				return new ByteArrayInputStream(fContents.getBytes("UTF-8")); //$NON-NLS-1$
+			} catch (UnsupportedEncodingException e) {
+				return new ByteArrayInputStream(fContents.getBytes());
+			}
+		}
+
+		public String getCharset() throws CoreException {
+			return "UTF-8"; //$NON-NLS-1$
+		}
+	}
+
+	private String fContents;
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		fContents= ResourceTestHelper.read(FILE).toString();
+		EditorTestHelper.joinBackgroundActivities();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+	}
+
+	/**
+	 * Measures the structure creation for contents that differ in every iteration.
+	 */
+	public void testStructureUncached() {
+		measureStructure(getNullPerformanceMeter(), getWarmUpRuns(), true);
+		measureStructure(createPerformanceMeter(), getMeasuredRuns(), true);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Measures the structure creation for unchanged contents, e.g. the workspace side when
+	 * comparing with several editions from the local history.
+	 */
+	public void testStructureCached() {
+		measureStructure(getNullPerformanceMeter(), getWarmUpRuns(), false);
+		measureStructure(createPerformanceMeter(), getMeasuredRuns(), false);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Measures the tokenization of the whole file.
+	 */
+	public void testTokenComparator() {
+		measureTokenComparator(getNullPerformanceMeter(), getWarmUpRuns());
+		measureTokenComparator(createPerformanceMeter(), getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measureStructure(PerformanceMeter performanceMeter, int runs, boolean modify) {
+		JavaStructureCreator creator= new JavaStructureCreator();
+		for (int i= 0; i < runs; i++) {
+			StringContentAccessor[] inputs= new StringContentAccessor[ITERATIONS];
+			for (int j= 0; j < ITERATIONS; j++) {
+				String contents= modify ? fContents + "// " + System.nanoTime() + '\n' : fContents; //$NON-NLS-1$
+				inputs[j]= new StringContentAccessor(contents);
+			}
+			performanceMeter.start();
+			for (int j= 0; j < ITERATIONS; j++)
+				assertNotNull(creator.getStructure(inputs[j]));
+			performanceMeter.stop();
+		}
+	}
+
+	private void measureTokenComparator(PerformanceMeter performanceMeter, int runs) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			for (int j= 0; j < ITERATIONS; j++) {
+				ITokenComparator comparator= new JavaTokenComparator(fContents);
+				assertTrue(comparator.getRangeCount() > 0);
+			}
+			performanceMeter.stop();
+		}
+	}
+}
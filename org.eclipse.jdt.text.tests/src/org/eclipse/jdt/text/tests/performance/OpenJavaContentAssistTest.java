@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,8 +18,16 @@ import org.eclipse.test.performance.PerformanceMeter;
 
 import org.eclipse.jface.action.IAction;
 
+import org.eclipse.jface.text.templates.Template;
+import org.eclipse.jface.text.templates.persistence.TemplatePersistenceData;
+import org.eclipse.jface.text.templates.persistence.TemplateStore;
+
 import org.eclipse.ui.texteditor.AbstractTextEditor;
 
+import org.eclipse.jdt.internal.corext.template.java.JavaContextType;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 
 public class OpenJavaContentAssistTest extends OpenQuickControlTest {
 
@@ -27,6 +35,8 @@ public class OpenJavaContentAssistTest extends OpenQuickControlTest {
 
 	private static final int LINE= 3897;
 
+	private static final int NUMBER_OF_USER_TEMPLATES= 500;
+
 	public static Test suite() {
 		return new PerformanceTestSetup(new TestSuite(THIS));
 	}
@@ -46,4 +56,29 @@ public class OpenJavaContentAssistTest extends OpenQuickControlTest {
 		PerformanceMeter warmMeter= createPerformanceMeter("-warm");
 		measureOpenQuickControl(coldMeter, warmMeter);
 	}
+
+	/**
+	 * Measures content assist with hundreds of additional user templates.
+	 *
+	 * @throws Exception in case of problems
+	 * @since 3.11
+	 */
+	public void testManyTemplates() throws Exception {
+		TemplateStore store= JavaPlugin.getDefault().getTemplateStore();
+		TemplatePersistenceData[] templates= new TemplatePersistenceData[NUMBER_OF_USER_TEMPLATES];
+		for (int i= 0; i < templates.length; i++) {
+			String contextTypeId= i % 2 == 0 ? JavaContextType.ID_STATEMENTS : JavaContextType.ID_MEMBERS;
+			templates[i]= new TemplatePersistenceData(new Template("user" + i, "user template " + i, contextTypeId, "${cursor}// user template " + i, false), true);
+			store.add(templates[i]);
+		}
+		try {
+			PerformanceMeter coldMeter= createPerformanceMeter("-cold");
+			PerformanceMeter warmMeter= createPerformanceMeter("-warm");
+			measureOpenQuickControl(coldMeter, warmMeter);
+		} finally {
+			for (int i= 0; i < templates.length; i++) {
+				store.delete(templates[i]);
+			}
+		}
+	}
 }
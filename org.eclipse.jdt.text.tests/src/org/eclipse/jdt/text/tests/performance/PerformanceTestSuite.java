@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,6 +44,7 @@ public class PerformanceTestSuite extends TestSuite {
 		addTest(ConvertLineDelimitersProjectTest.suite());
 		addTest(JavaFormatterProjectTest.suite());
 		addTest(ContentTypeTest.suite());
+		addTest(JavaCompareStructureTest.suite());
 		addTest(CodeCompletionPerformanceTest.suite());
 		addTest(DocumentLineDifferInitializationTest.suite());
 		addTest(SynchronizedLineDifferInitializationTest.suite());
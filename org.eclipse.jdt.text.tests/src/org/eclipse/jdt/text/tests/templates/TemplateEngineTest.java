@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.templates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.templates.Template;
+import org.eclipse.jface.text.templates.TemplateContextType;
+import org.eclipse.jface.text.templates.persistence.TemplatePersistenceData;
+import org.eclipse.jface.text.templates.persistence.TemplateStore;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.internal.corext.template.java.CompilationUnitContext;
+import org.eclipse.jdt.internal.corext.template.java.CompilationUnitContextType;
+import org.eclipse.jdt.internal.corext.template.java.JavaContextType;
+import org.eclipse.jdt.internal.corext.template.java.JavaDocContextType;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.template.contentassist.TemplateEngine;
+import org.eclipse.jdt.internal.ui.text.template.contentassist.TemplateProposal;
+
+
+/**
+ * Compares the proposals of the {@link TemplateEngine} with the result of evaluating every
+ * template of the template store in the completion context.
+ *
+ * @since 3.11
+ */
+public class TemplateEngineTest extends TestCase {
+
+	private static final Class THIS= TemplateEngineTest.class;
+
+	private static final int NUMBER_OF_USER_TEMPLATES= 60;
+
+	public static Test suite() {
+		return new ProjectTestSetup(new TestSuite(THIS));
+	}
+
+	private IJavaProject fJProject1;
+	private ICompilationUnit fCompilationUnit;
+	private ITextViewer fViewer;
+	private IDocument fDocument;
+	private TemplatePersistenceData[] fUserTemplates;
+
+	protected void setUp() throws Exception {
+		fJProject1= ProjectTestSetup.getProject();
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack= sourceFolder.createPackageFragment("test1", false, null);
+
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("/**\n");
+		buf.append(" * Comment with word.\n");
+		buf.append(" */\n");
+		buf.append("public class E {\n");
+		buf.append("    public void foo() {\n");
+		buf.append("        int i= 0;\n");
+		buf.append("        sy\n");
+		buf.append("        user1\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		fCompilationUnit= pack.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		TemplateStore store= JavaPlugin.getDefault().getTemplateStore();
+		String[] contextTypeIds= { JavaContextType.ID_STATEMENTS, JavaContextType.ID_MEMBERS, JavaContextType.ID_ALL, JavaDocContextType.ID };
+		fUserTemplates= new TemplatePersistenceData[NUMBER_OF_USER_TEMPLATES];
+		for (int i= 0; i < fUserTemplates.length; i++) {
+			String contextTypeId= contextTypeIds[i % contextTypeIds.length];
+			String pattern= i % 3 == 0 ? "<b>${word_selection}</b>${cursor}" : "${line_selection}${cursor}// user template " + i;
+			fUserTemplates[i]= new TemplatePersistenceData(new Template("user" + i, "user template " + i, contextTypeId, pattern, false), true);
+			store.add(fUserTemplates[i]);
+		}
+
+		JavaEditor editor= (JavaEditor) JavaUI.openInEditor(fCompilationUnit);
+		fViewer= editor.getViewer();
+		fDocument= fViewer.getDocument();
+	}
+
+	protected void tearDown() throws Exception {
+		EditorTestHelper.closeAllEditors();
+		TemplateStore store= JavaPlugin.getDefault().getTemplateStore();
+		for (int i= 0; i < fUserTemplates.length; i++) {
+			store.delete(fUserTemplates[i]);
+		}
+		JavaProjectHelper.clear(fJProject1, ProjectTestSetup.getDefaultClasspath());
+	}
+
+	public void testPrefix() throws Exception {
+		int offset= fDocument.get().indexOf("sy\n") + 2;
+		assertSameProposals(JavaContextType.ID_STATEMENTS, offset, 0, false);
+	}
+
+	public void testPrefixOfUserTemplates() throws Exception {
+		int offset= fDocument.get().indexOf("user1\n") + 5;
+		assertSameProposals(JavaContextType.ID_STATEMENTS, offset, 0, false);
+		assertSameProposals(JavaContextType.ID_MEMBERS, offset, 0, false);
+	}
+
+	public void testEmptyPrefix() throws Exception {
+		int offset= fDocument.get().indexOf("int i= 0;");
+		assertSameProposals(JavaContextType.ID_ALL, offset, 0, false);
+		assertSameProposals(JavaContextType.ID_STATEMENTS, offset, 0, false);
+	}
+
+	public void testLineSelection() throws Exception {
+		int offset= fDocument.get().indexOf("        int i= 0;");
+		int length= "        int i= 0;".length();
+		assertSameProposals(JavaContextType.ID_STATEMENTS, offset, length, true);
+	}
+
+	public void testWordSelection() throws Exception {
+		int offset= fDocument.get().indexOf("i= 0;");
+		assertSameProposals(JavaContextType.ID_STATEMENTS, offset, 1, false);
+	}
+
+	public void testJavadocWordSelection() throws Exception {
+		int offset= fDocument.get().indexOf("word.");
+		List<Template> proposals= assertSameProposals(JavaDocContextType.ID, offset, 4, false);
+
+		// a forced Javadoc context also offers the templates of other context types
+		boolean hasJavaTemplate= false;
+		for (int i= 0; i < proposals.size(); i++) {
+			if (!JavaDocContextType.ID.equals(proposals.get(i).getContextTypeId()))
+				hasJavaTemplate= true;
+		}
+		assertTrue(hasJavaTemplate);
+	}
+
+	private List<Template> assertSameProposals(String contextTypeId, int offset, int length, boolean multipleLinesSelected) {
+		TemplateContextType contextType= JavaPlugin.getDefault().getTemplateContextRegistry().getContextType(contextTypeId);
+
+		List<Template> expected= evaluateAllTemplates(contextType, offset, length, multipleLinesSelected);
+		assertFalse(expected.isEmpty());
+
+		fViewer.setSelectedRange(offset, length);
+		TemplateEngine engine= new TemplateEngine(contextType);
+		try {
+			engine.complete(fViewer, offset, fCompilationUnit);
+			TemplateProposal[] results= engine.getResults();
+			List<Template> actual= new ArrayList<Template>();
+			for (int i= 0; i < results.length; i++) {
+				actual.add(results[i].getTemplate());
+			}
+			assertEquals(toString(expected), toString(actual));
+			return actual;
+		} finally {
+			engine.reset();
+		}
+	}
+
+	private List<Template> evaluateAllTemplates(TemplateContextType contextType, int offset, int length, boolean multipleLinesSelected) {
+		CompilationUnitContext context= ((CompilationUnitContextType) contextType).createContext(fDocument, new Position(offset, length), fCompilationUnit);
+		if (length != 0 && context.getKey().length() == 0)
+			context.setForceEvaluation(true);
+
+		Template[] templates= JavaPlugin.getDefault().getTemplateStore().getTemplates();
+		List<Template> result= new ArrayList<Template>();
+		for (int i= 0; i < templates.length; i++) {
+			Template template= templates[i];
+			if (!context.canEvaluate(template))
+				continue;
+			if (length != 0) {
+				String selectionVariable= multipleLinesSelected ? "${line_selection}" : "${word_selection}";
+				if (template.getPattern().indexOf(selectionVariable) == -1)
+					continue;
+			}
+			result.add(template);
+		}
+		return result;
+	}
+
+	private static String toString(List<Template> templates) {
+		StringBuffer buf= new StringBuffer();
+		for (int i= 0; i < templates.size(); i++) {
+			Template template= templates.get(i);
+			buf.append(template.getName()).append(" (").append(template.getContextTypeId()).append(")\n");
+		}
+		return buf.toString();
+	}
+}
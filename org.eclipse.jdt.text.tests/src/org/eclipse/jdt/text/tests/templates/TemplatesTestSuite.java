@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ public class TemplatesTestSuite {
 		TestSuite suite = new TestSuite(TemplatesTestSuite.class.getName());
 		//$JUnit-BEGIN$
 		suite.addTest(TemplateContributionTest.suite());
+		suite.addTest(TemplateEngineTest.suite());
 		//$JUnit-END$
 		return suite;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -1365,6 +1365,10 @@ public class ExtractMethodTests extends AbstractSelectionTestCase {
 		localsTest();
 	}
 
+	public void test579() throws Exception {
+		localsTest();
+	}
+
 	//---- Test expressions
 
 	public void test600() throws Exception {
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.changes;
+
+import java.io.ByteArrayInputStream;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.test.OrderedTestSuite;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.text.edits.InsertEdit;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+/**
+ * Measures the validation of a change modifying 5000 files, sequentially and in parallel, both
+ * before the change is performed and before its undo change is performed.
+ */
+public class CompositeChangeValidationPerfTests extends JdtPerformanceTestCase {
+
+	private static class MyTestSetup extends TestSetup {
+
+		public static final int NUMBER_OF_FILES= 5000;
+		public static final int FILES_PER_FOLDER= 50;
+
+		public static IProject fProject;
+		public static CompositeChange fChange;
+		public static Change fUndo;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		protected void setUp() throws Exception {
+			ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+				public void run(IProgressMonitor monitor) throws CoreException {
+					fProject= ResourcesPlugin.getWorkspace().getRoot().getProject("CompositeChangeValidation");
+					fProject.create(null);
+					fProject.open(null);
+
+					fChange= new CompositeChange("root");
+					CompositeChange folderChange= null;
+					IFolder folder= null;
+					for (int i= 0; i < NUMBER_OF_FILES; i++) {
+						if (i % FILES_PER_FOLDER == 0) {
+							folder= fProject.getFolder("folder" + i / FILES_PER_FOLDER);
+							folder.create(true, true, null);
+							folderChange= new CompositeChange("folder");
+							fChange.add(folderChange);
+						}
+						IFile file= folder.getFile("file" + i + ".txt");
+						file.create(new ByteArrayInputStream(("content of file " + i).getBytes()), true, null);
+						TextFileChange change= new TextFileChange("change", file);
+						change.setEdit(new InsertEdit(0, "new "));
+						folderChange.add(change);
+					}
+				}
+			}, null);
+			fChange.initializeValidationData(new NullProgressMonitor());
+		}
+
+		protected void tearDown() throws Exception {
+			setParallelValidation(true);
+			fChange.dispose();
+			if (fUndo != null)
+				fUndo.dispose();
+			fProject.delete(true, true, null);
+		}
+	}
+
+	public static Test suite() {
+		// the change must be validated before it is performed
+		return new MyTestSetup(new OrderedTestSuite(CompositeChangeValidationPerfTests.class, new String[] {
+			"testValidateSequentially",
+			"testValidateInParallel",
+			"testValidateUndoSequentially",
+			"testValidateUndoInParallel"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public CompositeChangeValidationPerfTests(String name) {
+		super(name);
+	}
+
+	private static void setParallelValidation(boolean enabled) {
+		IEclipsePreferences preferences= InstanceScope.INSTANCE.getNode(RefactoringCorePlugin.getPluginId());
+		preferences.putBoolean(RefactoringPreferenceConstants.PREFERENCE_PARALLEL_CHANGE_VALIDATION, enabled);
+	}
+
+	private static Change getUndo() throws CoreException {
+		if (MyTestSetup.fUndo == null) {
+			MyTestSetup.fUndo= MyTestSetup.fChange.perform(new NullProgressMonitor());
+			MyTestSetup.fUndo.initializeValidationData(new NullProgressMonitor());
+		}
+		return MyTestSetup.fUndo;
+	}
+
+	private void measureValidation(Change change, boolean parallel) throws Exception {
+		setParallelValidation(parallel);
+		for (int i= 0; i < 6; i++) {
+			joinBackgroudActivities();
+			if (i > 0)
+				startMeasuring();
+			RefactoringStatus status= change.isValid(new NullProgressMonitor());
+			if (i > 0)
+				stopMeasuring();
+			assertTrue(status.isOK());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testValidateSequentially() throws Exception {
+		measureValidation(MyTestSetup.fChange, false);
+	}
+
+	public void testValidateInParallel() throws Exception {
+		measureValidation(MyTestSetup.fChange, true);
+	}
+
+	public void testValidateUndoSequentially() throws Exception {
+		measureValidation(getUndo(), false);
+	}
+
+	public void testValidateUndoInParallel() throws Exception {
+		measureValidation(getUndo(), true);
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.examples;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.dom.Comment;
+import org.eclipse.jdt.core.dom.LineComment;
+
+import org.eclipse.jdt.ui.text.java.IInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+import org.eclipse.jdt.ui.text.java.IProblemLocation;
+import org.eclipse.jdt.ui.text.java.IQuickAssistProcessor;
+
+/**
+ * Quick assist processor whose answer to <code>hasAssists</code> depends on the selection offset
+ * and not on the covering node: it only claims to have assists when the selection starts inside a
+ * line comment.
+ */
+public class MyCommentQuickAssistProcessor implements IQuickAssistProcessor {
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ui.text.java.IQuickAssistProcessor#hasAssists(org.eclipse.jdt.ui.text.java.IInvocationContext)
+	 */
+	public boolean hasAssists(IInvocationContext context) throws CoreException {
+		int offset= context.getSelectionOffset();
+		List comments= context.getASTRoot().getCommentList();
+		for (int i= 0; i < comments.size(); i++) {
+			Comment comment= (Comment) comments.get(i);
+			if (comment instanceof LineComment && comment.getStartPosition() <= offset && offset < comment.getStartPosition() + comment.getLength())
+				return true;
+		}
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ui.text.java.IQuickAssistProcessor#getAssists(org.eclipse.jdt.ui.text.java.IInvocationContext, org.eclipse.jdt.ui.text.java.IProblemLocation[])
+	 */
+	public IJavaCompletionProposal[] getAssists(IInvocationContext context, IProblemLocation[] locations) throws CoreException {
+		return null;
+	}
+
+}
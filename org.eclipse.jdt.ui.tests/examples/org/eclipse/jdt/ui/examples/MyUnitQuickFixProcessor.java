@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.examples;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.compiler.IProblem;
+
+import org.eclipse.jdt.ui.text.java.IInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+import org.eclipse.jdt.ui.text.java.IProblemLocation;
+import org.eclipse.jdt.ui.text.java.IQuickFixProcessor;
+
+/**
+ * Quick fix processor without enablement whose answer to <code>hasCorrections</code> depends on
+ * the compilation unit: it only claims to fix a problem in compilation units named
+ * <code>Fixable.java</code>.
+ */
+public class MyUnitQuickFixProcessor implements IQuickFixProcessor {
+
+	public static final String FIXABLE_UNIT= "Fixable.java";
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ui.text.java.IQuickFixProcessor#hasCorrections(org.eclipse.jdt.core.ICompilationUnit, int)
+	 */
+	public boolean hasCorrections(ICompilationUnit unit, int problemId) {
+		return problemId == IProblem.ObjectHasNoSuperclass && FIXABLE_UNIT.equals(unit.getElementName());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.jdt.ui.text.java.IQuickFixProcessor#getCorrections(org.eclipse.jdt.ui.text.java.IInvocationContext, org.eclipse.jdt.ui.text.java.IProblemLocation[])
+	 */
+	public IJavaCompletionProposal[] getCorrections(IInvocationContext context, IProblemLocation[] locations) throws CoreException {
+		return null;
+	}
+
+}
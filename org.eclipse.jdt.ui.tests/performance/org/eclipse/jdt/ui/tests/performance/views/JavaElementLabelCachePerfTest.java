@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.ui.JavaElementLabels;
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.ui.viewsupport.AppearanceAwareLabelProvider;
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementImageProvider;
+
+public class JavaElementLabelCachePerfTest extends JdtPerformanceTestCase {
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static final int NUMBER_OF_UNITS= 100;
+		public static final int NUMBER_OF_MEMBERS_PER_UNIT= 1000;
+
+		public static IJavaProject fJProject1;
+		public static IJavaElement[] fElements;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			IPackageFragment pack= root.createPackageFragment("pack", true, null);
+
+			List<IJavaElement> elements= new ArrayList<IJavaElement>();
+			for (int i= 0; i < NUMBER_OF_UNITS; i++) {
+				ICompilationUnit unit= pack.createCompilationUnit("E" + i + ".java", createSource(i), true, null);
+				IType type= unit.getTypes()[0];
+				elements.add(unit);
+				elements.add(type);
+				IJavaElement[] children= type.getChildren();
+				for (int k= 0; k < children.length; k++) {
+					elements.add(children[k]);
+				}
+			}
+			fElements= elements.toArray(new IJavaElement[elements.size()]);
+		}
+
+		/*
+		 * Creates a type with 1000 fields and methods.
+		 */
+		private static String createSource(int index) {
+			StringBuffer buf= new StringBuffer();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("import java.util.List;\n");
+			buf.append("\n");
+			buf.append("public class E").append(index).append(" {\n");
+			for (int i= 0; i < NUMBER_OF_MEMBERS_PER_UNIT / 2; i++) {
+				buf.append("    private List<String> field").append(i).append(";\n");
+				buf.append("    public String method").append(i).append("(int i, List<? extends Number> list) {\n");
+				buf.append("        return null;\n");
+				buf.append("    }\n");
+			}
+			buf.append("}\n");
+			return buf.toString();
+		}
+
+		protected void tearDown() throws Exception {
+			fElements= null;
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(JavaElementLabelCachePerfTest.class, new String[] {
+			"testRenderLabels"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public JavaElementLabelCachePerfTest(String name) {
+		super(name);
+	}
+
+	/**
+	 * Renders the labels and images of a tree with 100k elements repeatedly, as viewers do on
+	 * every refresh.
+	 *
+	 * @throws Exception in case of problems
+	 */
+	public void testRenderLabels() throws Exception {
+		IJavaElement[] elements= MyTestSetup.fElements;
+		assertTrue(elements.length >= MyTestSetup.NUMBER_OF_UNITS * MyTestSetup.NUMBER_OF_MEMBERS_PER_UNIT);
+
+		AppearanceAwareLabelProvider provider= new AppearanceAwareLabelProvider(
+				AppearanceAwareLabelProvider.DEFAULT_TEXTFLAGS | JavaElementLabels.P_COMPRESSED,
+				AppearanceAwareLabelProvider.DEFAULT_IMAGEFLAGS | JavaElementImageProvider.SMALL_ICONS);
+		try {
+			for (int i= 0; i < 10; i++) {
+				joinBackgroudActivities();
+				if (i > 0)
+					startMeasuring();
+				for (int k= 0; k < elements.length; k++) {
+					assertNotNull(provider.getStyledText(elements[k]));
+					assertNotNull(provider.getImage(elements[k]));
+				}
+				if (i > 0)
+					stopMeasuring();
+			}
+		} finally {
+			provider.dispose();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
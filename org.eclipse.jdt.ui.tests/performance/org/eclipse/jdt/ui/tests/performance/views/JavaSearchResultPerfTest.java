@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.search.ui.NewSearchUI;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+
+import org.eclipse.jdt.ui.search.ElementQuerySpecification;
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchQuery;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+import org.eclipse.jdt.internal.ui.search.JavaSearchScopeFactory;
+
+public class JavaSearchResultPerfTest extends JdtPerformanceTestCase {
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static final int NUMBER_OF_UNITS= 200;
+		public static final int NUMBER_OF_REFERENCES_PER_UNIT= 1000;
+
+		public static IJavaProject fJProject1;
+		public static IType fTarget;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			IPackageFragment pack= root.createPackageFragment("pack", true, null);
+
+			fTarget= pack.createCompilationUnit("Target.java", "package pack;\npublic class Target {\n}\n", true, null).getType("Target");
+			for (int i= 0; i < NUMBER_OF_UNITS; i++) {
+				pack.createCompilationUnit("E" + i + ".java", createSource(i), true, null);
+			}
+		}
+
+		/*
+		 * Creates a type with 1000 references to Target, spread over 100 methods.
+		 */
+		private static String createSource(int index) {
+			StringBuffer buf= new StringBuffer();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("public class E").append(index).append(" {\n");
+			for (int i= 0; i < NUMBER_OF_REFERENCES_PER_UNIT / 10; i++) {
+				buf.append("    public Target foo").append(i).append("(Target t) {\n");
+				for (int k= 0; k < 4; k++) {
+					buf.append("        Target t").append(k).append("= (Target) t;\n");
+				}
+				buf.append("        return t;\n");
+				buf.append("    }\n");
+			}
+			buf.append("}\n");
+			return buf.toString();
+		}
+
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(JavaSearchResultPerfTest.class, new String[] {
+			"testSearchReferences"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public JavaSearchResultPerfTest(String name) {
+		super(name);
+	}
+
+	/**
+	 * Searches for 200k references and shows them in the search result view.
+	 *
+	 * @throws Exception in case of problems
+	 */
+	public void testSearchReferences() throws Exception {
+		NewSearchUI.activateSearchResultView();
+		Display display= Display.getCurrent();
+		for (int i= 0; i < 6; i++) {
+			JavaSearchQuery query= new JavaSearchQuery(new ElementQuerySpecification(MyTestSetup.fTarget, IJavaSearchConstants.REFERENCES, JavaSearchScopeFactory.getInstance().createWorkspaceScope(true), "workspace scope"));
+			joinBackgroudActivities();
+			if (i > 0)
+				startMeasuring();
+			NewSearchUI.runQueryInForeground(null, query);
+			while (display.readAndDispatch()) {
+				// process the updates of the search result view
+			}
+			if (i > 0)
+				stopMeasuring();
+
+			assertEquals(MyTestSetup.NUMBER_OF_UNITS * MyTestSetup.NUMBER_OF_REFERENCES_PER_UNIT, ((JavaSearchResult) query.getSearchResult()).getMatchCount());
+			NewSearchUI.removeQuery(query);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,27 +23,43 @@ import org.eclipse.test.OrderedTestSuite;
 import org.eclipse.test.performance.Performance;
 import org.eclipse.test.performance.PerformanceMeter;
 
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
+import org.eclipse.core.resources.IWorkspaceRunnable;
+
+import org.eclipse.text.edits.TextEdit;
+
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.corext.codemanipulation.OrganizeImportsOperation;
+import org.eclipse.jdt.internal.corext.codemanipulation.TypeNameMatchCache;
 
 import org.eclipse.jdt.ui.SharedASTProvider;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
 
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+
 public class OrganizeImportsPerfTest extends JdtPerformanceTestCase {
 
 	private static class MyTestSetup extends TestSetup {
 		public static final String SRC_CONTAINER= "src";
 
+		public static final int NUMBER_OF_PACKAGES= 50;
+		public static final int NUMBER_OF_TYPES_PER_PACKAGE= 100;
+
 		public static IJavaProject fJProject1;
+		public static IJavaProject fJProject2;
 
 		public MyTestSetup(Test test) {
 			super(test);
@@ -54,17 +70,58 @@ public class OrganizeImportsPerfTest extends JdtPerformanceTestCase {
 			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
 			File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
 			JavaProjectHelper.addSourceContainerWithImport(fJProject1, SRC_CONTAINER, junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+
+			fJProject2= JavaProjectHelper.createJavaProject("TestProject2", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject2) != null);
+			final IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject2, SRC_CONTAINER);
+			JavaCore.run(new IWorkspaceRunnable() {
+				public void run(IProgressMonitor monitor) throws CoreException {
+					createLargeProject(root);
+				}
+			}, null);
+		}
+
+		/*
+		 * Creates 5000 compilation units without imports. Each type references types of the
+		 * neighbouring packages and of java.util.
+		 */
+		private static void createLargeProject(IPackageFragmentRoot root) throws CoreException {
+			for (int p= 0; p < NUMBER_OF_PACKAGES; p++) {
+				IPackageFragment pack= root.createPackageFragment("pack" + p, true, null);
+				for (int t= 0; t < NUMBER_OF_TYPES_PER_PACKAGE; t++) {
+					String typeName= getTypeName(p, t);
+					StringBuffer buf= new StringBuffer();
+					buf.append("package pack").append(p).append(";\n");
+					buf.append("\n");
+					buf.append("public class ").append(typeName).append(" {\n");
+					buf.append("    private List<").append(getTypeName(p + 1, t)).append("> fNext= new ArrayList<").append(getTypeName(p + 1, t)).append(">();\n");
+					buf.append("    private Map<String, ").append(getTypeName(p + 2, t)).append("> fMap= new HashMap<String, ").append(getTypeName(p + 2, t)).append(">();\n");
+					buf.append("    public ").append(getTypeName(p + 3, t)).append(" get(Set<String> keys) {\n");
+					buf.append("        return null;\n");
+					buf.append("    }\n");
+					buf.append("}\n");
+					pack.createCompilationUnit(typeName + ".java", buf.toString(), true, null);
+				}
+			}
+		}
+
+		private static String getTypeName(int pack, int type) {
+			return "Type" + (pack % NUMBER_OF_PACKAGES) + "x" + type;
 		}
 
 		protected void tearDown() throws Exception {
 			if (fJProject1 != null && fJProject1.exists())
 				JavaProjectHelper.delete(fJProject1);
+			if (fJProject2 != null && fJProject2.exists())
+				JavaProjectHelper.delete(fJProject2);
 		}
 	}
 
 	public static Test suite() {
 		return new MyTestSetup(new OrderedTestSuite(OrganizeImportsPerfTest.class, new String[] {
-			"testOrganizeImport"
+			"testOrganizeImport",
+			"testOrganizeImportsLargeProject",
+			"testOrganizeImportsLargeProjectSharedCache"
 		}));
 	}
 
@@ -106,6 +163,66 @@ public class OrganizeImportsPerfTest extends JdtPerformanceTestCase {
 		Performance.getDefault().assertPerformance(fPerformanceMeter);
 	}
 
+	/**
+	 * Organizes the imports of 5000 compilation units, each searching its unresolved type names.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public void testOrganizeImportsLargeProject() throws Exception {
+		measureLargeProject(Performance.getDefault().getNullPerformanceMeter(), 1, false);
+		measureLargeProject(fPerformanceMeter, 3, false);
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	/**
+	 * Organizes the imports of 5000 compilation units, sharing one type name cache like the clean up
+	 * does.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public void testOrganizeImportsLargeProjectSharedCache() throws Exception {
+		measureLargeProject(Performance.getDefault().getNullPerformanceMeter(), 1, true);
+		measureLargeProject(fPerformanceMeter, 3, true);
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	private void measureLargeProject(PerformanceMeter performanceMeter, int runs, final boolean shareCache) throws Exception {
+		List cusList= new ArrayList();
+		addAllCUs(MyTestSetup.fJProject2.getChildren(), cusList);
+		ICompilationUnit[] cus= (ICompilationUnit[])cusList.toArray(new ICompilationUnit[cusList.size()]);
+		assertEquals(MyTestSetup.NUMBER_OF_PACKAGES * MyTestSetup.NUMBER_OF_TYPES_PER_PACKAGE, cus.length);
+
+		for (int j= 0; j < runs; j++) {
+			joinBackgroudActivities();
+
+			final TypeNameMatchCache cache= shareCache ? new TypeNameMatchCache() : null;
+			final int[] edits= new int[1];
+			ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+			parser.setProject(MyTestSetup.fJProject2);
+			parser.setResolveBindings(true);
+
+			performanceMeter.start();
+			parser.createASTs(cus, new String[0], new ASTRequestor() {
+				public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+					try {
+						OrganizeImportsOperation op= new OrganizeImportsOperation(source, ast, true, false, true, null);
+						op.setTypeNameMatchCache(cache);
+						TextEdit edit= op.createTextEdit(null);
+						if (edit != null && edit.hasChildren())
+							edits[0]++;
+					} catch (CoreException e) {
+						fail(e.getMessage());
+					}
+				}
+			}, null);
+			performanceMeter.stop();
+
+			assertEquals(cus.length, edits[0]);
+		}
+	}
+
 	private void measure(PerformanceMeter performanceMeter, int runs) throws Exception {
 		for (int j= 0; j < runs; j++) {
 			List cusList= new ArrayList();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,20 +14,37 @@ package org.eclipse.jdt.ui.tests.performance.views;
 import junit.extensions.TestSetup;
 import junit.framework.Test;
 
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
 import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Dimension;
 
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
 
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerPart;
+
 public class PackageExplorerWorkspacePerfTest extends JdtPerformanceTestCase {
 
 	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+		public static IPackageFragmentRoot fSourceFolder;
 
 		public MyTestSetup(Test test) {
 			super(test);
@@ -46,15 +63,20 @@ public class PackageExplorerWorkspacePerfTest extends JdtPerformanceTestCase {
 //				});
 //				ResourcesPlugin.getWorkspace().run(op, new NullProgressMonitor());
 //			}
+			fJProject1= JavaProjectHelper.createJavaProject("MassChangeProject", "bin");
+			fSourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
 		}
 
 		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
 		}
 	}
 
 	public static Test suite() {
 		OrderedTestSuite suite= new OrderedTestSuite(PackageExplorerWorkspacePerfTest.class, new String[] {
-			"testOpen"
+			"testOpen",
+			"testMassChangeThroughput"
 		});
 		return new MyTestSetup(suite);
 	}
@@ -77,4 +99,55 @@ public class PackageExplorerWorkspacePerfTest extends JdtPerformanceTestCase {
 		page.showView(JavaUI.ID_PACKAGES);
 		finishMeasurements();
 	}
+
+	/*
+	 * Simulates a branch switch: 50 packages with 100 compilation units each are created and
+	 * deleted in one workspace operation while the package explorer shows the source folder.
+	 */
+	public void testMassChangeThroughput() throws Exception {
+		tagAsSummary("Package Explorer: process 5000 added and 5000 removed compilation units", Dimension.ELAPSED_PROCESS);
+
+		IWorkbenchPage page= PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		PackageExplorerPart view= (PackageExplorerPart) page.showView(JavaUI.ID_PACKAGES);
+		view.getTreeViewer().expandToLevel(MyTestSetup.fSourceFolder, 1);
+
+		for (int i= 0; i < 10; i++) {
+			joinBackgroudActivities();
+			startMeasuring();
+			createCompilationUnits(50, 100);
+			view.selectAndReveal(MyTestSetup.fSourceFolder); // runs pending updates
+			deletePackages();
+			view.selectAndReveal(MyTestSetup.fSourceFolder); // runs pending updates
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	private void createCompilationUnits(final int packages, final int unitsPerPackage) throws CoreException {
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (int i= 0; i < packages; i++) {
+					IPackageFragment pack= MyTestSetup.fSourceFolder.createPackageFragment("pack" + i, true, null);
+					for (int k= 0; k < unitsPerPackage; k++) {
+						String name= "C" + k;
+						pack.createCompilationUnit(name + ".java", "package pack" + i + ";\npublic class " + name + " {\n}\n", true, null);
+					}
+				}
+			}
+		}, null);
+	}
+
+	private void deletePackages() throws CoreException {
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				IJavaElement[] packages= MyTestSetup.fSourceFolder.getChildren();
+				for (int i= 0; i < packages.length; i++) {
+					if (!((IPackageFragment) packages[i]).isDefaultPackage())
+						packages[i].getResource().delete(true, null);
+				}
+			}
+		}, null);
+	}
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+import org.eclipse.jdt.internal.ui.text.correction.JavaCorrectionProcessor;
+
+public class QuickFixablePerfTest extends JdtPerformanceTestCase {
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static final int NUMBER_OF_UNITS= 10;
+		public static final int NUMBER_OF_PROBLEMS_PER_UNIT= 500;
+
+		public static IJavaProject fJProject1;
+		public static ICompilationUnit[] fUnits;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			IPackageFragment pack= root.createPackageFragment("pack", true, null);
+
+			fUnits= new ICompilationUnit[NUMBER_OF_UNITS];
+			for (int i= 0; i < NUMBER_OF_UNITS; i++) {
+				fUnits[i]= pack.createCompilationUnit("E" + i + ".java", createSource(i), true, null);
+			}
+		}
+
+		/*
+		 * Creates a type with 500 problems of five different kinds.
+		 */
+		private static String createSource(int index) {
+			StringBuffer buf= new StringBuffer();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("public class E").append(index).append(" {\n");
+			for (int i= 0; i < NUMBER_OF_PROBLEMS_PER_UNIT / 5; i++) {
+				buf.append("    public void foo").append(i).append("() {\n");
+				buf.append("        int i= undefined").append(i).append(";\n");
+				buf.append("        String s= i;\n");
+				buf.append("        Undefined").append(i).append(" u= null;\n");
+				buf.append("        undefined").append(i).append("();\n");
+				buf.append("        int k= \"\".undefined;\n");
+				buf.append("    }\n");
+			}
+			buf.append("}\n");
+			return buf.toString();
+		}
+
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	private static class Problem {
+		public final ICompilationUnit fUnit;
+		public final int fId;
+
+		public Problem(ICompilationUnit unit, int id) {
+			fUnit= unit;
+			fId= id;
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(QuickFixablePerfTest.class, new String[] {
+			"testHasCorrections"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public QuickFixablePerfTest(String name) {
+		super(name);
+	}
+
+	public void testHasCorrections() throws Exception {
+		Problem[] problems= createProblems();
+		int expected= -1;
+		for (int i= 0; i < 10; i++) {
+			joinBackgroudActivities();
+			if (i > 0)
+				startMeasuring();
+			int fixable= 0;
+			for (int j= 0; j < problems.length; j++) {
+				if (JavaCorrectionProcessor.hasCorrections(problems[j].fUnit, problems[j].fId, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER))
+					fixable++;
+			}
+			if (i > 0)
+				stopMeasuring();
+
+			if (expected == -1)
+				expected= fixable;
+			assertEquals(expected, fixable);
+		}
+		assertTrue(expected > 0);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private Problem[] createProblems() {
+		List<Problem> result= new ArrayList<Problem>();
+		for (int i= 0; i < MyTestSetup.fUnits.length; i++) {
+			ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+			parser.setSource(MyTestSetup.fUnits[i]);
+			parser.setResolveBindings(true);
+			CompilationUnit astRoot= (CompilationUnit) parser.createAST(null);
+			IProblem[] problems= astRoot.getProblems();
+			for (int k= 0; k < problems.length; k++) {
+				result.add(new Problem(MyTestSetup.fUnits[i], problems[k].getID()));
+			}
+		}
+		assertTrue(result.size() >= MyTestSetup.NUMBER_OF_UNITS * MyTestSetup.NUMBER_OF_PROBLEMS_PER_UNIT);
+		return result.toArray(new Problem[result.size()]);
+	}
+}
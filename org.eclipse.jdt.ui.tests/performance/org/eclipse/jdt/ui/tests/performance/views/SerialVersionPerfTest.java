@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
+import org.eclipse.jdt.internal.ui.text.correction.SerialVersionHashCalculator;
+import org.eclipse.jdt.internal.ui.text.correction.SerialVersionHashOperation;
+
+public class SerialVersionPerfTest extends JdtPerformanceTestCase {
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static final int NUMBER_OF_PACKAGES= 10;
+		public static final int NUMBER_OF_TYPES_PER_PACKAGE= 50;
+
+		public static IJavaProject fJProject1;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			final IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			JavaCore.run(new IWorkspaceRunnable() {
+				public void run(IProgressMonitor monitor) throws CoreException {
+					createSerializableTypes(root);
+				}
+			}, null);
+			ResourcesPlugin.getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, null);
+		}
+
+		/*
+		 * Creates 500 serializable types without serial version id. Types in different packages
+		 * have the same names.
+		 */
+		private static void createSerializableTypes(IPackageFragmentRoot root) throws CoreException {
+			for (int p= 0; p < NUMBER_OF_PACKAGES; p++) {
+				IPackageFragment pack= root.createPackageFragment("pack" + p, true, null);
+				for (int t= 0; t < NUMBER_OF_TYPES_PER_PACKAGE; t++) {
+					StringBuffer buf= new StringBuffer();
+					buf.append("package pack").append(p).append(";\n");
+					buf.append("\n");
+					buf.append("public class Type").append(t).append(" implements java.io.Serializable {\n");
+					buf.append("    private String fName;\n");
+					buf.append("    private int fCount").append(p).append(";\n");
+					buf.append("    public String getName() {\n");
+					buf.append("        return fName;\n");
+					buf.append("    }\n");
+					buf.append("}\n");
+					pack.createCompilationUnit("Type" + t + ".java", buf.toString(), true, null);
+				}
+			}
+		}
+
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(SerialVersionPerfTest.class, new String[] {
+			"testCalculatePerType",
+			"testCalculateAll"
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public SerialVersionPerfTest(String name) {
+		super(name);
+	}
+
+	public void testCalculatePerType() throws Exception {
+		ITypeBinding[] bindings= createBindings();
+		for (int i= 0; i < 4; i++) {
+			joinBackgroudActivities();
+			if (i > 0)
+				startMeasuring();
+			for (int j= 0; j < bindings.length; j++) {
+				assertNotNull(SerialVersionHashOperation.calculateSerialVersionId(bindings[j], null));
+			}
+			if (i > 0)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testCalculateAll() throws Exception {
+		ITypeBinding[] bindings= createBindings();
+		for (int i= 0; i < 4; i++) {
+			joinBackgroudActivities();
+			if (i > 0)
+				startMeasuring();
+			SerialVersionHashCalculator calculator= new SerialVersionHashCalculator(bindings);
+			calculator.calculate(null);
+			if (i > 0)
+				stopMeasuring();
+
+			for (int j= 0; j < bindings.length; j++) {
+				assertNull(calculator.getException(j));
+				assertEquals(SerialVersionHashOperation.calculateSerialVersionId(bindings[j], null), calculator.getSerialVersionId(j));
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private ITypeBinding[] createBindings() throws Exception {
+		List<IJavaElement> types= new ArrayList<IJavaElement>();
+		IPackageFragmentRoot root= MyTestSetup.fJProject1.getPackageFragmentRoot(MyTestSetup.fJProject1.getProject().getFolder(MyTestSetup.SRC_CONTAINER));
+		IJavaElement[] packages= root.getChildren();
+		for (int i= 0; i < packages.length; i++) {
+			ICompilationUnit[] cus= ((IPackageFragment) packages[i]).getCompilationUnits();
+			for (int j= 0; j < cus.length; j++) {
+				types.add(cus[j].getTypes()[0]);
+			}
+		}
+		assertEquals(MyTestSetup.NUMBER_OF_PACKAGES * MyTestSetup.NUMBER_OF_TYPES_PER_PACKAGE, types.size());
+
+		ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
+		parser.setProject(MyTestSetup.fJProject1);
+		IBinding[] bindings= parser.createBindings(types.toArray(new IJavaElement[types.size()]), null);
+		ITypeBinding[] result= new ITypeBinding[bindings.length];
+		for (int i= 0; i < bindings.length; i++) {
+			result[i]= (ITypeBinding) bindings[i];
+		}
+		return result;
+	}
+}
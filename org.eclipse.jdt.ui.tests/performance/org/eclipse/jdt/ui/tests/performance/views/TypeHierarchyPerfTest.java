@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,20 +21,27 @@ import org.eclipse.test.OrderedTestSuite;
 import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.Performance;
 
+import org.eclipse.swt.widgets.Display;
+
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
 import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyViewPart;
 import org.eclipse.jdt.internal.ui.util.OpenTypeHierarchyUtil;
 
@@ -71,6 +78,7 @@ public class TypeHierarchyPerfTest extends JdtPerformanceTestCase {
 					"testOpenObjectHierarchy",
 					"testOpenCollHierarchy",
 					"testOpenObjectHierarchy2",
+					"testRefreshObjectHierarchyAfterChange",
 				});
 		return new MyTestSetup(testSuite);
 	}
@@ -125,6 +133,43 @@ public class TypeHierarchyPerfTest extends JdtPerformanceTestCase {
 		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
 	}
 
+	public void testRefreshObjectHierarchyAfterChange() throws Exception {
+		tagAsSummary("Refresh type hierarchy on Object after adding a subtype", Dimension.ELAPSED_PROCESS);
+
+		IJavaElement element= MyTestSetup.fJProject1.findType("java.lang.Object");
+		TypeHierarchyViewPart viewPart= OpenTypeHierarchyUtil.open(element, JavaPlugin.getActiveWorkbenchWindow());
+		TypeHierarchyLifeCycle lifeCycle= viewPart.getTypeHierarchyLifeCycle();
+		IPackageFragment pack= MyTestSetup.fJunitSrcRoot.getPackageFragment("junit.framework");
+
+		for (int i= 0; i < 10; i++) {
+			joinBackgroudActivities();
+			String name= "PerfTestCase" + i;
+			startMeasuring();
+			ICompilationUnit cu= pack.createCompilationUnit(name + ".java", "package junit.framework;\npublic class " + name + " extends TestCase {\n}\n", true, null);
+			waitForHierarchyUpdate(lifeCycle, cu.getType(name), true);
+			stopMeasuring();
+
+			cu.delete(true, null);
+			waitForHierarchyUpdate(lifeCycle, cu.getType(name), false);
+		}
+
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	private void waitForHierarchyUpdate(TypeHierarchyLifeCycle lifeCycle, IType type, boolean contained) throws InterruptedException {
+		Display display= Display.getCurrent();
+		long timeout= System.currentTimeMillis() + 60 * 1000;
+		while (System.currentTimeMillis() < timeout) {
+			ITypeHierarchy hierarchy= lifeCycle.getHierarchy();
+			if (hierarchy != null && !lifeCycle.isRefreshJobRunning() && hierarchy.contains(type) == contained)
+				return;
+			if (!display.readAndDispatch())
+				Thread.sleep(10);
+		}
+		fail("type hierarchy not updated: " + type.getFullyQualifiedName());
+	}
+
 	private void measureOpenHierarchy(IJavaElement element) throws Exception {
 		IWorkbenchWindow activeWorkbenchWindow= JavaPlugin.getActiveWorkbenchWindow();
 		joinBackgroudActivities();
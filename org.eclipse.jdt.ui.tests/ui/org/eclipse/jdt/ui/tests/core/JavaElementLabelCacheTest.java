@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.ui.JavaElementLabels;
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementLabelCache;
+
+/**
+ * Tests that the labels cached by {@link JavaElementLabelCache} follow reconcile deltas.
+ *
+ * @since 3.11
+ */
+public class JavaElementLabelCacheTest extends CoreTests {
+
+	private static final Class THIS= JavaElementLabelCacheTest.class;
+
+	private static final long FLAGS= JavaElementLabels.M_PARAMETER_TYPES | JavaElementLabels.M_APP_RETURNTYPE | JavaElementLabels.F_APP_TYPE_SIGNATURE;
+
+	private IJavaProject fJProject1;
+	private JavaElementLabelCache fCache;
+	private ICompilationUnit fWorkingCopy;
+
+	public JavaElementLabelCacheTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new ProjectTestSetup(test);
+	}
+
+	protected void setUp() throws Exception {
+		fJProject1= ProjectTestSetup.getProject();
+		fCache= new JavaElementLabelCache();
+		fCache.install(PreferenceConstants.getPreferenceStore());
+
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack1= sourceFolder.createPackageFragment("org.test", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.test;\n");
+		buf.append("public class E {\n");
+		buf.append("    int fField;\n");
+		buf.append("    public int foo() {\n");
+		buf.append("        return 0;\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		fWorkingCopy= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+		fWorkingCopy.becomeWorkingCopy(null);
+	}
+
+	protected void tearDown() throws Exception {
+		fWorkingCopy.discardWorkingCopy();
+		fCache.dispose();
+		JavaProjectHelper.clear(fJProject1, ProjectTestSetup.getDefaultClasspath());
+	}
+
+	private void replace(String oldText, String newText) throws Exception {
+		IBuffer buffer= fWorkingCopy.getBuffer();
+		int offset= buffer.getContents().indexOf(oldText);
+		assertTrue(offset != -1);
+		buffer.replace(offset, oldText.length(), newText);
+		fWorkingCopy.reconcile(ICompilationUnit.NO_AST, false, null, null);
+	}
+
+	private void assertCachedLabel(IJavaElement element, String expected) {
+		assertEqualString(fCache.getElementLabel(element, FLAGS), expected);
+		assertEqualString(fCache.getElementLabel(element, FLAGS), JavaElementLabels.getTextLabel(element, FLAGS));
+	}
+
+	public void testReturnTypeChanged() throws Exception {
+		IType type= fWorkingCopy.getType("E");
+		IJavaElement method= type.getMethod("foo", new String[0]);
+		assertCachedLabel(method, "foo() : int");
+
+		replace("public int foo() {\n        return 0;", "public String foo() {\n        return null;");
+		assertCachedLabel(method, "foo() : String");
+	}
+
+	public void testFieldTypeChanged() throws Exception {
+		IType type= fWorkingCopy.getType("E");
+		IJavaElement field= type.getField("fField");
+		assertCachedLabel(field, "fField : int");
+
+		replace("int fField;", "long fField;");
+		assertCachedLabel(field, "fField : long");
+	}
+
+	public void testBodyChanged() throws Exception {
+		IType type= fWorkingCopy.getType("E");
+		IJavaElement method= type.getMethod("foo", new String[0]);
+		assertCachedLabel(method, "foo() : int");
+
+		replace("return 0;", "return 1;");
+		assertCachedLabel(method, "foo() : int");
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,6 +29,7 @@ import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
 
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.SharedASTProvider;
@@ -287,6 +288,39 @@ public class TypeHierarchyTest extends TestCase {
 	}
 
 
+	public void testSuperTypeHierarchyCache() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("pack1", true, null);
 
-
+		ICompilationUnit cu1= pack1.getCompilationUnit("A.java");
+		IType type1= cu1.createType("public class A {\n}\n", null, true, null);
+		ICompilationUnit cu2= pack1.getCompilationUnit("B.java");
+		IType type2= cu2.createType("public class B extends A {\n}\n", null, true, null);
+		ICompilationUnit cu3= pack1.getCompilationUnit("C.java");
+		IType type3= cu3.createType("public class C extends B {\n}\n", null, true, null);
+
+		ITypeHierarchy hierarchy1= SuperTypeHierarchyCache.getTypeHierarchy(type1);
+		assertTrue(SuperTypeHierarchyCache.hasInCache(type1));
+		assertFalse(SuperTypeHierarchyCache.hasInCache(type3));
+
+		// the hierarchy of C replaces the one of A
+		int misses= SuperTypeHierarchyCache.getCacheMisses();
+		ITypeHierarchy hierarchy3= SuperTypeHierarchyCache.getTypeHierarchy(type3);
+		assertNotSame(hierarchy1, hierarchy3);
+		assertEquals(misses + 1, SuperTypeHierarchyCache.getCacheMisses());
+
+		int hits= SuperTypeHierarchyCache.getCacheHits();
+		assertSame(hierarchy3, SuperTypeHierarchyCache.getTypeHierarchy(type1));
+		assertSame(hierarchy3, SuperTypeHierarchyCache.getTypeHierarchy(type2));
+		assertEquals(hits + 2, SuperTypeHierarchyCache.getCacheHits());
+		assertTrue(SuperTypeHierarchyCache.getHitRate() > 0);
+
+		// changing the super class of B invalidates the hierarchy of C
+		cu2.getBuffer().setContents("package pack1;\npublic class B {\n}\n");
+		cu2.save(null, true);
+		assertFalse(SuperTypeHierarchyCache.hasInCache(type3));
+
+		ITypeHierarchy hierarchy2= SuperTypeHierarchyCache.getTypeHierarchy(type2);
+		assertFalse(hierarchy2.contains(type1));
+	}
 }
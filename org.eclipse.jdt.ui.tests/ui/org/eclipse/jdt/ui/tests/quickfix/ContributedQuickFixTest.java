@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,17 +22,21 @@ import org.eclipse.jdt.testplugin.JavaProjectHelper;
 import org.eclipse.jdt.testplugin.TestOptions;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 
+import org.eclipse.jdt.ui.examples.MyUnitQuickFixProcessor;
 import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
 import org.eclipse.jdt.ui.text.java.correction.CUCorrectionProposal;
 
 import org.eclipse.jdt.internal.ui.text.correction.AssistContext;
+import org.eclipse.jdt.internal.ui.text.correction.JavaCorrectionProcessor;
 
 public class ContributedQuickFixTest extends QuickFixTest {
 
@@ -156,4 +160,26 @@ public class ContributedQuickFixTest extends QuickFixTest {
 	}
 
 
+	public void testContributedHasCorrections() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit other= pack1.createCompilationUnit("Other.java", "package test1;\npublic class Other {\n}\n", false, null);
+		ICompilationUnit fixable= pack1.createCompilationUnit(MyUnitQuickFixProcessor.FIXABLE_UNIT, "package test1;\npublic class Fixable {\n}\n", false, null);
+
+		// the answer of a contributed processor must not be shared between compilation units
+		String markerType= IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER;
+		for (int i= 0; i < 2; i++) {
+			assertTrue(JavaCorrectionProcessor.hasCorrections(fixable, IProblem.ObjectHasNoSuperclass, markerType));
+			assertFalse(JavaCorrectionProcessor.hasCorrections(other, IProblem.ObjectHasNoSuperclass, markerType));
+		}
+		assertFalse(JavaCorrectionProcessor.hasCorrections(other, IProblem.ObjectHasNoSuperclass, markerType));
+		assertTrue(JavaCorrectionProcessor.hasCorrections(fixable, IProblem.ObjectHasNoSuperclass, markerType));
+
+		// the answer of the processors of jdt.ui is shared
+		for (int i= 0; i < 2; i++) {
+			assertTrue(JavaCorrectionProcessor.hasCorrections(other, IProblem.UnusedImport, markerType));
+			assertTrue(JavaCorrectionProcessor.hasCorrections(fixable, IProblem.UnusedImport, markerType));
+		}
+	}
+
+
 }
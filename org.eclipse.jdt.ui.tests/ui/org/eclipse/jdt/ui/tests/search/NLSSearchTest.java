@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -632,4 +632,45 @@ public class NLSSearchTest extends TestCase {
 		NLSSearchTestHelper.assertNumberOfProblems(accessor, propertiesFile, 1);
 	}
 
+	public void testMultipleAccessorsWithSameName() throws Exception {
+		ICompilationUnit[] accessors= new ICompilationUnit[2];
+		IFile[] propertiesFiles= new IFile[2];
+		for (int i= 0; i < 2; i++) {
+			String packageName= "test" + (i + 1);
+			IPackageFragment pack= fSourceFolder.createPackageFragment(packageName, false, null);
+			StringBuffer buf= new StringBuffer();
+			buf.append("package " + packageName + ";\n");
+			buf.append("import org.eclipse.osgi.util.NLS;\n");
+			buf.append("public class Accessor extends NLS {\n");
+			buf.append("\n");
+			buf.append("    public static String Client_s" + (i + 1) + ";\n");
+			buf.append("\n");
+			buf.append("    private Accessor() {}\n");
+			buf.append("    private static final String BUNDLE_NAME = \"" + packageName + ".Accessor\"; //$NON-NLS-1$\n");
+			buf.append("    static {NLS.initializeMessages(BUNDLE_NAME, Accessor.class);}\n");
+			buf.append("}\n");
+			accessors[i]= pack.createCompilationUnit("Accessor.java", buf.toString(), false, null);
+		}
+
+		IPackageFragment pack1= fSourceFolder.getPackageFragment("test1");
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class Client {\n");
+		buf.append("    public String s1= test1.Accessor.Client_s1;\n");
+		buf.append("    public String s2= test2.Accessor.Client_s2;\n");
+		buf.append("}\n");
+		ICompilationUnit client= pack1.createCompilationUnit("Client.java", buf.toString(), false, null);
+
+		// the key of the second accessor is only defined in the properties file of the first accessor
+		buf= new StringBuffer();
+		buf.append("Client_s1=s1\n");
+		buf.append("Client_s2=s2\n");
+		propertiesFiles[0]= write((IFolder)pack1.getCorrespondingResource(), buf.toString(), "Accessor.properties");
+		IPackageFragment pack2= fSourceFolder.getPackageFragment("test2");
+		propertiesFiles[1]= write((IFolder)pack2.getCorrespondingResource(), "", "Accessor.properties");
+
+		NLSSearchTestHelper.assertHasUndefinedKey(accessors, propertiesFiles, "Client_s2", (IFile)client.getResource(), false);
+		NLSSearchTestHelper.assertHasUnusedKey(accessors, propertiesFiles, "Client_s2", propertiesFiles[0], false);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,13 +46,27 @@ public class NLSSearchTestHelper {
 		assertResultHasUnusedKey(key, file, isAccessor, searchProblems(accessor, propertiesFile));
 	}
 
+	public static void assertHasUndefinedKey(ICompilationUnit[] accessors, IFile[] propertiesFiles, String key, IFile file, boolean isAccessor) throws CoreException {
+		assertResultHasUndefinedKey(key, file, isAccessor, searchProblems(accessors, propertiesFiles));
+	}
+
+	public static void assertHasUnusedKey(ICompilationUnit[] accessors, IFile[] propertiesFiles, String key, IFile file, boolean isAccessor) throws IOException, CoreException {
+		assertResultHasUnusedKey(key, file, isAccessor, searchProblems(accessors, propertiesFiles));
+	}
+
 	public static void assertHasDuplicateKey(ICompilationUnit accessor, IFile propertiesFile, String key, IFile file) throws CoreException, IOException {
 		assertResultHasDuplicateKey(key, file, searchProblems(accessor, propertiesFile));
 	}
 
 	private static NLSSearchResult searchProblems(ICompilationUnit accessor, IFile propertiesFile) {
-		IType type= accessor.getType("Accessor");
-		NLSSearchQuery query= new NLSSearchQuery((new IType[] {type}), (new IFile[] {propertiesFile}), SearchEngine.createWorkspaceScope(), ""); //$NON-NLS-1$
+		return searchProblems(new ICompilationUnit[] {accessor}, new IFile[] {propertiesFile});
+	}
+
+	private static NLSSearchResult searchProblems(ICompilationUnit[] accessors, IFile[] propertiesFiles) {
+		IType[] types= new IType[accessors.length];
+		for (int i= 0; i < accessors.length; i++)
+			types[i]= accessors[i].getType("Accessor");
+		NLSSearchQuery query= new NLSSearchQuery(types, propertiesFiles, SearchEngine.createWorkspaceScope(), ""); //$NON-NLS-1$
 		NewSearchUI.runQueryInForeground(new BusyIndicatorRunnableContext(), query);
 		NLSSearchResult result= (NLSSearchResult)query.getSearchResult();
 		return result;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -126,12 +126,15 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		private TypeNameMatch[][] fOpenChoices;
 		private SourceRange[] fSourceRanges;
 
+		private final TypeNameMatchCache fTypeNameMatchCache;
 
-		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames) {
+
+		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames, TypeNameMatchCache typeNameMatchCache) {
 			fOldSingleImports= oldSingleImports;
 			fOldDemandImports= oldDemandImports;
 			fImpStructure= impStructure;
 			fDoIgnoreLowerCaseNames= ignoreLowerCaseNames;
+			fTypeNameMatchCache= typeNameMatchCache;
 
 			ICompilationUnit cu= impStructure.getCompilationUnit();
 
@@ -233,20 +236,29 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 				if (nUnresolved == 0) {
 					return false;
 				}
-				char[][] allTypes= new char[nUnresolved][];
-				int i= 0;
-				for (Iterator<String> iter= fUnresolvedTypes.keySet().iterator(); iter.hasNext();) {
-					allTypes[i++]= iter.next().toCharArray();
-				}
-				final ArrayList<TypeNameMatch> typesFound= new ArrayList<TypeNameMatch>();
 				final IJavaProject project= fCurrPackage.getJavaProject();
-				IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
-				TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
-				new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				final List<TypeNameMatch> typesFound;
+				if (fTypeNameMatchCache != null) {
+					typesFound= new ArrayList<TypeNameMatch>();
+					Map<String, List<TypeNameMatch>> matches= fTypeNameMatchCache.resolve(project, fUnresolvedTypes.keySet(), monitor);
+					for (Iterator<List<TypeNameMatch>> iter= matches.values().iterator(); iter.hasNext();) {
+						typesFound.addAll(iter.next());
+					}
+				} else {
+					char[][] allTypes= new char[nUnresolved][];
+					int i= 0;
+					for (Iterator<String> iter= fUnresolvedTypes.keySet().iterator(); iter.hasNext();) {
+						allTypes[i++]= iter.next().toCharArray();
+					}
+					typesFound= new ArrayList<TypeNameMatch>();
+					IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
+					TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
+					new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				}
 
 				boolean is50OrHigher= 	JavaModelUtil.is50OrHigher(project);
 
-				for (i= 0; i < typesFound.size(); i++) {
+				for (int i= 0; i < typesFound.size(); i++) {
 					TypeNameMatch curr= typesFound.get(i);
 					UnresolvedTypeData data= fUnresolvedTypes.get(curr.getSimpleTypeName());
 					if (data != null && isVisible(curr) && isOfKind(curr, data.typeKinds, is50OrHigher)) {
@@ -367,6 +379,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 	private final boolean fAllowSyntaxErrors;
 
+	private TypeNameMatchCache fTypeNameMatchCache;
+
 	public OrganizeImportsOperation(ICompilationUnit cu, CompilationUnit astRoot, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, IChooseImportQuery chooseImportQuery) {
 		fCompilationUnit= cu;
 		fASTRoot= astRoot;
@@ -382,6 +396,18 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		fParsingError= null;
 	}
 
+	/**
+	 * Sets the cache used to look up unresolved type names. Operations on many compilation units
+	 * can share a cache so that each name is only searched once per project.
+	 *
+	 * @param cache the cache, or <code>null</code> to search the unresolved names of each
+	 *            compilation unit separately
+	 * @since 3.11
+	 */
+	public void setTypeNameMatchCache(TypeNameMatchCache cache) {
+		fTypeNameMatchCache= cache;
+	}
+
 	/**
 	 * Runs the operation.
 	 * @param monitor the progress monitor
@@ -436,7 +462,7 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 			monitor.worked(1);
 
-			TypeReferenceProcessor processor= new TypeReferenceProcessor(oldSingleImports, oldDemandImports, astRoot, importsRewrite, fIgnoreLowerCaseNames);
+			TypeReferenceProcessor processor= new TypeReferenceProcessor(oldSingleImports, oldDemandImports, astRoot, importsRewrite, fIgnoreLowerCaseNames, fTypeNameMatchCache);
 
 			Iterator<SimpleName> refIterator= typeReferences.iterator();
 			while (refIterator.hasNext()) {
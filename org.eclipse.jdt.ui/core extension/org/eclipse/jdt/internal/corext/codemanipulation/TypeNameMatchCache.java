@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.codemanipulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+
+import org.eclipse.jdt.internal.corext.util.TypeNameMatchCollector;
+
+/**
+ * Caches the types found for simple type names on the classpath of a project.
+ * <p>
+ * Organize imports on many compilation units of the same project looks up the same unresolved
+ * names over and over again. With a shared cache, each name is searched only once per project and
+ * all names that are not known yet are searched with a single type name search.
+ * </p>
+ * <p>
+ * The cache does not track changes to the classpath or to the types of a project. It is meant to
+ * be used for the duration of one operation only.
+ * </p>
+ *
+ * @since 3.11
+ */
+public class TypeNameMatchCache {
+
+	private final Map<IJavaProject, Map<String, List<TypeNameMatch>>> fMatches;
+
+	public TypeNameMatchCache() {
+		fMatches= new HashMap<IJavaProject, Map<String, List<TypeNameMatch>>>();
+	}
+
+	/**
+	 * Returns the types with the given simple names on the classpath of the given project. Names
+	 * that are not in the cache yet are searched with one type name search.
+	 *
+	 * @param project the project whose classpath is searched
+	 * @param simpleNames the simple type names
+	 * @param monitor the progress monitor, can be <code>null</code>
+	 * @return a map from each of the given names to the list of types found for it; the lists must
+	 *         not be modified
+	 * @throws JavaModelException if the search failed
+	 */
+	public Map<String, List<TypeNameMatch>> resolve(IJavaProject project, Collection<String> simpleNames, IProgressMonitor monitor) throws JavaModelException {
+		if (monitor == null) {
+			monitor= new NullProgressMonitor();
+		}
+		try {
+			Map<String, List<TypeNameMatch>> projectMatches;
+			List<String> missing= new ArrayList<String>();
+			synchronized (fMatches) {
+				projectMatches= fMatches.get(project);
+				if (projectMatches == null) {
+					projectMatches= new HashMap<String, List<TypeNameMatch>>();
+					fMatches.put(project, projectMatches);
+				}
+				for (Iterator<String> iter= simpleNames.iterator(); iter.hasNext();) {
+					String name= iter.next();
+					if (!projectMatches.containsKey(name)) {
+						missing.add(name);
+					}
+				}
+			}
+
+			Map<String, List<TypeNameMatch>> found= null;
+			if (!missing.isEmpty()) {
+				found= search(project, missing, monitor);
+				synchronized (fMatches) {
+					projectMatches.putAll(found);
+				}
+			}
+
+			Map<String, List<TypeNameMatch>> result= new HashMap<String, List<TypeNameMatch>>();
+			synchronized (fMatches) {
+				for (Iterator<String> iter= simpleNames.iterator(); iter.hasNext();) {
+					String name= iter.next();
+					List<TypeNameMatch> matches= projectMatches.get(name);
+					if (matches == null && found != null) {
+						matches= found.get(name); // cache has been cleared concurrently
+					}
+					result.put(name, matches != null ? matches : Collections.<TypeNameMatch>emptyList());
+				}
+			}
+			return result;
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Removes all cached types.
+	 */
+	public void clear() {
+		synchronized (fMatches) {
+			fMatches.clear();
+		}
+	}
+
+	private static Map<String, List<TypeNameMatch>> search(IJavaProject project, List<String> names, IProgressMonitor monitor) throws JavaModelException {
+		char[][] allTypes= new char[names.size()][];
+		Map<String, List<TypeNameMatch>> result= new HashMap<String, List<TypeNameMatch>>();
+		for (int i= 0; i < allTypes.length; i++) {
+			String name= names.get(i);
+			allTypes[i]= name.toCharArray();
+			result.put(name, new ArrayList<TypeNameMatch>(3));
+		}
+
+		ArrayList<TypeNameMatch> typesFound= new ArrayList<TypeNameMatch>();
+		IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
+		TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
+		new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+
+		for (int i= 0; i < typesFound.size(); i++) {
+			TypeNameMatch curr= typesFound.get(i);
+			List<TypeNameMatch> matches= result.get(curr.getSimpleTypeName());
+			if (matches != null) {
+				matches.add(curr);
+			}
+		}
+		return result;
+	}
+}
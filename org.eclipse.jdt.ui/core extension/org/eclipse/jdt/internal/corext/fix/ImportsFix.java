@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import org.eclipse.jdt.core.search.TypeNameMatch;
 import org.eclipse.jdt.internal.corext.codemanipulation.CodeGenerationSettings;
 import org.eclipse.jdt.internal.corext.codemanipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.internal.corext.codemanipulation.OrganizeImportsOperation.IChooseImportQuery;
+import org.eclipse.jdt.internal.corext.codemanipulation.TypeNameMatchCache;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
@@ -35,6 +36,23 @@ import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 public class ImportsFix extends TextEditFix {
 
 	public static ICleanUpFix createCleanUp(final CompilationUnit cu, CodeGenerationSettings settings, boolean organizeImports, RefactoringStatus status) throws CoreException {
+		return createCleanUp(cu, settings, organizeImports, status, null);
+	}
+
+	/**
+	 * Creates a fix that organizes the imports of the given compilation unit.
+	 *
+	 * @param cu the AST of the compilation unit
+	 * @param settings the code generation settings
+	 * @param organizeImports <code>true</code> if imports are to be organized
+	 * @param status the status to which problems are reported
+	 * @param typeNameMatchCache the cache used to look up unresolved type names, shared by all
+	 *            compilation units that are cleaned up, or <code>null</code>
+	 * @return the fix or <code>null</code> if there is nothing to do
+	 * @throws CoreException if the fix could not be created
+	 * @since 3.11
+	 */
+	public static ICleanUpFix createCleanUp(final CompilationUnit cu, CodeGenerationSettings settings, boolean organizeImports, RefactoringStatus status, TypeNameMatchCache typeNameMatchCache) throws CoreException {
 		if (!organizeImports)
 			return null;
 
@@ -48,6 +66,7 @@ public class ImportsFix extends TextEditFix {
 
 		final ICompilationUnit unit= (ICompilationUnit)cu.getJavaElement();
 		OrganizeImportsOperation op= new OrganizeImportsOperation(unit, cu, settings.importIgnoreLowercase, false, false, query);
+		op.setTypeNameMatchCache(typeNameMatchCache);
 		final TextEdit edit= op.createTextEdit(null);
 		if (hasAmbiguity[0]) {
 			status.addInfo(Messages.format(ActionMessages.OrganizeImportsAction_multi_error_unresolvable, getLocationString(cu)));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.fix;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
@@ -65,6 +64,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
 import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
 import org.eclipse.jdt.internal.ui.text.correction.ProblemLocation;
+import org.eclipse.jdt.internal.ui.text.correction.SerialVersionHashCalculator;
 import org.eclipse.jdt.internal.ui.text.correction.SerialVersionHashOperation;
 import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 
@@ -114,22 +114,28 @@ public class PotentialProgrammingProblemsFix extends CompilationUnitRewriteOpera
 				ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
 				parser.setProject(fProject);
 				IBinding[] bindings= parser.createBindings(types, new SubProgressMonitor(monitor, 1));
+				List<ITypeBinding> typeBindings= new ArrayList<ITypeBinding>(bindings.length);
+				List<IType> bindingTypes= new ArrayList<IType>(bindings.length);
 				for (int i= 0; i < bindings.length; i++) {
-					IBinding curr= bindings[i];
-					if (curr instanceof ITypeBinding) {
-						ITypeBinding typeBinding= (ITypeBinding) curr;
-						try {
-							Long id= SerialVersionHashOperation.calculateSerialVersionId(typeBinding, new SubProgressMonitor(monitor, 1));
-							if (id != null) {
-								setSerialVersionId(typeBinding, id);
-							} else {
-							   	result.addWarning(Messages.format(FixMessages.PotentialProgrammingProblemsFix_calculatingUIDFailed_unknown, BasicElementLabels.getJavaElementName(typeBinding.getName())));
-							}
-						} catch (IOException e) {
-						   	result.addWarning(Messages.format(FixMessages.PotentialProgrammingProblemsFix_calculatingUIDFailed_exception, new String[] { BasicElementLabels.getJavaElementName(typeBinding.getName()), e.getLocalizedMessage()}), JavaStatusContext.create(types[i]));
-				        } catch (CoreException e) {
-						   	result.addWarning(Messages.format(FixMessages.PotentialProgrammingProblemsFix_calculatingUIDFailed_exception, new String[] { BasicElementLabels.getJavaElementName(typeBinding.getName()), e.getLocalizedMessage()}), JavaStatusContext.create(types[i]));
-				        }
+					if (bindings[i] instanceof ITypeBinding) {
+						typeBindings.add((ITypeBinding) bindings[i]);
+						bindingTypes.add(types[i]);
+					}
+				}
+
+				// locate and hash the class files of all types at once
+				SerialVersionHashCalculator calculator= new SerialVersionHashCalculator(typeBindings.toArray(new ITypeBinding[typeBindings.size()]));
+				calculator.calculate(new SubProgressMonitor(monitor, 1));
+				for (int i= 0; i < typeBindings.size(); i++) {
+					ITypeBinding typeBinding= typeBindings.get(i);
+					Long id= calculator.getSerialVersionId(i);
+					Exception e= calculator.getException(i);
+					if (id != null) {
+						setSerialVersionId(typeBinding, id);
+					} else if (e != null) {
+					   	result.addWarning(Messages.format(FixMessages.PotentialProgrammingProblemsFix_calculatingUIDFailed_exception, new String[] { BasicElementLabels.getJavaElementName(typeBinding.getName()), e.getLocalizedMessage()}), JavaStatusContext.create(bindingTypes.get(i)));
+					} else {
+					   	result.addWarning(Messages.format(FixMessages.PotentialProgrammingProblemsFix_calculatingUIDFailed_unknown, BasicElementLabels.getJavaElementName(typeBinding.getName())));
 					}
 				}
 			} finally {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -111,6 +111,17 @@ public abstract class CompilationUnitContext extends DocumentTemplateContext {
 		fForceEvaluation= evaluate;
 	}
 
+	/**
+	 * Returns whether templates of the given context type can be evaluated in this context.
+	 *
+	 * @param contextTypeId the id of the context type
+	 * @return <code>true</code> if templates of the context type are accepted by this context
+	 * @since 3.11
+	 */
+	public boolean isCompatibleContextType(String contextTypeId) {
+		return getContextType().getId().equals(contextTypeId);
+	}
+
 	/**
 	 * Returns the multi-variable guess.
 	 *
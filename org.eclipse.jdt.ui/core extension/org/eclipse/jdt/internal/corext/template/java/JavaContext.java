@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -144,6 +144,15 @@ public class JavaContext extends CompilationUnitContext {
 		fCompatibleContextTypeIds.add(contextTypeId);
 	}
 
+	/*
+	 * @see org.eclipse.jdt.internal.corext.template.java.CompilationUnitContext#isCompatibleContextType(java.lang.String)
+	 * @since 3.11
+	 */
+	@Override
+	public boolean isCompatibleContextType(String contextTypeId) {
+		return super.isCompatibleContextType(contextTypeId) || fCompatibleContextTypeIds != null && fCompatibleContextTypeIds.contains(contextTypeId);
+	}
+
 
 	/**
 	 * Returns the indentation level at the position of code completion.
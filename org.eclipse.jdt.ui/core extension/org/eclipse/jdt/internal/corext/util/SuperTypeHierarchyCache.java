@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.util;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -23,7 +24,13 @@ import org.eclipse.jdt.core.JavaModelException;
 
 /**
  * A thread-safe cache for super type hierarchies.
- * 
+ * <p>
+ * The size of the cache is limited by the total number of types in the cached hierarchies, which
+ * is derived from the maximal heap size. Every type of a cached hierarchy is indexed, such that
+ * hierarchies that share a super type chain are answered by the same entry. A cached hierarchy is
+ * removed when it is changed by a Java element delta.
+ * </p>
+ *
  * @see JDTUIHelperClasses
  */
 public class SuperTypeHierarchyCache {
@@ -31,12 +38,14 @@ public class SuperTypeHierarchyCache {
 	private static class HierarchyCacheEntry implements ITypeHierarchyChangedListener {
 
 		private ITypeHierarchy fTypeHierarchy;
-		private long fLastAccess;
+		private final IType fType;
+		private final IType[] fAllTypes;
 
 		public HierarchyCacheEntry(ITypeHierarchy hierarchy) {
 			fTypeHierarchy= hierarchy;
+			fType= hierarchy.getType();
+			fAllTypes= hierarchy.getAllTypes();
 			fTypeHierarchy.addTypeHierarchyChangedListener(this);
-			markAsAccessed();
 		}
 
 		public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
@@ -47,12 +56,12 @@ public class SuperTypeHierarchyCache {
 			return fTypeHierarchy;
 		}
 
-		public void markAsAccessed() {
-			fLastAccess= System.currentTimeMillis();
+		public IType getType() {
+			return fType;
 		}
 
-		public long getLastAccess() {
-			return fLastAccess;
+		public IType[] getAllTypes() {
+			return fAllTypes;
 		}
 
 		public void dispose() {
@@ -67,20 +76,46 @@ public class SuperTypeHierarchyCache {
 		 */
 		@Override
 		public String toString() {
-			return "Super hierarchy of: " + fTypeHierarchy.getType().getElementName(); //$NON-NLS-1$
+			return "Super hierarchy of: " + fType.getElementName(); //$NON-NLS-1$
 		}
 
 	}
 
 
-	private static final int CACHE_SIZE= 8;
+	/**
+	 * The minimal and maximal number of types in all cached hierarchies.
+	 */
+	private static final int MIN_CACHE_WEIGHT= 256;
+	private static final int MAX_CACHE_WEIGHT= 4096;
+
+	/**
+	 * The estimated memory used by a type of a cached hierarchy, in bytes.
+	 */
+	private static final int BYTES_PER_TYPE= 1024;
+
+	private static final int CACHE_WEIGHT= computeCacheWeight();
+
+	private static final int METHOD_OVERRIDE_TESTER_CACHE_SIZE= 32;
+
+	/**
+	 * The cached hierarchies by focus type, in access order. Also guards the other fields of the
+	 * hierarchy cache.
+	 */
+	private static LinkedHashMap<IType, HierarchyCacheEntry> fgHierarchyCache= new LinkedHashMap<IType, HierarchyCacheEntry>(16, 0.75f, true);
+	private static Map<IType, HierarchyCacheEntry> fgTypeIndex= new HashMap<IType, HierarchyCacheEntry>();
+	private static int fgCacheWeight= 0;
 
-	private static ArrayList<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<HierarchyCacheEntry>(CACHE_SIZE);
-	private static Map<IType, MethodOverrideTester> fgMethodOverrideTesterCache= new LRUMap<IType, MethodOverrideTester>(CACHE_SIZE);
+	private static Map<IType, MethodOverrideTester> fgMethodOverrideTesterCache= new LRUMap<IType, MethodOverrideTester>(METHOD_OVERRIDE_TESTER_CACHE_SIZE);
 
 	private static int fgCacheHits= 0;
 	private static int fgCacheMisses= 0;
 
+	private static int computeCacheWeight() {
+		// allow the cache to use about 1% of the heap
+		long weight= Runtime.getRuntime().maxMemory() / 100 / BYTES_PER_TYPE;
+		return (int) Math.max(MIN_CACHE_WEIGHT, Math.min(MAX_CACHE_WEIGHT, weight));
+	}
+
 	/**
 	 * Returns a super type hierarchy that contains the given type.
 	 * The returned hierarchy may actually be based on a subtype of the
@@ -140,43 +175,44 @@ public class SuperTypeHierarchyCache {
 	public static ITypeHierarchy getTypeHierarchy(IType type, IProgressMonitor progressMonitor) throws JavaModelException {
 		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type);
 		if (hierarchy == null) {
-			fgCacheMisses++;
+			synchronized (fgHierarchyCache) {
+				fgCacheMisses++;
+			}
 			hierarchy= type.newSupertypeHierarchy(progressMonitor);
 			addTypeHierarchyToCache(hierarchy);
 		} else {
-			fgCacheHits++;
+			synchronized (fgHierarchyCache) {
+				fgCacheHits++;
+			}
 		}
 		return hierarchy;
 	}
 
 	private static void addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
 		synchronized (fgHierarchyCache) {
-			int nEntries= fgHierarchyCache.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				HierarchyCacheEntry oldest= null;
-				ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<HierarchyCacheEntry>(CACHE_SIZE);
-				for (int i= 0; i < nEntries; i++) {
-					HierarchyCacheEntry entry= fgHierarchyCache.get(i);
-					ITypeHierarchy curr= entry.getTypeHierarchy();
-					if (!curr.exists() || hierarchy.contains(curr.getType())) {
-						obsoleteHierarchies.add(entry);
-					} else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest= entry;
-						}
-					}
-				}
-				if (!obsoleteHierarchies.isEmpty()) {
-					for (int i= 0; i < obsoleteHierarchies.size(); i++) {
-						removeHierarchyEntryFromCache(obsoleteHierarchies.get(i));
-					}
-				} else if (oldest != null) {
-					removeHierarchyEntryFromCache(oldest);
-				}
-			}
 			HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
-			fgHierarchyCache.add(newEntry);
+			IType[] allTypes= newEntry.getAllTypes();
+
+			// the hierarchies of the super types are contained in the new hierarchy
+			for (int i= 0; i < allTypes.length; i++) {
+				HierarchyCacheEntry obsolete= fgHierarchyCache.get(allTypes[i]);
+				if (obsolete != null)
+					removeHierarchyEntryFromCache(obsolete);
+			}
+
+			fgHierarchyCache.put(newEntry.getType(), newEntry);
+			for (int i= 0; i < allTypes.length; i++) {
+				fgTypeIndex.put(allTypes[i], newEntry);
+			}
+			fgCacheWeight+= allTypes.length;
+
+			// remove the entries that were least recently accessed
+			Iterator<HierarchyCacheEntry> iter= fgHierarchyCache.values().iterator();
+			while (fgCacheWeight > CACHE_WEIGHT && fgHierarchyCache.size() > 1) {
+				HierarchyCacheEntry oldest= iter.next();
+				iter.remove();
+				disposeEntry(oldest);
+			}
 		}
 	}
 
@@ -193,37 +229,73 @@ public class SuperTypeHierarchyCache {
 
 	private static ITypeHierarchy findTypeHierarchyInCache(IType type) {
 		synchronized (fgHierarchyCache) {
-			for (int i= fgHierarchyCache.size() - 1; i>= 0; i--) {
-				HierarchyCacheEntry curr= fgHierarchyCache.get(i);
-				ITypeHierarchy hierarchy= curr.getTypeHierarchy();
-				if (!hierarchy.exists()) {
-					removeHierarchyEntryFromCache(curr);
-				} else {
-					if (hierarchy.contains(type)) {
-						curr.markAsAccessed();
-						return hierarchy;
-					}
-				}
+			HierarchyCacheEntry curr= fgTypeIndex.get(type);
+			if (curr == null)
+				return null;
+			ITypeHierarchy hierarchy= curr.getTypeHierarchy();
+			if (!hierarchy.exists()) {
+				removeHierarchyEntryFromCache(curr);
+				return null;
 			}
+			fgHierarchyCache.get(curr.getType()); // mark as accessed
+			return hierarchy;
 		}
-		return null;
 	}
 
 	private static void removeHierarchyEntryFromCache(HierarchyCacheEntry entry) {
 		synchronized (fgHierarchyCache) {
-			removeMethodOverrideTester(entry.getTypeHierarchy());
-			entry.dispose();
-			fgHierarchyCache.remove(entry);
+			if (fgHierarchyCache.get(entry.getType()) != entry)
+				return; // already removed
+			fgHierarchyCache.remove(entry.getType());
+			disposeEntry(entry);
+		}
+	}
+
+	/*
+	 * Must be called with the cache lock held, after the entry has been removed from the cache.
+	 */
+	private static void disposeEntry(HierarchyCacheEntry entry) {
+		fgCacheWeight-= entry.getAllTypes().length;
+		IType[] allTypes= entry.getAllTypes();
+		for (int i= 0; i < allTypes.length; i++) {
+			IType type= allTypes[i];
+			if (fgTypeIndex.get(type) == entry) {
+				fgTypeIndex.remove(type);
+				// another cached hierarchy can still answer the type, e.g. java.lang.Object
+				for (Iterator<HierarchyCacheEntry> iter= fgHierarchyCache.values().iterator(); iter.hasNext();) {
+					HierarchyCacheEntry curr= iter.next();
+					if (curr.getTypeHierarchy().contains(type)) {
+						fgTypeIndex.put(type, curr);
+						break;
+					}
+				}
+			}
 		}
+		removeMethodOverrideTester(entry.getTypeHierarchy());
+		entry.dispose();
 	}
 
+	/**
+	 * Returns the ratio of the requested hierarchies that could be taken from the cache.
+	 *
+	 * @return the hit rate between 0 and 1, or 0 if no hierarchy has been requested yet
+	 * @since 3.11
+	 */
+	public static double getHitRate() {
+		synchronized (fgHierarchyCache) {
+			int requests= fgCacheHits + fgCacheMisses;
+			return requests == 0 ? 0 : (double) fgCacheHits / requests;
+		}
+	}
 
 	/**
 	 * Gets the number of times the hierarchy could be taken from the hierarchy.
 	 * @return Returns a int
 	 */
 	public static int getCacheHits() {
-		return fgCacheHits;
+		synchronized (fgHierarchyCache) {
+			return fgCacheHits;
+		}
 	}
 
 	/**
@@ -231,6 +303,8 @@ public class SuperTypeHierarchyCache {
 	 * @return Returns a int
 	 */
 	public static int getCacheMisses() {
-		return fgCacheMisses;
+		synchronized (fgHierarchyCache) {
+			return fgCacheMisses;
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -101,11 +101,11 @@ public class FlowContext {
 	public int getIndexFromLocal(IVariableBinding local) {
 		if (fLocals == null)
 			return -1;
-		for (int i= 0; i < fLocals.length; i++) {
-			if (fLocals[i] == local)
-				return i;
-		}
-		return -1;
+		// locals are managed at the index derived from their variable id
+		int index= local.getVariableId() - fStart;
+		if (index < 0 || index >= fLocals.length || fLocals[index] != local)
+			return -1;
+		return index;
 	}
 
 	void manageLocal(IVariableBinding local) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -57,6 +57,28 @@ public abstract class FlowInfo {
 		UNUSED,	READ_POTENTIAL,	READ_POTENTIAL,	WRITE_POTENTIAL,	WRITE_POTENTIAL, UNKNOWN
 	};
 
+	// Table to merge access modes when computing the arguments of a sequence (y: this, x: other)
+	private static final int[][] ACCESS_MODE_ARGUMENTS_TABLE= {
+	/*	  					  UNUSED		   READ			    READ_POTENTIAL   WRTIE			  WRITE_POTENTIAL  UNKNOWN */
+	/* UNUSED */			{ UNUSED,		   READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, UNKNOWN },
+	/* READ */				{ READ,			   READ,			READ,			 READ,			  READ,			   READ },
+	/* READ_POTENTIAL */	{ READ_POTENTIAL,  READ_POTENTIAL,  READ_POTENTIAL,  READ_POTENTIAL,  READ_POTENTIAL,  READ_POTENTIAL },
+	/* WRITE */				{ WRITE,		   WRITE,			WRITE,			 WRITE,			  WRITE,		   WRITE },
+	/* WRITE_POTENTIAL */   { WRITE_POTENTIAL, READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, WRITE_POTENTIAL },
+	/* UNKNOWN */ 			{ UNKNOWN, 		   UNKNOWN,			UNKNOWN,		 UNKNOWN, 		  UNKNOWN,		   UNKNOWN }
+	};
+
+	// Table to merge access modes when computing the return values of a sequence (y: this, x: other)
+	private static final int[][] ACCESS_MODE_RETURN_VALUES_TABLE= {
+	/*	  					  UNUSED		   READ			    READ_POTENTIAL   WRTIE			  WRITE_POTENTIAL  UNKNOWN */
+	/* UNUSED */			{ UNUSED,		   READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, UNKNOWN },
+	/* READ */				{ READ,			   READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, UNKNOWN },
+	/* READ_POTENTIAL */	{ READ_POTENTIAL,  READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, UNKNOWN },
+	/* WRITE */				{ WRITE,		   WRITE,			WRITE,			 WRITE,			  WRITE,		   WRITE },
+	/* WRITE_POTENTIAL */   { WRITE_POTENTIAL, WRITE_POTENTIAL, WRITE_POTENTIAL, WRITE,			  WRITE_POTENTIAL, WRITE_POTENTIAL },
+	/* UNKNOWN */ 			{ UNKNOWN, 		   READ,			READ_POTENTIAL,  WRITE,			  WRITE_POTENTIAL, UNKNOWN }
+	};
+
 	// Table to merge return modes for condition statements (y: fReturnKind, x: other.fReturnKind)
 	private static final int[][] RETURN_KIND_CONDITIONAL_TABLE = {
 	/* 						  NOT_POSSIBLE		UNDEFINED		NO_RETURN		PARTIAL_RETURN	VOID_RETURN		VALUE_RETURN	THROW */
@@ -84,8 +106,14 @@ public abstract class FlowInfo {
 	protected static final String UNLABELED = "@unlabeled"; //$NON-NLS-1$
 	protected static final IVariableBinding[] EMPTY_ARRAY= new IVariableBinding[0];
 
+	// The access modes of the locals are stored as one bit set per access mode except UNUSED. The
+	// bit set of the access mode with index m (see getIndex) starts at word (m - 1) * word count.
+	// A local whose bit is not set in any bit set is unused.
+	private static final int ACCESS_MODE_COUNT= 6;
+	private static final int[] ACCESS_MODES= { UNUSED, READ, READ_POTENTIAL, WRITE, WRITE_POTENTIAL, UNKNOWN };
+
 	protected int fReturnKind;
-	protected int[] fAccessModes;
+	protected long[] fAccessModes;
 	protected Set<String> fBranches;
 	//protected Set<ITypeBinding> fExceptions;
 	protected Set<ITypeBinding> fTypeVariables;
@@ -252,12 +280,12 @@ public abstract class FlowInfo {
 	 * @return an array of local variable bindings conforming to the given type.
 	 */
 	public IVariableBinding[] get(FlowContext context, int mode) {
-		List<IVariableBinding> result= new ArrayList<IVariableBinding>();
-		int[] locals= getAccessModes();
-		if (locals == null)
+		if (fAccessModes == null)
 			return EMPTY_ARRAY;
-		for (int i= 0; i < locals.length; i++) {
-			int accessMode= locals[i];
+		List<IVariableBinding> result= new ArrayList<IVariableBinding>();
+		int length= context.getArrayLength();
+		for (int i= 0; i < length; i++) {
+			int accessMode= getAccessMode(fAccessModes, i);
 			if ((accessMode & mode) != 0)
 				result.add(context.getLocalFromIndex(i));
 		}
@@ -282,7 +310,7 @@ public abstract class FlowInfo {
 		int index= context.getIndexFromLocal(local);
 		if (index == -1)
 			return unusedMode;
-		return (fAccessModes[index] & mode) != 0;
+		return (getAccessMode(fAccessModes, index) & mode) != 0;
 	}
 
 	/**
@@ -298,32 +326,31 @@ public abstract class FlowInfo {
 		int index= context.getIndexFromLocal(local);
 		if (index == -1)
 			return UNUSED;
-		return fAccessModes[index];
+		return getAccessMode(fAccessModes, index);
 	}
 
-	protected int[] getAccessModes() {
-		return fAccessModes;
+	protected void setAccessMode(int index, int accessMode) {
+		setAccessMode(fAccessModes, index, accessMode);
 	}
 
 	protected void clearAccessMode(IVariableBinding binding, FlowContext context) {
 		if (fAccessModes == null)	// all are unused
 			return;
-		fAccessModes[binding.getVariableId() - context.getStartingIndex()]= UNUSED;
+		setAccessMode(fAccessModes, binding.getVariableId() - context.getStartingIndex(), UNUSED);
 	}
 
 	protected void mergeAccessModeSequential(FlowInfo otherInfo, FlowContext context) {
 		if (!context.considerAccessMode())
 			return;
 
-		int[] others= otherInfo.fAccessModes;
+		long[] others= otherInfo.fAccessModes;
 		if (others == null)	// others are all unused. So nothing to do
 			return;
 
 		// Must not consider return kind since a return statement can't control execution flow
 		// inside a method. It always leaves the method.
 		if (branches()) {
-			for (int i= 0; i < others.length; i++)
-				others[i]= ACCESS_MODE_OPEN_BRANCH_TABLE[getIndex(others[i])];
+			mapAccessModes(others, ACCESS_MODE_OPEN_BRANCH_TABLE);
 		}
 
 		if (fAccessModes == null) {	// all current variables are unused
@@ -332,67 +359,24 @@ public abstract class FlowInfo {
 		}
 
 		if (context.computeArguments()) {
-			handleComputeArguments(others);
+			mergeAccessModes(fAccessModes, others, ACCESS_MODE_ARGUMENTS_TABLE);
 		} else if (context.computeReturnValues()) {
-			handleComputeReturnValues(others);
+			mergeAccessModes(fAccessModes, others, ACCESS_MODE_RETURN_VALUES_TABLE);
 		} else if (context.computeMerge()) {
-			handleMergeValues(others);
-		}
-	}
-
-	private void handleComputeReturnValues(int[] others) {
-		for (int i= 0; i < fAccessModes.length; i++) {
-			int accessmode= fAccessModes[i];
-			int othermode= others[i];
-			if (accessmode == WRITE)
-				continue;
-			if (accessmode == WRITE_POTENTIAL) {
-				if (othermode == WRITE)
-					fAccessModes[i]= WRITE;
-				continue;
-			}
-
-			if (others[i] != UNUSED)
-				fAccessModes[i]= othermode;
-		}
-	}
-
-	private void handleComputeArguments(int[] others) {
-		for (int i= 0; i < fAccessModes.length; i++) {
-			int accessMode= fAccessModes[i];
-			int otherMode= others[i];
-			if (accessMode == UNUSED) {
-				fAccessModes[i]= otherMode;
-			} else if (accessMode == WRITE_POTENTIAL && (otherMode == READ || otherMode == READ_POTENTIAL)) {
-				// Read always supersedes a potential write even if the read is potential as well
-				// (we have to consider the potential read as an argument then).
-				fAccessModes[i]= otherMode;
-			} else if (accessMode == WRITE_POTENTIAL && otherMode == WRITE) {
-				fAccessModes[i]= WRITE;
-			}
-		}
-	}
-
-	private void handleMergeValues(int[] others) {
-		for (int i= 0; i < fAccessModes.length; i++) {
-			fAccessModes[i]= ACCESS_MODE_CONDITIONAL_TABLE
-				[getIndex(fAccessModes[i])]
-				[getIndex(others[i])];
+			mergeAccessModes(fAccessModes, others, ACCESS_MODE_CONDITIONAL_TABLE);
 		}
 	}
 
 	protected void createAccessModeArray(FlowContext context) {
-		fAccessModes= new int[context.getArrayLength()];
-		for (int i= 0; i < fAccessModes.length; i++) {
-			fAccessModes[i]= UNUSED;
-		}
+		int wordCount= (context.getArrayLength() + 63) >>> 6;
+		fAccessModes= new long[(ACCESS_MODE_COUNT - 1) * wordCount];
 	}
 
 	protected void mergeAccessModeConditional(FlowInfo otherInfo, FlowContext context) {
 		if (!context.considerAccessMode())
 			return;
 
-		int[] others= otherInfo.fAccessModes;
+		long[] others= otherInfo.fAccessModes;
 		// first access
 		if (fAccessModes == null) {
 			if (others != null)
@@ -401,20 +385,7 @@ public abstract class FlowInfo {
 				createAccessModeArray(context);
 			return;
 		} else {
-			if (others == null) {
-				for (int i= 0; i < fAccessModes.length; i++) {
-					int unused_index= getIndex(UNUSED);
-					fAccessModes[i]= ACCESS_MODE_CONDITIONAL_TABLE
-						[getIndex(fAccessModes[i])]
-						[unused_index];
-				}
-			} else {
-				for (int i= 0; i < fAccessModes.length; i++) {
-					fAccessModes[i]= ACCESS_MODE_CONDITIONAL_TABLE
-						[getIndex(fAccessModes[i])]
-						[getIndex(others[i])];
-				}
-			}
+			mergeAccessModes(fAccessModes, others, ACCESS_MODE_CONDITIONAL_TABLE);
 		}
 	}
 
@@ -430,11 +401,98 @@ public abstract class FlowInfo {
 			return;
 		}
 
-		int unused_index= getIndex(UNUSED);
-		for (int i= 0; i < fAccessModes.length; i++) {
-			fAccessModes[i]= ACCESS_MODE_CONDITIONAL_TABLE
-				[getIndex(fAccessModes[i])]
-				[unused_index];
+		mergeAccessModes(fAccessModes, null, ACCESS_MODE_CONDITIONAL_TABLE);
+	}
+
+	//---- Access mode bit sets -------------------------------------------------------
+
+	private static int getAccessMode(long[] accessModes, int index) {
+		int wordCount= accessModes.length / (ACCESS_MODE_COUNT - 1);
+		int word= index >>> 6;
+		long bit= 1L << index;
+		for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+			if ((accessModes[(m - 1) * wordCount + word] & bit) != 0)
+				return ACCESS_MODES[m];
+		}
+		return UNUSED;
+	}
+
+	private static void setAccessMode(long[] accessModes, int index, int accessMode) {
+		int wordCount= accessModes.length / (ACCESS_MODE_COUNT - 1);
+		int word= index >>> 6;
+		long bit= 1L << index;
+		for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+			accessModes[(m - 1) * wordCount + word]&= ~bit;
+		}
+		if (accessMode != UNUSED)
+			accessModes[(getIndex(accessMode) - 1) * wordCount + word]|= bit;
+	}
+
+	/**
+	 * Replaces the access modes in the given bit sets according to the given table.
+	 *
+	 * @param accessModes the bit sets to change in place
+	 * @param table the new access mode for every access mode, indexed by {@link #getIndex(int)}
+	 */
+	private static void mapAccessModes(long[] accessModes, int[] table) {
+		int wordCount= accessModes.length / (ACCESS_MODE_COUNT - 1);
+		long[] result= new long[ACCESS_MODE_COUNT];
+		for (int w= 0; w < wordCount; w++) {
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				result[m]= 0;
+			}
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				result[getIndex(table[m])]|= accessModes[(m - 1) * wordCount + w];
+			}
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				accessModes[(m - 1) * wordCount + w]= result[m];
+			}
+		}
+	}
+
+	/**
+	 * Merges the access modes of <code>others</code> into <code>accessModes</code> according to
+	 * the given table. The table must map two unused locals to an unused local.
+	 *
+	 * @param accessModes the bit sets to change in place
+	 * @param others the bit sets to merge, or <code>null</code> if all locals are unused
+	 * @param table the merged access mode, indexed by {@link #getIndex(int)} of the access mode
+	 *            in <code>accessModes</code> and of the access mode in <code>others</code>
+	 */
+	private static void mergeAccessModes(long[] accessModes, long[] others, int[][] table) {
+		int wordCount= accessModes.length / (ACCESS_MODE_COUNT - 1);
+		long[] left= new long[ACCESS_MODE_COUNT];
+		long[] right= new long[ACCESS_MODE_COUNT];
+		long[] result= new long[ACCESS_MODE_COUNT];
+		for (int w= 0; w < wordCount; w++) {
+			long leftUsed= 0;
+			long rightUsed= 0;
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				left[m]= accessModes[(m - 1) * wordCount + w];
+				leftUsed|= left[m];
+				right[m]= others != null ? others[(m - 1) * wordCount + w] : 0;
+				rightUsed|= right[m];
+			}
+			if (leftUsed == 0 && rightUsed == 0)
+				continue; // all unused
+			left[0]= ~leftUsed;
+			right[0]= ~rightUsed;
+
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				result[m]= 0;
+			}
+			for (int l= 0; l < ACCESS_MODE_COUNT; l++) {
+				if (left[l] == 0)
+					continue;
+				for (int r= 0; r < ACCESS_MODE_COUNT; r++) {
+					long bits= left[l] & right[r];
+					if (bits != 0)
+						result[getIndex(table[l][r])]|= bits;
+				}
+			}
+			for (int m= 1; m < ACCESS_MODE_COUNT; m++) {
+				accessModes[(m - 1) * wordCount + w]= result[m];
+			}
 		}
 	}
 
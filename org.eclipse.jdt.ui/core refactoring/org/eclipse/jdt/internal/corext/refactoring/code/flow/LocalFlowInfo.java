@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,7 +21,7 @@ class LocalFlowInfo extends FlowInfo {
 		fVariableId= binding.getVariableId();
 		if (context.considerAccessMode()) {
 			createAccessModeArray(context);
-			fAccessModes[fVariableId - context.getStartingIndex()]= localAccessMode;
+			setAccessMode(fVariableId - context.getStartingIndex(), localAccessMode);
 			context.manageLocal(binding);
 		}
 	}
@@ -31,13 +31,13 @@ class LocalFlowInfo extends FlowInfo {
 		fVariableId= info.fVariableId;
 		if (context.considerAccessMode()) {
 			createAccessModeArray(context);
-			fAccessModes[fVariableId - context.getStartingIndex()]= localAccessMode;
+			setAccessMode(fVariableId - context.getStartingIndex(), localAccessMode);
 		}
 	}
 
 	public void setWriteAccess(FlowContext context) {
 		if (context.considerAccessMode()) {
-			fAccessModes[fVariableId - context.getStartingIndex()]= FlowInfo.WRITE;
+			setAccessMode(fVariableId - context.getStartingIndex(), FlowInfo.WRITE);
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,7 @@ import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
 
 import org.eclipse.jdt.internal.corext.refactoring.nls.NLSRefactoring;
 import org.eclipse.jdt.internal.corext.util.Messages;
@@ -80,43 +81,31 @@ public class NLSSearchQuery implements ISearchQuery {
 					return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_wrapperNotExists, JavaElementLabels.getElementLabel(wrapperClass, JavaElementLabels.ALL_DEFAULT)), null);
 				if (! propertieFile.exists())
 					return JavaUIStatus.createError(0, Messages.format(NLSSearchMessages.NLSSearchQuery_propertiesNotExists, BasicElementLabels.getResourceName(propertieFile)), null);
+			}
 
-				SearchPattern pattern= SearchPattern.createPattern(wrapperClass, IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
-				SearchParticipant[] participants= new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
-
-				NLSSearchResultRequestor requestor= new NLSSearchResultRequestor(propertieFile, fResult);
-				try {
-					SearchEngine engine= new SearchEngine();
-					engine.search(pattern, participants, fScope, requestor, new SubProgressMonitor(monitor, 4));
-					requestor.reportUnusedPropertyNames(new SubProgressMonitor(monitor, 1));
-
-					ICompilationUnit compilationUnit= ((IType)wrapperClass).getCompilationUnit();
-					CompilationUnitEntry groupElement= new CompilationUnitEntry(NLSSearchMessages.NLSSearchResultCollector_unusedKeys, compilationUnit);
-
-					boolean hasUnusedPropertie= false;
-					IField[] fields= ((IType)wrapperClass).getFields();
-					for (int j= 0; j < fields.length; j++) {
-						IField field= fields[j];
-						if (isNLSField(field)) {
-							ISourceRange sourceRange= field.getSourceRange();
-							if (sourceRange != null) {
-								String fieldName= field.getElementName();
-								if (!requestor.hasPropertyKey(fieldName)) {
-									fResult.addMatch(new Match(compilationUnit, sourceRange.getOffset(), sourceRange.getLength()));
-								}
-								if (!requestor.isUsedPropertyKey(fieldName)) {
-									hasUnusedPropertie= true;
-									fResult.addMatch(new Match(groupElement, sourceRange.getOffset(), sourceRange.getLength()));
-								}
-							}
-						}
-					}
-					if (hasUnusedPropertie)
-						fResult.addCompilationUnitGroup(groupElement);
-
-				} catch (CoreException e) {
-					return new Status(e.getStatus().getSeverity(), JavaPlugin.getPluginId(), IStatus.OK, NLSSearchMessages.NLSSearchQuery_error, e);
+			// search the references to all accessor classes in a single pass
+			SearchPattern pattern= null;
+			NLSSearchResultRequestor[] requestors= new NLSSearchResultRequestor[fWrapperClass.length];
+			for (int i= 0; i < fWrapperClass.length; i++) {
+				SearchPattern wrapperPattern= SearchPattern.createPattern(fWrapperClass[i], IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+				pattern= pattern == null ? wrapperPattern : SearchPattern.createOrPattern(pattern, wrapperPattern);
+				requestors[i]= new NLSSearchResultRequestor(fPropertiesFile[i], fResult);
+			}
+			if (pattern == null)
+				return Status.OK_STATUS;
+
+			SearchParticipant[] participants= new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
+			SearchRequestor requestor= requestors.length == 1 ? (SearchRequestor) requestors[0] : new NLSSearchResultDispatcher(fWrapperClass, requestors);
+			try {
+				SearchEngine engine= new SearchEngine();
+				engine.search(pattern, participants, fScope, requestor, new SubProgressMonitor(monitor, 4 * fWrapperClass.length));
+
+				for (int i= 0; i < fWrapperClass.length; i++) {
+					requestors[i].reportUnusedPropertyNames(new SubProgressMonitor(monitor, 1));
+					reportFieldProblems((IType) fWrapperClass[i], requestors[i]);
 				}
+			} catch (CoreException e) {
+				return new Status(e.getStatus().getSeverity(), JavaPlugin.getPluginId(), IStatus.OK, NLSSearchMessages.NLSSearchQuery_error, e);
 			}
 		} finally {
 			monitor.done();
@@ -124,6 +113,32 @@ public class NLSSearchQuery implements ISearchQuery {
 		return 	Status.OK_STATUS;
 	}
 
+	private void reportFieldProblems(IType wrapperClass, NLSSearchResultRequestor requestor) throws JavaModelException {
+		ICompilationUnit compilationUnit= wrapperClass.getCompilationUnit();
+		CompilationUnitEntry groupElement= new CompilationUnitEntry(NLSSearchMessages.NLSSearchResultCollector_unusedKeys, compilationUnit);
+
+		boolean hasUnusedPropertie= false;
+		IField[] fields= wrapperClass.getFields();
+		for (int j= 0; j < fields.length; j++) {
+			IField field= fields[j];
+			if (isNLSField(field)) {
+				ISourceRange sourceRange= field.getSourceRange();
+				if (sourceRange != null) {
+					String fieldName= field.getElementName();
+					if (!requestor.hasPropertyKey(fieldName)) {
+						fResult.addMatch(new Match(compilationUnit, sourceRange.getOffset(), sourceRange.getLength()));
+					}
+					if (!requestor.isUsedPropertyKey(fieldName)) {
+						hasUnusedPropertie= true;
+						fResult.addMatch(new Match(groupElement, sourceRange.getOffset(), sourceRange.getLength()));
+					}
+				}
+			}
+		}
+		if (hasUnusedPropertie)
+			fResult.addCompilationUnitGroup(groupElement);
+	}
+
 	private boolean isNLSField(IField field) throws JavaModelException {
 		int flags= field.getFlags();
 		if (!Flags.isPublic(flags))
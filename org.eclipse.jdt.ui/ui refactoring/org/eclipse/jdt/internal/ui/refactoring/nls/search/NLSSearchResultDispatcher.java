@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.refactoring.nls.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Routes the matches of a search for the references to several accessor classes to the
+ * {@link NLSSearchResultRequestor} of the referenced accessor class.
+ * <p>
+ * A reference is attributed by the simple name of the accessor class. Only if several accessor
+ * classes share the same simple name, the reference is resolved with
+ * {@link ICompilationUnit#codeSelect(int, int)}.
+ * </p>
+ *
+ * @since 3.11
+ */
+class NLSSearchResultDispatcher extends SearchRequestor {
+
+	private final IJavaElement[] fWrapperClasses;
+	private final NLSSearchResultRequestor[] fRequestors;
+
+	/** Maps simple names of accessor classes to the indices of the accessor classes. */
+	private final Map<String, List<Integer>> fIndicesBySimpleName;
+
+	private ICompilationUnit fLastUnit;
+	private String fLastSource;
+
+	/**
+	 * Creates a new dispatcher.
+	 *
+	 * @param wrapperClasses the accessor classes
+	 * @param requestors the requestors, in the order of the accessor classes
+	 */
+	public NLSSearchResultDispatcher(IJavaElement[] wrapperClasses, NLSSearchResultRequestor[] requestors) {
+		fWrapperClasses= wrapperClasses;
+		fRequestors= requestors;
+		fIndicesBySimpleName= new HashMap<String, List<Integer>>();
+		for (int i= 0; i < wrapperClasses.length; i++) {
+			String name= wrapperClasses[i].getElementName();
+			List<Integer> indices= fIndicesBySimpleName.get(name);
+			if (indices == null) {
+				indices= new ArrayList<Integer>(1);
+				fIndicesBySimpleName.put(name, indices);
+			}
+			indices.add(Integer.valueOf(i));
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#beginReporting()
+	 */
+	@Override
+	public void beginReporting() {
+		for (int i= 0; i < fRequestors.length; i++)
+			fRequestors[i].beginReporting();
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#endReporting()
+	 */
+	@Override
+	public void endReporting() {
+		for (int i= 0; i < fRequestors.length; i++)
+			fRequestors[i].endReporting();
+		fLastUnit= null;
+		fLastSource= null;
+	}
+
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#acceptSearchMatch(org.eclipse.jdt.core.search.SearchMatch)
+	 */
+	@Override
+	public void acceptSearchMatch(SearchMatch match) throws CoreException {
+		if (match.getAccuracy() == SearchMatch.A_INACCURATE)
+			return;
+		int offset= match.getOffset();
+		int length= match.getLength();
+		if (offset == -1 || length == -1)
+			return;
+		if (!(match.getElement() instanceof IJavaElement))
+			return;
+
+		ICompilationUnit unit= (ICompilationUnit) ((IJavaElement) match.getElement()).getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (unit == null)
+			return; // the requestors only report matches in compilation units
+
+		String source= getSource(unit);
+		if (source == null || offset + length > source.length())
+			return;
+
+		// the reference is either simple or qualified
+		String reference= source.substring(offset, offset + length);
+		String simpleName= reference.substring(reference.lastIndexOf('.') + 1).trim();
+		List<Integer> indices= fIndicesBySimpleName.get(simpleName);
+		if (indices == null)
+			return;
+
+		if (indices.size() == 1) {
+			fRequestors[indices.get(0).intValue()].acceptSearchMatch(match);
+			return;
+		}
+
+		int nameOffset= offset + reference.lastIndexOf(simpleName);
+		IJavaElement[] elements= unit.codeSelect(nameOffset, simpleName.length());
+		if (elements.length != 1)
+			return;
+		for (int i= 0; i < indices.size(); i++) {
+			int index= indices.get(i).intValue();
+			if (fWrapperClasses[index].equals(elements[0])) {
+				fRequestors[index].acceptSearchMatch(match);
+				return;
+			}
+		}
+	}
+
+	private String getSource(ICompilationUnit unit) throws CoreException {
+		if (!unit.equals(fLastUnit)) {
+			fLastSource= unit.getSource();
+			fLastUnit= unit;
+		}
+		return fLastSource;
+	}
+}
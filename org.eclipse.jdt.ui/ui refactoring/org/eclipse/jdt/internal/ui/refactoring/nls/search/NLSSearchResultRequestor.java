@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,9 +14,11 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
@@ -76,6 +78,27 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	private Properties fProperties;
 	private HashSet<String> fUsedPropertyNames;
 
+	/**
+	 * The lines of the properties file, or <code>null</code> if not read yet.
+	 * @since 3.11
+	 */
+	private List<String> fPropertyLines;
+
+	/**
+	 * The offsets of the lines of the properties file.
+	 * @since 3.11
+	 */
+	private List<Integer> fPropertyLineOffsets;
+
+	/**
+	 * The compilation unit scanned last, or <code>null</code>. Search matches are
+	 * reported per compilation unit, so its source and scanner are reused.
+	 * @since 3.11
+	 */
+	private ICompilationUnit fScannedUnit;
+	private String fScannedSource;
+	private IScanner fScanner;
+
 	public NLSSearchResultRequestor(IFile propertiesFile, NLSSearchResult result) {
 		fPropertiesFile= propertiesFile;
 		fResult= result;
@@ -90,6 +113,16 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		fUsedPropertyNames= new HashSet<String>(fProperties.size());
 	}
 
+	/*
+	 * @see org.eclipse.jdt.core.search.SearchRequestor#endReporting()
+	 */
+	@Override
+	public void endReporting() {
+		fScannedUnit= null;
+		fScannedSource= null;
+		fScanner= null;
+	}
+
 	/*
 	 * @see org.eclipse.jdt.core.search.SearchRequestor#acceptSearchMatch(org.eclipse.jdt.core.search.SearchMatch)
 	 */
@@ -233,20 +266,16 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		if (unit == null)
 			return null;
 
-		String source= unit.getSource();
+		if (!unit.equals(fScannedUnit)) {
+			fScannedSource= unit.getSource();
+			fScanner= fScannedSource != null ? createScanner(unit, fScannedSource) : null;
+			fScannedUnit= unit;
+		}
+		String source= fScannedSource;
 		if (source == null)
 			return null;
 
-		IJavaProject javaProject= unit.getJavaProject();
-		IScanner scanner= null;
-		if (javaProject != null) {
-			String complianceLevel= javaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true);
-			String sourceLevel= javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
-			scanner= ToolFactory.createScanner(false, false, false, sourceLevel, complianceLevel);
-		} else {
-			scanner= ToolFactory.createScanner(false, false, false, false);
-		}
-		scanner.setSource(source.toCharArray());
+		IScanner scanner= fScanner;
 		scanner.resetTo(keyPositionResult.getOffset() + keyPositionResult.getLength(), source.length());
 
 		try {
@@ -316,6 +345,20 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		}
 	}
 
+	private static IScanner createScanner(ICompilationUnit unit, String source) {
+		IJavaProject javaProject= unit.getJavaProject();
+		IScanner scanner= null;
+		if (javaProject != null) {
+			String complianceLevel= javaProject.getOption(JavaCore.COMPILER_COMPLIANCE, true);
+			String sourceLevel= javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
+			scanner= ToolFactory.createScanner(false, false, false, sourceLevel, complianceLevel);
+		} else {
+			scanner= ToolFactory.createScanner(false, false, false, false);
+		}
+		scanner.setSource(source.toCharArray());
+		return scanner;
+	}
+
 	/**
 	 * Finds the start position in the property file. We assume that
 	 * the key is the first match on a line.
@@ -324,6 +367,34 @@ class NLSSearchResultRequestor extends SearchRequestor {
 	 * @return	the start position of the property name in the file, -1 if not found
 	 */
 	private int findPropertyNameStartPosition(String propertyName) {
+		if (fPropertyLines == null && !readPropertyLines())
+			return -1;
+
+		int keyLength= propertyName.length();
+		for (int index= 0; index < fPropertyLines.size(); index++) {
+			String line= fPropertyLines.get(index);
+			int i= line.indexOf(propertyName);
+			int charPos= i + keyLength;
+			char terminatorChar= 0;
+			boolean hasNoValue= (charPos >= line.length());
+			if (i > -1 && !hasNoValue)
+				terminatorChar= line.charAt(charPos);
+			if (line.trim().startsWith(propertyName) &&
+					(hasNoValue || Character.isWhitespace(terminatorChar) || terminatorChar == '=')) {
+				return fPropertyLineOffsets.get(index).intValue() + i;
+			}
+		}
+		return -1; //key not found in file. See bug 63794. This can happen if the key contains escaped characters.
+	}
+
+	/**
+	 * Reads the lines of the property file, such that the positions of all reported property
+	 * names are computed from a single read.
+	 *
+	 * @return <code>true</code> if the lines could be read, <code>false</code> otherwise
+	 * @since 3.11
+	 */
+	private boolean readPropertyLines() {
 		// Fix for http://dev.eclipse.org/bugs/show_bug.cgi?id=19319
 		InputStream stream= null;
 		LineReader lineReader= null;
@@ -339,7 +410,7 @@ class NLSSearchResultRequestor extends SearchRequestor {
 		} catch (CoreException cex) {
 			// failed to get input stream
 			JavaPlugin.log(cex);
-			return -1;
+			return false;
 		} catch (IOException e) {
 			if (stream != null) {
 				try {
@@ -348,36 +419,24 @@ class NLSSearchResultRequestor extends SearchRequestor {
 					JavaPlugin.log(ce);
 				}
 			}
-			return -1;
+			return false;
 		}
-		int start= 0;
+		List<String> lines= new ArrayList<String>();
+		List<Integer> offsets= new ArrayList<Integer>();
 		try {
 			StringBuffer buf= new StringBuffer(80);
+			int start= 0;
 			int eols= lineReader.readLine(buf);
-			int keyLength= propertyName.length();
 			while (eols > 0) {
 				String line= buf.toString();
-				int i= line.indexOf(propertyName);
-				int charPos= i + keyLength;
-				char terminatorChar= 0;
-				boolean hasNoValue= (charPos >= line.length());
-				if (i > -1 && !hasNoValue)
-					terminatorChar= line.charAt(charPos);
-				if (line.trim().startsWith(propertyName) &&
-						(hasNoValue || Character.isWhitespace(terminatorChar) || terminatorChar == '=')) {
-					start += line.indexOf(propertyName);
-					eols= -17; // found key
-				} else {
-					start += line.length() + eols;
-					buf.setLength(0);
-					eols= lineReader.readLine(buf);
-				}
+				lines.add(line);
+				offsets.add(Integer.valueOf(start));
+				start += line.length() + eols;
+				eols= lineReader.readLine(buf);
 			}
-			if (eols != -17)
-				start= -1; //key not found in file. See bug 63794. This can happen if the key contains escaped characters.
 		} catch (IOException ex) {
 			JavaPlugin.log(ex);
-			return -1;
+			return false;
 		} finally {
 			try {
 				lineReader.close();
@@ -385,7 +444,9 @@ class NLSSearchResultRequestor extends SearchRequestor {
 				JavaPlugin.log(ex);
 			}
 		}
-		return start;
+		fPropertyLines= lines;
+		fPropertyLineOffsets= offsets;
+		return true;
 	}
 
 	private void loadProperties() {
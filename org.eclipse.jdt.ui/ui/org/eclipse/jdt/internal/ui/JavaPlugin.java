@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -115,6 +115,7 @@ import org.eclipse.jdt.internal.ui.text.java.hover.JavaEditorTextHoverDescriptor
 import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
 import org.eclipse.jdt.internal.ui.viewsupport.ImageDescriptorRegistry;
 import org.eclipse.jdt.internal.ui.viewsupport.ImagesOnFileSystemRegistry;
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementLabelCache;
 import org.eclipse.jdt.internal.ui.viewsupport.ProblemMarkerManager;
 import org.eclipse.jdt.internal.ui.wizards.buildpaths.ClasspathAttributeConfigurationDescriptors;
 
@@ -213,6 +214,12 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	private ProblemMarkerManager fProblemMarkerManager;
 	private ImageDescriptorRegistry fImageDescriptorRegistry;
 
+	/**
+	 * Shared cache of the labels and images of Java elements.
+	 * @since 3.11
+	 */
+	private JavaElementLabelCache fJavaElementLabelCache;
+
 	private MembersOrderPreferenceCache fMembersOrderPreferenceCache;
 	private IPropertyChangeListener fFontPropertyChangeListener;
 
@@ -577,6 +584,13 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 			if (fImageDescriptorRegistry != null)
 				fImageDescriptorRegistry.dispose();
 
+			synchronized (this) {
+				if (fJavaElementLabelCache != null) {
+					fJavaElementLabelCache.dispose();
+					fJavaElementLabelCache= null;
+				}
+			}
+
 			if (fASTProvider != null) {
 				fASTProvider.dispose();
 				fASTProvider= null;
@@ -980,6 +994,20 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		return org.eclipse.jdt.internal.corext.template.java.CodeTemplates.getInstance();
 	}
 
+	/**
+	 * Returns the shared cache of the labels and images of Java elements.
+	 *
+	 * @return the Java element label cache
+	 * @since 3.11
+	 */
+	public synchronized JavaElementLabelCache getJavaElementLabelCache() {
+		if (fJavaElementLabelCache == null) {
+			fJavaElementLabelCache= new JavaElementLabelCache();
+			fJavaElementLabelCache.install(getPreferenceStore());
+		}
+		return fJavaElementLabelCache;
+	}
+
 	private synchronized ImageDescriptorRegistry internalGetImageDescriptorRegistry() {
 		if (fImageDescriptorRegistry == null)
 			fImageDescriptorRegistry= new ImageDescriptorRegistry();
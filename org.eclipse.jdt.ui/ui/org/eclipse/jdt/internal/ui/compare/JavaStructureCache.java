@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.compare;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Caches the structure of compared Java sources, keyed by a hash of their contents.
+ * <p>
+ * {@link JavaNode}s are bound to a document, so the cache stores a document independent copy of
+ * the node tree. A cache hit rebuilds the {@link JavaNode}s for the new document without parsing
+ * the source again. An entry is only used if its contents are equal to the given contents, so
+ * a hash collision misses the cache.
+ * </p>
+ *
+ * @since 3.11
+ */
+class JavaStructureCache {
+
+	/**
+	 * Document independent copy of a {@link JavaNode}.
+	 */
+	private static final class NodeInfo {
+
+		final int fType;
+		final String fName;
+		final int fStart;
+		final int fLength;
+		final int fAppendPosition;
+		final NodeInfo[] fChildren;
+
+		NodeInfo(int type, String name, int start, int length, int appendPosition, NodeInfo[] children) {
+			fType= type;
+			fName= name;
+			fStart= start;
+			fLength= length;
+			fAppendPosition= appendPosition;
+			fChildren= children;
+		}
+	}
+
+	/**
+	 * The cached structure of a source.
+	 */
+	private static final class CacheEntry {
+
+		final char[] fContents;
+		final NodeInfo[] fChildren;
+
+		CacheEntry(char[] contents, NodeInfo[] children) {
+			fContents= contents;
+			fChildren= children;
+		}
+	}
+
+	private static final int CACHE_SIZE= 10;
+
+	private static final NodeInfo[] NO_CHILDREN= new NodeInfo[0];
+
+	private static JavaStructureCache fgDefault;
+
+	private final Map<String, CacheEntry> fEntries= new LinkedHashMap<String, CacheEntry>(CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * Returns the shared structure cache.
+	 *
+	 * @return the structure cache
+	 */
+	public static synchronized JavaStructureCache getDefault() {
+		if (fgDefault == null)
+			fgDefault= new JavaStructureCache();
+		return fgDefault;
+	}
+
+	/**
+	 * Computes the cache key for the given contents.
+	 *
+	 * @param contents the contents of the compared source
+	 * @param compilerOptions the compiler options used to parse the contents, or <code>null</code>
+	 * @return the key
+	 */
+	public static String createKey(char[] contents, Map<String, String> compilerOptions) {
+		StringBuffer key= new StringBuffer();
+		if (compilerOptions != null)
+			key.append(compilerOptions.get(JavaCore.COMPILER_SOURCE));
+		key.append(':').append(contents.length).append(':').append(Arrays.hashCode(contents));
+		return key.toString();
+	}
+
+	/**
+	 * Rebuilds the cached structure for the given key below the given root.
+	 *
+	 * @param key the cache key
+	 * @param contents the contents of the compared source
+	 * @param root the root node, must not have any children
+	 * @return <code>true</code> if the structure was found in the cache, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean restore(String key, char[] contents, JavaNode root) {
+		CacheEntry entry;
+		synchronized (fEntries) {
+			entry= fEntries.get(key);
+		}
+		if (entry == null || !Arrays.equals(entry.fContents, contents))
+			return false;
+		restore(entry.fChildren, root);
+		return true;
+	}
+
+	/**
+	 * Stores the structure below the given root in the cache.
+	 *
+	 * @param key the cache key
+	 * @param contents the contents of the compared source
+	 * @param root the root node of the structure
+	 */
+	public void put(String key, char[] contents, JavaNode root) {
+		CacheEntry entry= new CacheEntry(contents.clone(), snapshot(root));
+		synchronized (fEntries) {
+			fEntries.put(key, entry);
+		}
+	}
+
+	private static NodeInfo[] snapshot(JavaNode node) {
+		Object[] children= node.getChildren();
+		if (children == null || children.length == 0)
+			return NO_CHILDREN;
+		NodeInfo[] result= new NodeInfo[children.length];
+		for (int i= 0; i < children.length; i++) {
+			JavaNode child= (JavaNode) children[i];
+			int type= child.getTypeCode();
+			Position range= child.getRange();
+			int appendPosition= -1;
+			if (hasAppendPosition(type))
+				appendPosition= child.getAppendPosition().getOffset();
+			result[i]= new NodeInfo(type, getName(child), range.getOffset(), range.getLength(), appendPosition, snapshot(child));
+		}
+		return result;
+	}
+
+	private static void restore(NodeInfo[] infos, JavaNode parent) {
+		for (int i= 0; i < infos.length; i++) {
+			NodeInfo info= infos[i];
+			JavaNode node= new JavaNode(parent, info.fType, info.fName, info.fStart, info.fLength);
+			if (info.fAppendPosition >= 0)
+				node.setAppendPosition(info.fAppendPosition);
+			restore(info.fChildren, node);
+		}
+	}
+
+	/*
+	 * The JavaParseTreeBuilder sets the append position for all nodes but packages and imports.
+	 */
+	private static boolean hasAppendPosition(int type) {
+		return type != JavaNode.PACKAGE && type != JavaNode.IMPORT;
+	}
+
+	/*
+	 * Inverse of JavaCompareUtilities#buildID(int, String).
+	 */
+	private static String getName(JavaNode node) {
+		switch (node.getTypeCode()) {
+			case JavaNode.CU:
+			case JavaNode.PACKAGE:
+			case JavaNode.IMPORT_CONTAINER:
+				return null;
+			default:
+				return node.getId().substring(1);
+		}
+	}
+}
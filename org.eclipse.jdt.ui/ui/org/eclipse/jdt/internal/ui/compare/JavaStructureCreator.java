@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -293,6 +293,12 @@ public class JavaStructureCreator extends StructureCreator {
 				contents.getChars(0, n, buffer, 0);
 			}
 
+			// unchanged sides (e.g. the workspace file when comparing with several editions) don't need to be parsed again
+			JavaStructureCache cache= JavaStructureCache.getDefault();
+			String key= JavaStructureCache.createKey(buffer, compilerOptions);
+			if (cache.restore(key, buffer, root))
+				return root;
+
 			ASTParser parser= ASTParser.newParser(ASTProvider.SHARED_AST_LEVEL);
 			if (compilerOptions != null)
 				parser.setCompilerOptions(compilerOptions);
@@ -300,6 +306,7 @@ public class JavaStructureCreator extends StructureCreator {
 			parser.setFocalPosition(0);
 			CompilationUnit cu= (CompilationUnit) parser.createAST(monitor);
 			cu.accept(new JavaParseTreeBuilder(root, buffer, true));
+			cache.put(key, buffer, root);
 
 			return root;
 		}
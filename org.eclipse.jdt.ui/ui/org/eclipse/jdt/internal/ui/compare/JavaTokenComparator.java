@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -47,8 +47,10 @@ public class JavaTokenComparator implements ITokenComparator {
 		fText= text;
 
 		int length= fText.length();
-		fStarts= new int[length];
-		fLengths= new int[length];
+		// token arrays grow on demand, sizing them by the text length wastes memory on large ranges
+		int capacity= Math.max(16, length / 4);
+		fStarts= new int[capacity];
+		fLengths= new int[capacity];
 		fCount= 0;
 
 		IScanner scanner= ToolFactory.createScanner(true, true, false, false); // returns comments & whitespace
@@ -89,6 +91,15 @@ public class JavaTokenComparator implements ITokenComparator {
 	 * @since 3.3
 	 */
 	private void recordTokenRange(int start, int length) {
+		if (fCount == fStarts.length) {
+			int newCapacity= 2 * fStarts.length;
+			int[] newStarts= new int[newCapacity];
+			System.arraycopy(fStarts, 0, newStarts, 0, fCount);
+			fStarts= newStarts;
+			int[] newLengths= new int[newCapacity];
+			System.arraycopy(fLengths, 0, newLengths, 0, fCount);
+			fLengths= newLengths;
+		}
 		fStarts[fCount]= start;
 		fLengths[fCount]= length;
 		if (DEBUG)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,6 +42,7 @@ import org.eclipse.jdt.ui.SharedASTProvider;
 import org.eclipse.jdt.ui.SharedASTProvider.WAIT_FLAG;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.search.OccurrencesIndex;
 
 
 /**
@@ -208,6 +209,11 @@ public final class ASTProvider {
 	private Object fWaitLock= new Object();
 	private volatile boolean fIsReconciling;
 	private IWorkbenchPart fActiveEditor;
+	/**
+	 * The occurrences index of the cached AST, or <code>null</code> if not computed yet.
+	 * @since 3.11
+	 */
+	private OccurrencesIndex fOccurrencesIndex;
 
 
 	/**
@@ -278,6 +284,31 @@ public final class ASTProvider {
 		return ast != null && fAST == ast;
 	}
 
+	/**
+	 * Returns the occurrences index of the given compilation unit AST. The index is computed once
+	 * for every AST cached by this AST provider.
+	 *
+	 * @param ast the compilation unit AST
+	 * @return the occurrences index, or <code>null</code> if the given AST is not the cached one
+	 * @since 3.11
+	 */
+	public OccurrencesIndex getOccurrencesIndex(CompilationUnit ast) {
+		synchronized (this) {
+			if (!isCached(ast))
+				return null;
+			if (fOccurrencesIndex != null && fOccurrencesIndex.getASTRoot() == ast)
+				return fOccurrencesIndex;
+		}
+
+		// computed outside of the lock, since the AST traversal can take a while for large files
+		OccurrencesIndex index= OccurrencesIndex.create(ast);
+		synchronized (this) {
+			if (fAST == ast)
+				fOccurrencesIndex= index;
+		}
+		return index;
+	}
+
 	/**
 	 * Returns whether this AST provider is active on the given
 	 * compilation unit.
@@ -379,6 +410,7 @@ public final class ASTProvider {
 			disposeAST();
 
 		fAST= ast;
+		fOccurrencesIndex= null;
 
 		// Signal AST change
 		synchronized (fWaitLock) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -200,9 +201,20 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 
 
 		public ProblemAnnotation(IProblem problem, ICompilationUnit cu) {
+			fCompilationUnit= cu;
+			setProblem(problem);
+		}
 
+		/**
+		 * Sets the problem represented by this annotation and updates the type and the layer.
+		 *
+		 * @param problem the problem
+		 * @since 3.11
+		 */
+		private void setProblem(IProblem problem) {
+			String previousType= getType();
 			fProblem= problem;
-			fCompilationUnit= cu;
+			fImageInitialized= false;
 
 			if (JavaSpellingReconcileStrategy.SPELLING_PROBLEM_ID == fProblem.getID()) {
 				setType(SPELLING_ANNOTATION_TYPE);
@@ -220,6 +232,8 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 				setType(JavaMarkerAnnotation.INFO_ANNOTATION_TYPE);
 				fLayer= INFO_LAYER;
 			}
+			if (!getType().equals(previousType))
+				fIsQuickFixableStateSet= false; // tasks and infos are not quick fixable
 		}
 
 		/*
@@ -494,6 +508,39 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 			List<IProblem> fReportedProblems;
 		}
 
+		/**
+		 * Identifies the annotation of a problem across reports by the problem ID, the problem
+		 * arguments and the position of the annotation.
+		 *
+		 * @since 3.11
+		 */
+		private static class ProblemKey {
+			private final int fId;
+			private final String[] fArguments;
+			private final int fOffset;
+			private final int fLength;
+
+			public ProblemKey(IProblem problem, Position position) {
+				fId= problem.getID();
+				fArguments= problem.getArguments();
+				fOffset= position.getOffset();
+				fLength= position.getLength();
+			}
+
+			@Override
+			public boolean equals(Object obj) {
+				if (!(obj instanceof ProblemKey))
+					return false;
+				ProblemKey other= (ProblemKey) obj;
+				return fId == other.fId && fOffset == other.fOffset && fLength == other.fLength && Arrays.equals(fArguments, other.fArguments);
+			}
+
+			@Override
+			public int hashCode() {
+				return ((fId * 31 + fOffset) * 31 + fLength) * 31 + Arrays.hashCode(fArguments);
+			}
+		}
+
 		private ThreadLocal<ProblemRequestorState> fProblemRequestorState= new ThreadLocal<ProblemRequestorState>();
 		private int fStateCount= 0;
 
@@ -631,6 +678,11 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 
 		/**
 		 * Signals the end of problem reporting.
+		 * <p>
+		 * The annotations of problems that are reported again at the same position are kept, such
+		 * that the model event only contains the annotations of added, removed and changed
+		 * problems.
+		 * </p>
 		 *
 		 * @param reportedProblems the problems to report
 		 */
@@ -647,11 +699,9 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 				fPreviouslyOverlaid= fCurrentlyOverlaid;
 				fCurrentlyOverlaid= new ArrayList<JavaMarkerAnnotation>();
 
-				if (fGeneratedAnnotations.size() > 0) {
-					temporaryProblemsChanged= true;
-					removeAnnotations(fGeneratedAnnotations, false, true);
-					fGeneratedAnnotations.clear();
-				}
+				List<ProblemAnnotation> removedAnnotations= new ArrayList<ProblemAnnotation>();
+				Map<ProblemKey, List<ProblemAnnotation>> previousAnnotations= indexGeneratedAnnotations(removedAnnotations);
+				List<ProblemAnnotation> generatedAnnotations= new ArrayList<ProblemAnnotation>(reportedProblems != null ? reportedProblems.size() : 0);
 
 				if (reportedProblems != null && reportedProblems.size() > 0) {
 
@@ -667,20 +717,43 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 						Position position= createPositionFromProblem(problem);
 						if (position != null) {
 
-							try {
-								ProblemAnnotation annotation= new ProblemAnnotation(problem, fCompilationUnit);
+							ProblemAnnotation annotation= removePreviousAnnotation(previousAnnotations, new ProblemKey(problem, position));
+							if (annotation != null) {
+								String type= annotation.getType();
+								String text= annotation.getText();
+								annotation.setProblem(problem);
 								overlayMarkers(position, annotation);
-								addAnnotation(annotation, position, false);
-								fGeneratedAnnotations.add(annotation);
-
-								temporaryProblemsChanged= true;
-							} catch (BadLocationException x) {
-								// ignore invalid position
+								if (!type.equals(annotation.getType()) || !text.equals(annotation.getText())) {
+									modifyAnnotationPosition(annotation, position, false);
+									temporaryProblemsChanged= true;
+								}
+								generatedAnnotations.add(annotation);
+							} else {
+								try {
+									annotation= new ProblemAnnotation(problem, fCompilationUnit);
+									overlayMarkers(position, annotation);
+									addAnnotation(annotation, position, false);
+									generatedAnnotations.add(annotation);
+
+									temporaryProblemsChanged= true;
+								} catch (BadLocationException x) {
+									// ignore invalid position
+								}
 							}
 						}
 					}
 				}
 
+				Iterator<List<ProblemAnnotation>> unmatched= previousAnnotations.values().iterator();
+				while (unmatched.hasNext())
+					removedAnnotations.addAll(unmatched.next());
+				if (removedAnnotations.size() > 0) {
+					temporaryProblemsChanged= true;
+					removeAnnotations(removedAnnotations, false, true);
+				}
+				fGeneratedAnnotations.clear();
+				fGeneratedAnnotations.addAll(generatedAnnotations);
+
 				removeMarkerOverlays(isCanceled);
 				fPreviouslyOverlaid= null;
 			}
@@ -689,6 +762,45 @@ public class CompilationUnitDocumentProvider extends TextFileDocumentProvider im
 				fireModelChanged();
 		}
 
+		/**
+		 * Indexes the generated annotations by their problem and their current position.
+		 *
+		 * @param deletedAnnotations the list to which the annotations whose position has been
+		 *            deleted are added
+		 * @return the generated annotations by problem key
+		 * @since 3.11
+		 */
+		private Map<ProblemKey, List<ProblemAnnotation>> indexGeneratedAnnotations(List<ProblemAnnotation> deletedAnnotations) {
+			Map<ProblemKey, List<ProblemAnnotation>> result= new HashMap<ProblemKey, List<ProblemAnnotation>>(fGeneratedAnnotations.size() * 2);
+			Iterator<ProblemAnnotation> e= fGeneratedAnnotations.iterator();
+			while (e.hasNext()) {
+				ProblemAnnotation annotation= e.next();
+				Position position= getPosition(annotation);
+				if (position == null || position.isDeleted()) {
+					deletedAnnotations.add(annotation);
+					continue;
+				}
+				ProblemKey key= new ProblemKey(annotation.fProblem, position);
+				List<ProblemAnnotation> annotations= result.get(key);
+				if (annotations == null) {
+					annotations= new ArrayList<ProblemAnnotation>(1);
+					result.put(key, annotations);
+				}
+				annotations.add(annotation);
+			}
+			return result;
+		}
+
+		private static ProblemAnnotation removePreviousAnnotation(Map<ProblemKey, List<ProblemAnnotation>> previousAnnotations, ProblemKey key) {
+			List<ProblemAnnotation> annotations= previousAnnotations.get(key);
+			if (annotations == null)
+				return null;
+			ProblemAnnotation annotation= annotations.remove(annotations.size() - 1);
+			if (annotations.isEmpty())
+				previousAnnotations.remove(key);
+			return annotation;
+		}
+
 		private void removeMarkerOverlays(boolean isCanceled) {
 			if (isCanceled) {
 				fCurrentlyOverlaid.addAll(fPreviouslyOverlaid);
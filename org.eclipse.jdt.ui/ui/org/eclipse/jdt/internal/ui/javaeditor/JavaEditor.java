@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -3386,7 +3386,7 @@ public abstract class JavaEditor extends AbstractDecoratedTextEditor implements
 				updateOccurrenceAnnotations(selection, astRoot);
 			}
 		};
-		SelectionListenerWithASTManager.getDefault().addListener(this, fPostSelectionListenerWithAST);
+		SelectionListenerWithASTManager.getDefault().addListener(this, fPostSelectionListenerWithAST, SelectionListenerWithASTManager.PRIORITY_EDITOR);
 		if (forceUpdate && getSelectionProvider() != null) {
 			fForcedMarkOccurrencesSelection= getSelectionProvider().getSelection();
 			ITypeRoot inputJavaElement= getInputJavaElement();
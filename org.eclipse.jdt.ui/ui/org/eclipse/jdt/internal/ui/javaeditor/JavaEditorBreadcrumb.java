@@ -459,7 +459,12 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 					if (newInput instanceof IJavaElement)
 						newInput= getInput((IJavaElement) newInput);
 
-					fViewer.setInput(newInput);
+					if (!(changedElement instanceof ICompilationUnit) && newInput != null && newInput.equals(fViewer.getInput()) && changedElement.exists()) {
+						// the chain of items is unchanged, only the label of the changed member needs an update
+						fViewer.refresh(changedElement);
+					} else {
+						fViewer.setInput(newInput);
+					}
 					fRunnable= null;
 				}
 			};
@@ -487,6 +492,9 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 
 				if (isStructuralChange(delta))
 					return element;
+			} else if (element.equals(input)) {
+				if (!onlyContentChanged(delta))
+					return element;
 			} else {
 				if (!onlyChildrenChanged(delta))
 					return element;
@@ -530,6 +538,17 @@ public class JavaEditorBreadcrumb extends EditorBreadcrumb {
 
 			return (delta.getFlags() & ~IJavaElementDelta.F_FINE_GRAINED) == IJavaElementDelta.F_CHILDREN;
 		}
+
+		/*
+		 * The label of the input does not depend on its body, and its children are only shown in
+		 * the drop down.
+		 */
+		private boolean onlyContentChanged(IJavaElementDelta delta) {
+			if (delta.getKind() != IJavaElementDelta.CHANGED)
+				return false;
+
+			return (delta.getFlags() & ~(IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_FINE_GRAINED)) == 0;
+		}
 	}
 
 
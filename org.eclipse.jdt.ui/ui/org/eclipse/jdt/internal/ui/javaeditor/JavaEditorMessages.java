@@ -167,6 +167,7 @@ final class JavaEditorMessages extends NLS {
 	public static String JavaElementReturnTypeHyperlink_error_msg;
 	public static String JavaElementSuperImplementationHyperlink_hyperlinkText;
 	public static String JavaElementSuperImplementationHyperlink_hyperlinkText_qualified;
+	public static String JavaElementSuperImplementationHyperlink_hierarchy_job;
 	public static String AnnotateClassFile_label;
 
 	static {
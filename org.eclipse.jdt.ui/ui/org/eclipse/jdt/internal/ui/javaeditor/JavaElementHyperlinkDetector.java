@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
 package org.eclipse.jdt.internal.ui.javaeditor;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 
 import org.eclipse.jface.action.IAction;
@@ -56,11 +58,44 @@ import org.eclipse.jdt.internal.ui.text.JavaWordFinder;
  */
 public class JavaElementHyperlinkDetector extends AbstractHyperlinkDetector {
 
-	/* cache for the last result from codeSelect(..) */
-	private static ITypeRoot fLastInput;
-	private static long fLastModStamp;
-	private static IRegion fLastWordRegion;
-	private static IJavaElement[] fLastElements;
+	/**
+	 * The time in milliseconds during which a result of codeSelect(..) is reused.
+	 * @since 3.11
+	 */
+	private static final long CODE_SELECT_CACHE_TTL= 2000;
+
+	/**
+	 * The maximal number of cached results of codeSelect(..).
+	 * @since 3.11
+	 */
+	private static final int CODE_SELECT_CACHE_SIZE= 4;
+
+	/**
+	 * A result of codeSelect(..) for a region of a document.
+	 *
+	 * @since 3.11
+	 */
+	private static final class CodeSelectResult {
+		final ITypeRoot fInput;
+		final long fModStamp;
+		final IRegion fWordRegion;
+		final IJavaElement[] fElements;
+		final long fTime;
+
+		CodeSelectResult(ITypeRoot input, long modStamp, IRegion wordRegion, IJavaElement[] elements, long time) {
+			fInput= input;
+			fModStamp= modStamp;
+			fWordRegion= wordRegion;
+			fElements= elements;
+			fTime= time;
+		}
+	}
+
+	/*
+	 * Cache for the last results from codeSelect(..), shared by all detectors that run for the same
+	 * hover, most recent first. Guarded by itself.
+	 */
+	private static final LinkedList<CodeSelectResult> fgCodeSelectCache= new LinkedList<CodeSelectResult>();
 
 	/*
 	 * @see org.eclipse.jface.text.hyperlink.IHyperlinkDetector#detectHyperlinks(org.eclipse.jface.text.ITextViewer, org.eclipse.jface.text.IRegion, boolean)
@@ -94,17 +129,12 @@ public class JavaElementHyperlinkDetector extends AbstractHyperlinkDetector {
 			if (JavaElementHyperlinkDetector.class == getClass() && findBreakOrContinueTarget(input, region) != null)
 				return new IHyperlink[] { new JavaElementHyperlink(wordRegion, (SelectionDispatchAction)openAction, null, false) };
 			
-			IJavaElement[] elements;
 			long modStamp= documentProvider.getModificationStamp(editorInput);
-			if (input.equals(fLastInput) && modStamp == fLastModStamp && wordRegion.equals(fLastWordRegion)) {
-				elements= fLastElements;
-			} else {
+			IJavaElement[] elements= getCachedElements(input, modStamp, wordRegion);
+			if (elements == null) {
 				elements= ((ICodeAssist) input).codeSelect(wordRegion.getOffset(), wordRegion.getLength());
 				elements= selectOpenableElements(elements);
-				fLastInput= input;
-				fLastModStamp= modStamp;
-				fLastWordRegion= wordRegion;
-				fLastElements= elements;
+				cacheElements(input, modStamp, wordRegion, elements);
 			}
 			if (elements.length == 0)
 				return null;
@@ -126,9 +156,49 @@ public class JavaElementHyperlinkDetector extends AbstractHyperlinkDetector {
 	@Override
 	public void dispose() {
 		super.dispose();
-		fLastElements= null;
-		fLastInput= null;
-		fLastWordRegion= null;
+		synchronized (fgCodeSelectCache) {
+			fgCodeSelectCache.clear();
+		}
+	}
+
+	/**
+	 * Returns the cached result of codeSelect(..) for the given region.
+	 *
+	 * @param input the editor input
+	 * @param modStamp the modification stamp of the document
+	 * @param wordRegion the word region
+	 * @return the openable elements, or <code>null</code> if not cached
+	 * @since 3.11
+	 */
+	private static IJavaElement[] getCachedElements(ITypeRoot input, long modStamp, IRegion wordRegion) {
+		long now= System.currentTimeMillis();
+		synchronized (fgCodeSelectCache) {
+			for (Iterator<CodeSelectResult> iter= fgCodeSelectCache.iterator(); iter.hasNext();) {
+				CodeSelectResult result= iter.next();
+				if (now - result.fTime > CODE_SELECT_CACHE_TTL)
+					iter.remove();
+				else if (modStamp == result.fModStamp && input.equals(result.fInput) && wordRegion.equals(result.fWordRegion))
+					return result.fElements;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Caches the result of codeSelect(..) for the given region.
+	 *
+	 * @param input the editor input
+	 * @param modStamp the modification stamp of the document
+	 * @param wordRegion the word region
+	 * @param elements the openable elements
+	 * @since 3.11
+	 */
+	private static void cacheElements(ITypeRoot input, long modStamp, IRegion wordRegion, IJavaElement[] elements) {
+		synchronized (fgCodeSelectCache) {
+			fgCodeSelectCache.addFirst(new CodeSelectResult(input, modStamp, wordRegion, elements, System.currentTimeMillis()));
+			if (fgCodeSelectCache.size() > CODE_SELECT_CACHE_SIZE)
+				fgCodeSelectCache.removeLast();
+		}
 	}
 
 	/**
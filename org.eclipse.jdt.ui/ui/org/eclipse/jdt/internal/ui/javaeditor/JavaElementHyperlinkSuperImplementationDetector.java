@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2011 IBM Corporation and others.
+ * Copyright (c) 2010, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,14 +12,21 @@ package org.eclipse.jdt.internal.ui.javaeditor;
 
 import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.hyperlink.IHyperlink;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.internal.corext.util.JdtFlags;
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
 
 import org.eclipse.jdt.ui.actions.SelectionDispatchAction;
 
@@ -32,6 +39,15 @@ import org.eclipse.jdt.internal.ui.actions.SelectionConverter;
  * @since 3.7
  */
 public class JavaElementHyperlinkSuperImplementationDetector extends JavaElementHyperlinkDetector {
+
+	/**
+	 * The job that computes the super type hierarchy of {@link #fHierarchyType}, or
+	 * <code>null</code> if none is running. Guarded by this.
+	 * @since 3.11
+	 */
+	private Job fHierarchyJob;
+	private IType fHierarchyType;
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.javaeditor.JavaElementHyperlinkDetector#createHyperlink(org.eclipse.jface.text.IRegion, org.eclipse.jdt.ui.actions.SelectionDispatchAction, org.eclipse.jdt.core.IJavaElement, boolean, org.eclipse.ui.texteditor.ITextEditor)
 	 * @since 3.7
@@ -44,7 +60,9 @@ public class JavaElementHyperlinkSuperImplementationDetector extends JavaElement
 	}
 
 	/**
-	 * Indicates whether a method is overridden.
+	 * Indicates whether a method is overridden. If the super type hierarchy of the declaring type
+	 * is not cached yet, it is computed in the background and the hyperlink is offered by the next
+	 * detection for the method.
 	 * 
 	 * @param method the method to check
 	 * @return <code>true</code> if the method is overridden, <code>false</code> otherwise
@@ -53,6 +71,10 @@ public class JavaElementHyperlinkSuperImplementationDetector extends JavaElement
 		try {
 			if (JdtFlags.isPrivate(method) || JdtFlags.isStatic(method) || method.isConstructor())
 				return false;
+			if (!SuperTypeHierarchyCache.hasInCache(method.getDeclaringType())) {
+				computeHierarchyInBackground(method.getDeclaringType());
+				return false;
+			}
 			if (JavaElementSuperImplementationHyperlink.findSuperImplementation(method) != null)
 				return true;
 		} catch (JavaModelException e) {
@@ -60,4 +82,54 @@ public class JavaElementHyperlinkSuperImplementationDetector extends JavaElement
 		}
 		return false;
 	}
+
+	/**
+	 * Computes the super type hierarchy of the given type in the background, such that the
+	 * hyperlink detection does not block the UI.
+	 * 
+	 * @param type the type
+	 * @since 3.11
+	 */
+	private synchronized void computeHierarchyInBackground(final IType type) {
+		if (fHierarchyJob != null) {
+			if (type.equals(fHierarchyType))
+				return;
+			fHierarchyJob.cancel();
+		}
+		fHierarchyType= type;
+		fHierarchyJob= new Job(JavaEditorMessages.JavaElementSuperImplementationHyperlink_hierarchy_job) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					if (!monitor.isCanceled())
+						SuperTypeHierarchyCache.getTypeHierarchy(type, monitor);
+				} catch (JavaModelException e) {
+					JavaPlugin.log(e);
+				} finally {
+					synchronized (JavaElementHyperlinkSuperImplementationDetector.this) {
+						if (fHierarchyJob == this) {
+							fHierarchyJob= null;
+							fHierarchyType= null;
+						}
+					}
+				}
+				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+		};
+		fHierarchyJob.setSystem(true);
+		fHierarchyJob.setPriority(Job.SHORT);
+		fHierarchyJob.schedule();
+	}
+
+	@Override
+	public void dispose() {
+		synchronized (this) {
+			if (fHierarchyJob != null) {
+				fHierarchyJob.cancel();
+				fHierarchyJob= null;
+				fHierarchyType= null;
+			}
+		}
+		super.dispose();
+	}
 }
@@ -54,6 +54,7 @@ import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.IBaseLabelProvider;
+import org.eclipse.jface.viewers.IContentProvider;
 import org.eclipse.jface.viewers.IPostSelectionProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
@@ -391,7 +392,61 @@ public class JavaOutlinePage extends Page implements IContentOutlinePage, IAdapt
 				 * @param delta the Java element delta used to reconcile the Java outline
 				 */
 				public void reconcile(IJavaElementDelta delta) {
-					refresh(true);
+					if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT) {
+						refresh(true);
+						return;
+					}
+
+					reconcileChildren(getInput(), delta);
+				}
+
+				/*
+				 * Applies the structural changes of the children of the given parent to the tree,
+				 * such that only the added, removed and changed elements are updated.
+				 */
+				private void reconcileChildren(Object parent, IJavaElementDelta delta) {
+					IJavaElementDelta[] affectedChildren= delta.getAffectedChildren();
+					for (int i= 0; i < affectedChildren.length; i++) {
+						IJavaElementDelta childDelta= affectedChildren[i];
+						IJavaElement child= childDelta.getElement();
+						switch (childDelta.getKind()) {
+							case IJavaElementDelta.ADDED:
+								if (!isFilteredChild(child))
+									add(parent, child);
+								break;
+							case IJavaElementDelta.REMOVED:
+								remove(child);
+								break;
+							default:
+								int flags= childDelta.getFlags();
+								if ((flags & IJavaElementDelta.F_REORDER) != 0) {
+									refresh(parent, true);
+									return;
+								}
+								if ((flags & (IJavaElementDelta.F_MODIFIERS | IJavaElementDelta.F_CATEGORIES)) != 0) {
+									// the sorting and the member filters depend on the modifiers and categories
+									refresh(parent, true);
+									return;
+								}
+								if ((flags & IJavaElementDelta.F_SUPER_TYPES) != 0) {
+									// the override indicators of the members depend on the super types
+									refresh(child, true);
+									break;
+								}
+								// a content change without details can be a change of the return type or the field type
+								if ((flags & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED)) != 0
+										|| (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT)
+									update(child, null);
+								if ((flags & IJavaElementDelta.F_CHILDREN) != 0)
+									reconcileChildren(child, childDelta);
+								break;
+						}
+					}
+				}
+
+				private boolean isFilteredChild(IJavaElement element) {
+					IContentProvider provider= getContentProvider();
+					return provider instanceof ChildrenProvider && ((ChildrenProvider) provider).matches(element);
 				}
 
 				/*
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,7 +13,10 @@ package org.eclipse.jdt.internal.ui.packageview;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -77,6 +80,21 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	protected static final int GRANT_PARENT= 1 << 1;
 	protected static final int PROJECT= 1 << 2;
 
+	/**
+	 * Batches with at least this many updates are aggregated into a minimal set of refreshes.
+	 *
+	 * @since 3.11
+	 */
+	private static final int AGGREGATION_THRESHOLD= 20;
+
+	/**
+	 * If an aggregated batch still has more refresh roots than this, the whole viewer is
+	 * refreshed instead.
+	 *
+	 * @since 3.11
+	 */
+	private static final int MAX_REFRESH_ROOTS= 500;
+
 	private TreeViewer fViewer;
 	private Object fInput;
 	private boolean fIsFlatLayout;
@@ -190,12 +208,87 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	private void runUpdates(Collection<Runnable> runnables) {
+		if (runnables.size() >= AGGREGATION_THRESHOLD) {
+			runnables= aggregateUpdates(runnables);
+		}
 		Iterator<Runnable> runnableIterator = runnables.iterator();
 		while (runnableIterator.hasNext()){
 			runnableIterator.next().run();
 		}
 	}
 
+	/**
+	 * Collapses each run of consecutive refresh and add updates of a batch into refreshes of the
+	 * minimal set of refresh roots. An element is dropped from the refresh roots if all its items in
+	 * the viewer are below an item of another refresh root of the same run. Removes and all other
+	 * updates separate the runs, so they keep their order relative to the refreshes and adds.
+	 *
+	 * @param runnables the updates to aggregate
+	 * @return the aggregated updates
+	 * @since 3.11
+	 */
+	private Collection<Runnable> aggregateUpdates(Collection<Runnable> runnables) {
+		List<Runnable> result= new ArrayList<Runnable>();
+		// refresh root -> update labels, for the current run of refreshes and adds
+		Map<Object, Boolean> roots= new LinkedHashMap<Object, Boolean>();
+		for (Iterator<Runnable> iter= runnables.iterator(); iter.hasNext();) {
+			Runnable runnable= iter.next();
+			if (runnable instanceof RefreshUpdate) {
+				RefreshUpdate refresh= (RefreshUpdate) runnable;
+				for (Iterator<Object> elements= refresh.fToRefresh.iterator(); elements.hasNext();) {
+					addRefreshRoot(roots, elements.next(), refresh.fUpdateLabels);
+				}
+			} else if (runnable instanceof AddUpdate) {
+				// refreshing the parent also adds the element
+				addRefreshRoot(roots, ((AddUpdate) runnable).fParent, false);
+			} else {
+				postRefreshRoots(roots, result);
+				result.add(runnable);
+			}
+		}
+		postRefreshRoots(roots, result);
+		return result;
+	}
+
+	private static void addRefreshRoot(Map<Object, Boolean> roots, Object element, boolean updateLabels) {
+		Boolean previous= roots.get(element);
+		if (previous == null || (updateLabels && !previous.booleanValue())) {
+			roots.put(element, Boolean.valueOf(updateLabels));
+		}
+	}
+
+	private void postRefreshRoots(Map<Object, Boolean> roots, Collection<Runnable> runnables) {
+		if (!roots.isEmpty()) {
+			runnables.add(new AggregatedRefreshUpdate(new LinkedHashMap<Object, Boolean>(roots)));
+			roots.clear();
+		}
+	}
+
+	/**
+	 * Tells whether refreshing the given ancestors also refreshes all items of the element. The
+	 * items of the viewer are used instead of {@link #getParent(Object)}, since an element can be
+	 * shown below several parents, e.g. in working set mode.
+	 *
+	 * @param element the element
+	 * @param ancestors the elements to be refreshed
+	 * @return <code>true</code> if every item of the element is below an item of an ancestor, or
+	 *         if the element has no item, in which case refreshing it does nothing anyway
+	 */
+	private boolean isRefreshedByAncestor(Object element, Set<Object> ancestors) {
+		Widget[] items= fViewer.testFindItems(element);
+		for (int i= 0; i < items.length; i++) {
+			if (!(items[i] instanceof TreeItem))
+				return false;
+			TreeItem parentItem= ((TreeItem) items[i]).getParentItem();
+			while (parentItem != null && !ancestors.contains(parentItem.getData())) {
+				parentItem= parentItem.getParentItem();
+			}
+			if (parentItem == null)
+				return false;
+		}
+		return true;
+	}
+
 
 	private boolean inputDeleted(Collection<Runnable> runnables) {
 		if (fInput == null)
@@ -948,35 +1041,102 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	protected void postRefresh(final List<Object> toRefresh, final boolean updateLabels, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
-			public void run() {
-				Object[] elements= toRefresh.toArray();
-				for (int i= 0; i < elements.length; i++) {
-					Object element= elements[i];
-					if (element == null || fViewer.testFindItems(element).length > 0) {
-						fViewer.refresh(element, updateLabels);
+		runnables.add(new RefreshUpdate(toRefresh, updateLabels));
+	}
+
+	protected void postAdd(final Object parent, final Object element, Collection<Runnable> runnables) {
+		runnables.add(new AddUpdate(parent, element));
+	}
+
+	/**
+	 * Update that refreshes a list of elements. Recognized by {@link #aggregateUpdates(Collection)}.
+	 *
+	 * @since 3.11
+	 */
+	private class RefreshUpdate implements Runnable {
+
+		private final List<Object> fToRefresh;
+		private final boolean fUpdateLabels;
+
+		public RefreshUpdate(List<Object> toRefresh, boolean updateLabels) {
+			fToRefresh= toRefresh;
+			fUpdateLabels= updateLabels;
+		}
+
+		public void run() {
+			Object[] elements= fToRefresh.toArray();
+			for (int i= 0; i < elements.length; i++) {
+				Object element= elements[i];
+				if (element == null || fViewer.testFindItems(element).length > 0) {
+					fViewer.refresh(element, fUpdateLabels);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Update that refreshes the minimal set of refresh roots of a run of refresh and add updates.
+	 * The roots are reduced when the update runs, since the updates running before can create or
+	 * dispose items.
+	 *
+	 * @since 3.11
+	 */
+	private class AggregatedRefreshUpdate implements Runnable {
+
+		/** Maps the refresh roots to whether their labels are updated. */
+		private final Map<Object, Boolean> fRoots;
+
+		public AggregatedRefreshUpdate(Map<Object, Boolean> roots) {
+			fRoots= roots;
+		}
+
+		public void run() {
+			List<Object> toRefresh= new ArrayList<Object>(fRoots.size());
+			boolean updateLabels= false;
+			if (fRoots.containsKey(null) || fRoots.containsKey(fInput) || fRoots.size() > MAX_REFRESH_ROOTS) {
+				toRefresh.add(fInput);
+				updateLabels= fRoots.containsValue(Boolean.TRUE);
+			} else {
+				for (Iterator<Map.Entry<Object, Boolean>> iter= fRoots.entrySet().iterator(); iter.hasNext();) {
+					Map.Entry<Object, Boolean> entry= iter.next();
+					if (!isRefreshedByAncestor(entry.getKey(), fRoots.keySet())) {
+						toRefresh.add(entry.getKey());
+						updateLabels|= entry.getValue().booleanValue();
 					}
 				}
 			}
-		});
+			new RefreshUpdate(toRefresh, updateLabels).run();
+		}
 	}
 
-	protected void postAdd(final Object parent, final Object element, Collection<Runnable> runnables) {
-		runnables.add(new Runnable() {
-			public void run() {
-				Widget[] items= fViewer.testFindItems(element);
-				for (int i= 0; i < items.length; i++) {
-					Widget item= items[i];
-					if (item instanceof TreeItem && !item.isDisposed()) {
-						TreeItem parentItem= ((TreeItem) item).getParentItem();
-						if (parentItem != null && !parentItem.isDisposed() && parent.equals(parentItem.getData())) {
-							return; // no add, element already added (most likely by a refresh)
-						}
+	/**
+	 * Update that adds an element to a parent. Recognized by {@link #aggregateUpdates(Collection)}.
+	 *
+	 * @since 3.11
+	 */
+	private class AddUpdate implements Runnable {
+
+		private final Object fParent;
+		private final Object fElement;
+
+		public AddUpdate(Object parent, Object element) {
+			fParent= parent;
+			fElement= element;
+		}
+
+		public void run() {
+			Widget[] items= fViewer.testFindItems(fElement);
+			for (int i= 0; i < items.length; i++) {
+				Widget item= items[i];
+				if (item instanceof TreeItem && !item.isDisposed()) {
+					TreeItem parentItem= ((TreeItem) item).getParentItem();
+					if (parentItem != null && !parentItem.isDisposed() && fParent.equals(parentItem.getData())) {
+						return; // no add, element already added (most likely by a refresh)
 					}
 				}
-				fViewer.add(parent, element);
 			}
-		});
+			fViewer.add(fParent, fElement);
+		}
 	}
 
 	protected void postRemove(final Object element, Collection<Runnable> runnables) {
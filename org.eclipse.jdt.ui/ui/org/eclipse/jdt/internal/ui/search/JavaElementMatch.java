@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,48 +12,63 @@ package org.eclipse.jdt.internal.ui.search;
 
 import org.eclipse.search.ui.text.Match;
 
+import org.eclipse.jdt.core.search.SearchMatch;
+
 /**
  * A search match with additional java-specific info.
  */
 public class JavaElementMatch extends Match {
-	private final int fAccuracy;
-	private final int fMatchRule;
-	private final boolean fIsWriteAccess;
-	private final boolean fIsReadAccess;
-	private final boolean fIsJavadoc;
-	private final boolean fIsSuperInvocation;
+
+	/*
+	 * The match rule uses the lower bits, the flags below use the upper bits. Search results can
+	 * hold hundreds of thousands of matches, hence the java-specific info is packed into a single field.
+	 */
+	private static final int INACCURATE= 1 << 31;
+	private static final int WRITE_ACCESS= 1 << 30;
+	private static final int READ_ACCESS= 1 << 29;
+	private static final int JAVADOC= 1 << 28;
+	private static final int SUPER_INVOCATION= 1 << 27;
+	private static final int MATCH_RULE_MASK= SUPER_INVOCATION - 1;
+
+	private final int fInfo;
 
 	JavaElementMatch(Object element, int matchRule, int offset, int length, int accuracy, boolean isReadAccess, boolean isWriteAccess, boolean isJavadoc, boolean isSuperInvocation) {
 		super(element, offset, length);
-		fAccuracy= accuracy;
-		fMatchRule= matchRule;
-		fIsWriteAccess= isWriteAccess;
-		fIsReadAccess= isReadAccess;
-		fIsJavadoc= isJavadoc;
-		fIsSuperInvocation= isSuperInvocation;
+		int info= matchRule & MATCH_RULE_MASK;
+		if (accuracy == SearchMatch.A_INACCURATE)
+			info|= INACCURATE;
+		if (isWriteAccess)
+			info|= WRITE_ACCESS;
+		if (isReadAccess)
+			info|= READ_ACCESS;
+		if (isJavadoc)
+			info|= JAVADOC;
+		if (isSuperInvocation)
+			info|= SUPER_INVOCATION;
+		fInfo= info;
 	}
 
 	public int getAccuracy() {
-		return fAccuracy;
+		return (fInfo & INACCURATE) != 0 ? SearchMatch.A_INACCURATE : SearchMatch.A_ACCURATE;
 	}
 
 	public boolean isWriteAccess() {
-		return fIsWriteAccess;
+		return (fInfo & WRITE_ACCESS) != 0;
 	}
 
 	public boolean isReadAccess() {
-		return fIsReadAccess;
+		return (fInfo & READ_ACCESS) != 0;
 	}
 
 	public boolean isJavadoc() {
-		return fIsJavadoc;
+		return (fInfo & JAVADOC) != 0;
 	}
 
 	public boolean isSuperInvocation() {
-		return fIsSuperInvocation;
+		return (fInfo & SUPER_INVOCATION) != 0;
 	}
 
 	public int getMatchRule() {
-		return fMatchRule;
+		return fInfo & MATCH_RULE_MASK;
 	}
 }
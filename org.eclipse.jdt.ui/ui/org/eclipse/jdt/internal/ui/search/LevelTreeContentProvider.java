@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -136,14 +136,16 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	}
 
 	protected void insert(Map<Object, Set<Object>> toAdd, Set<Object> toUpdate, Object child) {
+		Object element= child;
 		Object parent= getParent(child);
 		while (parent != null) {
 			if (insertChild(parent, child)) {
 				if (toAdd != null)
 					insertInto(parent, child, toAdd);
 			} else {
-				if (toUpdate != null)
-					toUpdate.add(parent);
+				// the ancestors are already in the tree, only the match count of the element changed
+				if (toUpdate != null && child == element)
+					toUpdate.add(element);
 				return;
 			}
 			child= parent;
@@ -152,6 +154,8 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 		if (insertChild(getSearchResult(), child)) {
 			if (toAdd != null)
 				insertInto(getSearchResult(), child, toAdd);
+		} else if (toUpdate != null && child == element) {
+			toUpdate.add(element);
 		}
 	}
 
@@ -180,6 +184,8 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 				Object parent= getParent(element);
 				if (parent != null) {
 					if (removeFromSiblings(element, parent)) {
+						if (toRemove != null)
+							toRemove.add(element);
 						remove(toRemove, toUpdate, parent);
 					}
 				} else {
@@ -251,16 +257,15 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 				remove(toRemove, toUpdate, updatedElements[i]);
 		}
 
+		// only touch the changed items: refreshing a parent would update all its children, and
+		// children of collapsed parents are created by the viewer when the parent gets expanded
 		viewer.remove(toRemove.toArray());
 		for (Iterator<Object> iter= toAdd.keySet().iterator(); iter.hasNext();) {
 			Object parent= iter.next();
 			HashSet<Object> children= (HashSet<Object>) toAdd.get(parent);
 			viewer.add(parent, children.toArray());
 		}
-		for (Iterator<Object> elementsToUpdate= toUpdate.iterator(); elementsToUpdate.hasNext();) {
-			viewer.refresh(elementsToUpdate.next());
-		}
-
+		viewer.update(toUpdate.toArray(), new String[] { SearchLabelProvider.PROPERTY_MATCH_COUNT });
 	}
 
 	@Override
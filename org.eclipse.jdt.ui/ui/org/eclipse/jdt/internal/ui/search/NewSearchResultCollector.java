@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.runtime.CoreException;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.Match;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.search.FieldDeclarationMatch;
@@ -24,10 +30,35 @@ import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
+/**
+ * Collects the matches of a Java search into a search result.
+ * <p>
+ * The matches are added to the search result in batches, such that the search result view is
+ * notified at a bounded rate even if the search reports hundreds of thousands of matches. Equal
+ * enclosing elements are shared by all their matches.
+ * </p>
+ */
 public class NewSearchResultCollector extends SearchRequestor {
+
+	/**
+	 * The maximal number of matches that are added to the search result at once.
+	 * @since 3.11
+	 */
+	private static final int MAX_BATCH_SIZE= 1000;
+
+	/**
+	 * The minimal time in milliseconds between two batches, unless a batch is full.
+	 * @since 3.11
+	 */
+	private static final long BATCH_DELAY= 200;
+
 	private AbstractTextSearchResult fSearch;
 	private boolean fIgnorePotentials;
 
+	private final List<Match> fBatch= new ArrayList<Match>();
+	private long fLastBatchTime;
+	private final Map<IJavaElement, IJavaElement> fEnclosingElements= new HashMap<IJavaElement, IJavaElement>();
+
 	public NewSearchResultCollector(AbstractTextSearchResult search, boolean ignorePotentials) {
 		super();
 		fSearch= search;
@@ -60,16 +91,43 @@ public class NewSearchResultCollector extends SearchRequestor {
 				MethodReferenceMatch methodRef= (MethodReferenceMatch) match;
 				isSuperInvocation= methodRef.isSuperInvocation();
 			}
-			fSearch.addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			IJavaElement sharedElement= fEnclosingElements.get(enclosingElement);
+			if (sharedElement == null)
+				fEnclosingElements.put(enclosingElement, enclosingElement);
+			else
+				enclosingElement= sharedElement;
+			addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+		}
+	}
+
+	private void addMatch(Match match) {
+		fBatch.add(match);
+		if (fBatch.size() >= MAX_BATCH_SIZE || System.currentTimeMillis() - fLastBatchTime >= BATCH_DELAY)
+			flush();
+	}
+
+	/**
+	 * Adds the pending matches to the search result.
+	 *
+	 * @since 3.11
+	 */
+	public void flush() {
+		if (!fBatch.isEmpty()) {
+			fSearch.addMatches(fBatch.toArray(new Match[fBatch.size()]));
+			fBatch.clear();
 		}
+		fLastBatchTime= System.currentTimeMillis();
 	}
 
 	@Override
 	public void beginReporting() {
+		fLastBatchTime= 0;
 	}
 
 	@Override
 	public void endReporting() {
+		flush();
+		fEnclosingElements.clear();
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,14 +20,10 @@ import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.Expression;
-import org.eclipse.jdt.core.dom.FieldAccess;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
-import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.IVariableBinding;
-import org.eclipse.jdt.core.dom.ImportDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.Name;
@@ -48,6 +44,7 @@ import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.dom.Bindings;
 import org.eclipse.jdt.internal.corext.util.Messages;
 
+import org.eclipse.jdt.internal.ui.javaeditor.ASTProvider;
 import org.eclipse.jdt.internal.ui.viewsupport.BasicElementLabels;
 
 public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder {
@@ -85,9 +82,9 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 		fTarget= fSelectedNode.resolveBinding();
 		if (fTarget == null)
 			return SearchMessages.OccurrencesFinder_no_binding;
-		fTarget= getBindingDeclaration(fTarget);
+		fTarget= OccurrencesIndex.getBindingDeclaration(fTarget);
 
-		fTargetIsStaticMethodImport= isStaticImport(fSelectedNode.getParent());
+		fTargetIsStaticMethodImport= OccurrencesIndex.isStaticImport(fSelectedNode.getParent());
 		fReadDescription= Messages.format(SearchMessages.OccurrencesFinder_occurrence_description, BasicElementLabels.getJavaElementName(fTarget.getName()));
 		fWriteDescription= Messages.format(SearchMessages.OccurrencesFinder_occurrence_write_description, BasicElementLabels.getJavaElementName(fTarget.getName()));
 		return null;
@@ -96,9 +93,39 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 	private void performSearch() {
 		if (fResult == null) {
 			fResult= new ArrayList<OccurrenceLocation>();
-			fWriteUsages= new HashSet<Name>();
-			fRoot.accept(this);
+			if (!addIndexedOccurrences()) {
+				fWriteUsages= new HashSet<Name>();
+				fRoot.accept(this);
+			}
+		}
+	}
+
+	/*
+	 * Looks up the occurrences in the occurrences index of the shared AST, which avoids traversing
+	 * the AST on every selection change.
+	 */
+	private boolean addIndexedOccurrences() {
+		if (fTargetIsStaticMethodImport)
+			return false;
+		OccurrencesIndex index= ASTProvider.getASTProvider().getOccurrencesIndex(fRoot);
+		if (index == null)
+			return false;
+		int[] occurrences= index.getOccurrences(fTarget);
+		if (occurrences == null)
+			return false;
+		boolean isVariable= fTarget instanceof IVariableBinding;
+		for (int i= 0; i < occurrences.length; i+= 3) {
+			int flag= 0;
+			String description= fReadDescription;
+			if (isVariable) {
+				boolean isWrite= (occurrences[i + 2] & OccurrencesIndex.F_WRITE) != 0;
+				flag= isWrite ? F_WRITE_OCCURRENCE : F_READ_OCCURRENCE;
+				if (isWrite)
+					description= fWriteDescription;
+			}
+			fResult.add(new OccurrenceLocation(occurrences[i], occurrences[i + 1], flag, description));
 		}
+		return true;
 	}
 
 	public OccurrenceLocation[] getOccurrences() {
@@ -142,7 +169,7 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 			return !addUsage(name, name.resolveBinding());
 		}
 		if (binding instanceof IMethodBinding) {
-			if (isStaticImport(node)) {
+			if (OccurrencesIndex.isStaticImport(node)) {
 				SimpleName name= node.getName();
 				return !addPossibleStaticImport(name, (IMethodBinding) binding);
 			}
@@ -150,14 +177,6 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 		return !addUsage(node, binding);
 	}
 
-	private static boolean isStaticImport(ASTNode node) {
-		if (!(node instanceof QualifiedName))
-			return false;
-
-		ASTNode parent= ((QualifiedName)node).getParent();
-		return parent instanceof ImportDeclaration && ((ImportDeclaration) parent).isStatic();
-	}
-
 	@Override
 	public boolean visit(MethodInvocation node) {
 		if (fTargetIsStaticMethodImport) {
@@ -197,7 +216,7 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 
 	@Override
 	public boolean visit(Assignment node) {
-		SimpleName name= getSimpleName(node.getLeftHandSide());
+		SimpleName name= OccurrencesIndex.getSimpleName(node.getLeftHandSide());
 		if (name != null)
 			addWrite(name, name.resolveBinding());
 		return true;
@@ -220,7 +239,7 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 	public boolean visit(PrefixExpression node) {
 		PrefixExpression.Operator operator= node.getOperator();
 		if (operator == Operator.INCREMENT || operator == Operator.DECREMENT) {
-			SimpleName name= getSimpleName(node.getOperand());
+			SimpleName name= OccurrencesIndex.getSimpleName(node.getOperand());
 			if (name != null)
 				addWrite(name, name.resolveBinding());
 		}
@@ -229,14 +248,14 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 
 	@Override
 	public boolean visit(PostfixExpression node) {
-		SimpleName name= getSimpleName(node.getOperand());
+		SimpleName name= OccurrencesIndex.getSimpleName(node.getOperand());
 		if (name != null)
 			addWrite(name, name.resolveBinding());
 		return true;
 	}
 
 	private boolean addWrite(Name node, IBinding binding) {
-		if (binding != null && Bindings.equals(getBindingDeclaration(binding), fTarget)) {
+		if (binding != null && Bindings.equals(OccurrencesIndex.getBindingDeclaration(binding), fTarget)) {
 			fWriteUsages.add(node);
 			return true;
 		}
@@ -244,7 +263,7 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 	}
 
 	private boolean addUsage(Name node, IBinding binding) {
-		if (binding != null && Bindings.equals(getBindingDeclaration(binding), fTarget)) {
+		if (binding != null && Bindings.equals(OccurrencesIndex.getBindingDeclaration(binding), fTarget)) {
 			int flag= 0;
 			String description= fReadDescription;
 			if (fTarget instanceof IVariableBinding) {
@@ -279,29 +298,6 @@ public class OccurrencesFinder extends ASTVisitor implements IOccurrencesFinder
 		return false;
 	}
 
-	private SimpleName getSimpleName(Expression expression) {
-		if (expression instanceof SimpleName)
-			return ((SimpleName)expression);
-		else if (expression instanceof QualifiedName)
-			return (((QualifiedName) expression).getName());
-		else if (expression instanceof FieldAccess)
-			return ((FieldAccess)expression).getName();
-		return null;
-	}
-
-	private IBinding getBindingDeclaration(IBinding binding) {
-		switch (binding.getKind()) {
-			case IBinding.TYPE :
-				return ((ITypeBinding)binding).getTypeDeclaration();
-			case IBinding.METHOD :
-				return ((IMethodBinding)binding).getMethodDeclaration();
-			case IBinding.VARIABLE :
-				return ((IVariableBinding)binding).getVariableDeclaration();
-			default:
-				return binding;
-		}
-	}
-
 	public String getID() {
 		return ID;
 	}
@@ -0,0 +1,307 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NameQualifiedType;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression.Operator;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * Maps the binding keys of the declarations referenced in an AST to the positions of the names
+ * that {@link OccurrencesFinder} reports for them.
+ * <p>
+ * The index is computed with a single traversal of the AST, after which the occurrences of a
+ * binding are found without traversing the AST again. The occurrences of static methods, which
+ * are also matched by their static imports, are not indexed.
+ * </p>
+ *
+ * @since 3.11
+ */
+public final class OccurrencesIndex {
+
+	/**
+	 * Flag of an occurrence that writes a variable.
+	 */
+	static final int F_WRITE= 1;
+
+	/**
+	 * The occurrences of a binding, stored as triples of offset, length and flags.
+	 */
+	private static final class Occurrences {
+		private int[] fData= new int[6];
+		private int fSize;
+
+		void add(int offset, int length, int flags) {
+			if (fSize + 3 > fData.length) {
+				int[] data= new int[fData.length * 2];
+				System.arraycopy(fData, 0, data, 0, fSize);
+				fData= data;
+			}
+			fData[fSize++]= offset;
+			fData[fSize++]= length;
+			fData[fSize++]= flags;
+		}
+
+		int[] toArray() {
+			int[] result= new int[fSize];
+			System.arraycopy(fData, 0, result, 0, fSize);
+			return result;
+		}
+	}
+
+	/**
+	 * Collects the occurrences of all bindings. Mirrors the traversal of {@link OccurrencesFinder}:
+	 * where the finder skips the children of a matched qualified name, the occurrences of the
+	 * matched binding are suppressed in the children.
+	 */
+	private static final class Indexer extends ASTVisitor {
+
+		private final Map<String, Occurrences> fOccurrences= new HashMap<String, Occurrences>();
+		private final Set<Name> fWriteUsages= new HashSet<Name>();
+		private final List<ASTNode> fSuppressingNodes= new ArrayList<ASTNode>();
+		private final List<String> fSuppressedKeys= new ArrayList<String>();
+
+		public Indexer() {
+			super(true);
+		}
+
+		@Override
+		public boolean visit(QualifiedName node) {
+			IBinding binding= node.resolveBinding();
+			if (binding instanceof IVariableBinding && ((IVariableBinding) binding).isField()) {
+				SimpleName name= node.getName();
+				suppress(node, addUsage(name, name.resolveBinding()));
+			} else if (!(binding instanceof IMethodBinding && isStaticImport(node))) {
+				suppress(node, addUsage(node, binding));
+			}
+			return true;
+		}
+
+		@Override
+		public void endVisit(QualifiedName node) {
+			int last= fSuppressingNodes.size() - 1;
+			if (last >= 0 && fSuppressingNodes.get(last) == node) {
+				fSuppressingNodes.remove(last);
+				fSuppressedKeys.remove(last);
+			}
+		}
+
+		@Override
+		public boolean visit(SimpleName node) {
+			addUsage(node, node.resolveBinding());
+			return true;
+		}
+
+		@Override
+		public boolean visit(ClassInstanceCreation node) {
+			Type type= node.getType();
+			if (type instanceof ParameterizedType) {
+				type= ((ParameterizedType) type).getType();
+			}
+			if (type instanceof SimpleType) {
+				Name name= ((SimpleType) type).getName();
+				if (name instanceof QualifiedName)
+					name= ((QualifiedName) name).getName();
+				addUsage(name, node.resolveConstructorBinding());
+			} else if (type instanceof NameQualifiedType) {
+				Name name= ((NameQualifiedType) type).getName();
+				addUsage(name, node.resolveConstructorBinding());
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(Assignment node) {
+			addWrite(getSimpleName(node.getLeftHandSide()));
+			return true;
+		}
+
+		@Override
+		public boolean visit(SingleVariableDeclaration node) {
+			addWrite(node.getName());
+			return true;
+		}
+
+		@Override
+		public boolean visit(VariableDeclarationFragment node) {
+			if (node.getParent() instanceof FieldDeclaration || node.getInitializer() != null)
+				addWrite(node.getName());
+			return true;
+		}
+
+		@Override
+		public boolean visit(PrefixExpression node) {
+			PrefixExpression.Operator operator= node.getOperator();
+			if (operator == Operator.INCREMENT || operator == Operator.DECREMENT)
+				addWrite(getSimpleName(node.getOperand()));
+			return true;
+		}
+
+		@Override
+		public boolean visit(PostfixExpression node) {
+			addWrite(getSimpleName(node.getOperand()));
+			return true;
+		}
+
+		private void addWrite(Name node) {
+			if (node != null)
+				fWriteUsages.add(node);
+		}
+
+		/*
+		 * Returns the key under which the usage was added, or null if it was not added.
+		 */
+		private String addUsage(Name node, IBinding binding) {
+			if (binding == null)
+				return null;
+			String key= getBindingDeclaration(binding).getKey();
+			if (key == null || fSuppressedKeys.contains(key))
+				return null;
+			Occurrences occurrences= fOccurrences.get(key);
+			if (occurrences == null) {
+				occurrences= new Occurrences();
+				fOccurrences.put(key, occurrences);
+			}
+			occurrences.add(node.getStartPosition(), node.getLength(), fWriteUsages.remove(node) ? F_WRITE : 0);
+			return key;
+		}
+
+		private void suppress(QualifiedName node, String key) {
+			if (key != null) {
+				fSuppressingNodes.add(node);
+				fSuppressedKeys.add(key);
+			}
+		}
+
+		Map<String, int[]> getOccurrences() {
+			Map<String, int[]> result= new HashMap<String, int[]>(fOccurrences.size() * 4 / 3 + 1);
+			for (Iterator<Map.Entry<String, Occurrences>> iter= fOccurrences.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<String, Occurrences> entry= iter.next();
+				result.put(entry.getKey(), entry.getValue().toArray());
+			}
+			return result;
+		}
+	}
+
+	private static final int[] NO_OCCURRENCES= new int[0];
+
+	private final CompilationUnit fRoot;
+	private final Map<String, int[]> fOccurrences;
+
+	private OccurrencesIndex(CompilationUnit root, Map<String, int[]> occurrences) {
+		fRoot= root;
+		fOccurrences= occurrences;
+	}
+
+	/**
+	 * Creates the occurrences index of an AST.
+	 *
+	 * @param root the AST, must not be modified while the index is in use
+	 * @return the occurrences index
+	 */
+	public static OccurrencesIndex create(CompilationUnit root) {
+		Indexer indexer= new Indexer();
+		root.accept(indexer);
+		return new OccurrencesIndex(root, indexer.getOccurrences());
+	}
+
+	/**
+	 * Returns the AST of this index.
+	 *
+	 * @return the AST
+	 */
+	public CompilationUnit getASTRoot() {
+		return fRoot;
+	}
+
+	/**
+	 * Returns the occurrences of a binding.
+	 *
+	 * @param binding the binding declaration
+	 * @return the occurrences as triples of offset, length and flags, in the order of the AST
+	 *         traversal, or <code>null</code> if the occurrences of the binding are not indexed
+	 */
+	int[] getOccurrences(IBinding binding) {
+		if (isStaticMethod(binding))
+			return null;
+		String key= binding.getKey();
+		if (key == null)
+			return null;
+		int[] occurrences= fOccurrences.get(key);
+		return occurrences != null ? occurrences : NO_OCCURRENCES;
+	}
+
+	static boolean isStaticMethod(IBinding binding) {
+		return binding instanceof IMethodBinding && Modifier.isStatic(binding.getModifiers());
+	}
+
+	static boolean isStaticImport(ASTNode node) {
+		if (!(node instanceof QualifiedName))
+			return false;
+
+		ASTNode parent= ((QualifiedName) node).getParent();
+		return parent instanceof ImportDeclaration && ((ImportDeclaration) parent).isStatic();
+	}
+
+	static SimpleName getSimpleName(Expression expression) {
+		if (expression instanceof SimpleName)
+			return ((SimpleName) expression);
+		else if (expression instanceof QualifiedName)
+			return (((QualifiedName) expression).getName());
+		else if (expression instanceof FieldAccess)
+			return ((FieldAccess) expression).getName();
+		return null;
+	}
+
+	static IBinding getBindingDeclaration(IBinding binding) {
+		switch (binding.getKind()) {
+			case IBinding.TYPE :
+				return ((ITypeBinding) binding).getTypeDeclaration();
+			case IBinding.METHOD :
+				return ((IMethodBinding) binding).getMethodDeclaration();
+			case IBinding.VARIABLE :
+				return ((IVariableBinding) binding).getVariableDeclaration();
+			default:
+				return binding;
+		}
+	}
+}
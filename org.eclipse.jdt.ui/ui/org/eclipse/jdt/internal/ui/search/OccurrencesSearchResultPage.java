@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -120,7 +120,7 @@ public class OccurrencesSearchResultPage extends AbstractTextSearchViewPage {
 					setInput(null, null);
 				}
 				fActiveEditor= (ITextEditor) editor;
-				SelectionListenerWithASTManager.getDefault().addListener(fActiveEditor, this);
+				SelectionListenerWithASTManager.getDefault().addListener(fActiveEditor, this, SelectionListenerWithASTManager.PRIORITY_VIEW);
 			}
 		}
 
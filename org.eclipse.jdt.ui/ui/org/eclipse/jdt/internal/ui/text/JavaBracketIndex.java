@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.TextUtilities;
+
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+/**
+ * Index of the parentheses, brackets and braces in the default partition of a Java document.
+ * <p>
+ * The index records the positions of all peer characters and the matching opening peer of each
+ * closing peer. It is computed lazily up to the position of a query and is truncated at the line
+ * of a document change, so that typing only rescans the text between the change and the next
+ * query. Finding an opening peer jumps over complete scopes instead of scanning them character by
+ * character.
+ * </p>
+ * <p>
+ * Peers of one kind are matched independently of the other kinds, like
+ * {@link JavaHeuristicScanner#findOpeningPeer(int, int, char, char)} does.
+ * </p>
+ * <p>
+ * The index does not keep a reference to its document; it is registered as document listener and
+ * is passed the document on every query.
+ * </p>
+ *
+ * @since 3.11
+ */
+final class JavaBracketIndex implements IDocumentListener {
+
+	/**
+	 * Returned by {@link #findOpeningPeer(IDocument, int, int, char, char)} if the index can not
+	 * answer the query.
+	 */
+	static final int UNKNOWN= -3;
+
+	/**
+	 * Documents shorter than this are scanned without an index.
+	 */
+	private static final int MIN_DOCUMENT_LENGTH= 10000;
+
+	/**
+	 * The minimal number of characters scanned when the index is extended.
+	 */
+	private static final int CHUNK_SIZE= 4096;
+
+	private static final char[] OPENING_PEERS= { '(', '[', '{' };
+	private static final char[] CLOSING_PEERS= { ')', ']', '}' };
+
+	private static final Map<IDocument, JavaBracketIndex> fgIndexes= new WeakHashMap<IDocument, JavaBracketIndex>();
+
+	/**
+	 * The peers of one kind.
+	 */
+	private static final class Peers {
+
+		int[] fPositions= new int[64];
+		boolean[] fOpening= new boolean[64];
+		/** For closing peers, the index of the matching opening peer or -1. */
+		int[] fMatches= new int[64];
+		int fCount;
+
+		/** The indices of the unmatched opening peers, valid if <code>fStackValid</code>. */
+		int[] fStack= new int[16];
+		int fStackSize;
+		boolean fStackValid= true;
+
+		void add(int position, boolean opening) {
+			if (!fStackValid)
+				rebuildStack();
+			if (fCount == fPositions.length) {
+				int newLength= 2 * fCount;
+				int[] positions= new int[newLength];
+				System.arraycopy(fPositions, 0, positions, 0, fCount);
+				fPositions= positions;
+				boolean[] opening2= new boolean[newLength];
+				System.arraycopy(fOpening, 0, opening2, 0, fCount);
+				fOpening= opening2;
+				int[] matches= new int[newLength];
+				System.arraycopy(fMatches, 0, matches, 0, fCount);
+				fMatches= matches;
+			}
+			fPositions[fCount]= position;
+			fOpening[fCount]= opening;
+			if (opening) {
+				fMatches[fCount]= -1;
+				push(fCount);
+			} else {
+				fMatches[fCount]= fStackSize > 0 ? fStack[--fStackSize] : -1;
+			}
+			fCount++;
+		}
+
+		private void push(int index) {
+			if (fStackSize == fStack.length) {
+				int[] stack= new int[2 * fStackSize];
+				System.arraycopy(fStack, 0, stack, 0, fStackSize);
+				fStack= stack;
+			}
+			fStack[fStackSize++]= index;
+		}
+
+		private void rebuildStack() {
+			fStackSize= 0;
+			for (int i= 0; i < fCount; i++) {
+				if (fOpening[i])
+					push(i);
+				else if (fMatches[i] != -1)
+					fStackSize--;
+			}
+			fStackValid= true;
+		}
+
+		/**
+		 * Removes all peers at or after the given position.
+		 *
+		 * @param position the position
+		 */
+		void truncate(int position) {
+			int count= indexOf(position);
+			if (count != fCount) {
+				fCount= count;
+				fStackValid= false;
+			}
+		}
+
+		/**
+		 * Returns the number of peers before the given position, i.e. the index of the first peer
+		 * at or after <code>position</code>.
+		 *
+		 * @param position the position
+		 * @return the index of the first peer at or after <code>position</code>
+		 */
+		int indexOf(int position) {
+			int low= 0;
+			int high= fCount;
+			while (low < high) {
+				int mid= (low + high) >>> 1;
+				if (fPositions[mid] < position)
+					low= mid + 1;
+				else
+					high= mid;
+			}
+			return low;
+		}
+	}
+
+	private final Peers[] fPeers= { new Peers(), new Peers(), new Peers() };
+
+	/** All peers before this position are in the index. */
+	private int fValidEnd;
+
+	/** Set if the document has no Java partitioning. */
+	private boolean fDisabled;
+
+	private JavaBracketIndex() {
+	}
+
+	/**
+	 * Returns the index for the given document and scan parameters.
+	 *
+	 * @param document the document
+	 * @param partitioning the partitioning used for scanning
+	 * @param partition the partition to scan in
+	 * @return the index, or <code>null</code> if the document is too short or the index does not
+	 *         support the partitioning
+	 */
+	static JavaBracketIndex getIndex(IDocument document, String partitioning, String partition) {
+		if (document.getLength() < MIN_DOCUMENT_LENGTH)
+			return null;
+		if (!IJavaPartitions.JAVA_PARTITIONING.equals(partitioning) || !IDocument.DEFAULT_CONTENT_TYPE.equals(partition))
+			return null;
+
+		synchronized (fgIndexes) {
+			JavaBracketIndex index= fgIndexes.get(document);
+			if (index == null) {
+				index= new JavaBracketIndex();
+				document.addDocumentListener(index);
+				fgIndexes.put(document, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Returns the position of the opening peer character (backward search), see
+	 * {@link JavaHeuristicScanner#findOpeningPeer(int, int, char, char)}.
+	 *
+	 * @param document the document
+	 * @param start the start position
+	 * @param bound the first position not to consider any more, or -1
+	 * @param openingPeer the opening peer character
+	 * @param closingPeer the closing peer character
+	 * @return the matching peer character position, <code>JavaHeuristicScanner.NOT_FOUND</code>
+	 *         or {@link #UNKNOWN} if the index can't answer the query
+	 */
+	synchronized int findOpeningPeer(IDocument document, int start, int bound, char openingPeer, char closingPeer) {
+		int kind= getKind(openingPeer, closingPeer);
+		if (kind == -1 || fDisabled)
+			return UNKNOWN;
+		if (start < 0)
+			return JavaHeuristicScanner.NOT_FOUND;
+		if (start >= fValidEnd && !extend(document, start + 1))
+			return UNKNOWN;
+
+		Peers peers= fPeers[kind];
+		int i= peers.indexOf(start + 1) - 1;
+		while (i >= 0 && peers.fPositions[i] > bound) {
+			if (peers.fOpening[i])
+				return peers.fPositions[i];
+			int match= peers.fMatches[i];
+			if (match == -1)
+				return JavaHeuristicScanner.NOT_FOUND;
+			i= match - 1;
+		}
+		return JavaHeuristicScanner.NOT_FOUND;
+	}
+
+	private static int getKind(char openingPeer, char closingPeer) {
+		for (int i= 0; i < OPENING_PEERS.length; i++) {
+			if (OPENING_PEERS[i] == openingPeer && CLOSING_PEERS[i] == closingPeer)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Scans the document from the end of the valid range up to at least <code>end</code>.
+	 *
+	 * @param document the document
+	 * @param end the position up to which the index must be valid
+	 * @return <code>true</code> if the index could be extended
+	 */
+	private boolean extend(IDocument document, int end) {
+		int from= fValidEnd;
+		int to= Math.min(document.getLength(), Math.max(end, from + CHUNK_SIZE));
+		if (to <= from)
+			return true;
+		try {
+			ITypedRegion[] partitions= TextUtilities.computePartitioning(document, IJavaPartitions.JAVA_PARTITIONING, from, to - from, false);
+			if (partitions.length == 0) {
+				fDisabled= true;
+				return false;
+			}
+			String text= document.get(from, to - from);
+			for (int p= 0; p < partitions.length; p++) {
+				ITypedRegion partition= partitions[p];
+				if (!IDocument.DEFAULT_CONTENT_TYPE.equals(partition.getType()))
+					continue;
+				int offset= Math.max(from, partition.getOffset());
+				int partitionEnd= Math.min(to, partition.getOffset() + partition.getLength());
+				for (int pos= offset; pos < partitionEnd; pos++)
+					record(text.charAt(pos - from), pos);
+			}
+		} catch (BadLocationException e) {
+			return false;
+		}
+		fValidEnd= to;
+		return true;
+	}
+
+	private void record(char ch, int position) {
+		for (int i= 0; i < OPENING_PEERS.length; i++) {
+			if (OPENING_PEERS[i] == ch) {
+				fPeers[i].add(position, true);
+				return;
+			} else if (CLOSING_PEERS[i] == ch) {
+				fPeers[i].add(position, false);
+				return;
+			}
+		}
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public void documentAboutToBeChanged(DocumentEvent event) {
+	}
+
+	/*
+	 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+	 */
+	public synchronized void documentChanged(DocumentEvent event) {
+		// a change can turn the preceding characters on the line into a comment (e.g. '/' + '/')
+		int position;
+		try {
+			IDocument document= event.getDocument();
+			position= document.getLineOffset(document.getLineOfOffset(event.getOffset()));
+		} catch (BadLocationException e) {
+			position= 0;
+		}
+		if (position < fValidEnd) {
+			fValidEnd= position;
+			for (int i= 0; i < fPeers.length; i++)
+				fPeers[i].truncate(position);
+		}
+		fDisabled= false;
+	}
+}
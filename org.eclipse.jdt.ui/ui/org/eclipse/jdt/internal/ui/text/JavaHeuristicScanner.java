@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -613,6 +613,18 @@ public final class JavaHeuristicScanner implements Symbols {
 	public int findOpeningPeer(int start, int bound, char openingPeer, char closingPeer) {
 		Assert.isLegal(start < fDocument.getLength());
 
+		JavaBracketIndex index= JavaBracketIndex.getIndex(fDocument, fPartitioning, fPartition);
+		if (index != null) {
+			int peer= index.findOpeningPeer(fDocument, start, bound == UNBOUND ? -1 : bound, openingPeer, closingPeer);
+			if (peer != JavaBracketIndex.UNKNOWN) {
+				if (peer != NOT_FOUND) {
+					fPos= peer;
+					fChar= openingPeer;
+				}
+				return peer;
+			}
+		}
+
 		try {
 			final CharacterMatch match= new CharacterMatch(new char[] {openingPeer, closingPeer});
 			int depth= 1;
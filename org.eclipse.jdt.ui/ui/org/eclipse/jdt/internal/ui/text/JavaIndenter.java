@@ -1624,6 +1624,55 @@ public final class JavaIndenter {
 		}
 	}
 
+	/**
+	 * Skips the scope of a parenthesis, bracket or brace pair by looking up the opening peer with
+	 * {@link JavaHeuristicScanner#findOpeningPeer(int, char, char)}, which does not need to
+	 * tokenize the scope. On success, the state is the same as after the token-wise scan of
+	 * {@link #skipScope(int, int)}.
+	 * 
+	 * @param openToken the opening token
+	 * @param closeToken the closing token
+	 * @return <code>true</code> if the opening peer was found, <code>false</code> if the scope
+	 *         must be skipped token-wise
+	 * @since 3.11
+	 */
+	private boolean skipScopeWithPeer(int openToken, int closeToken) {
+		char openingPeer, closingPeer;
+		switch (closeToken) {
+			case Symbols.TokenRPAREN:
+				openingPeer= '(';
+				closingPeer= ')';
+				break;
+			case Symbols.TokenRBRACKET:
+				openingPeer= '[';
+				closingPeer= ']';
+				break;
+			case Symbols.TokenRBRACE:
+				openingPeer= '{';
+				closingPeer= '}';
+				break;
+			default:
+				return false;
+		}
+		int closing= fPosition;
+		if (closing < 1)
+			return false;
+		int peer= fScanner.findOpeningPeer(closing - 1, openingPeer, closingPeer);
+		if (peer == JavaHeuristicScanner.NOT_FOUND)
+			return false;
+
+		fToken= openToken;
+		fPosition= peer;
+		// the token scanned before the opening peer is the first token after it
+		fPreviousPos= fScanner.findNonWhitespaceForward(peer + 1, closing + 1);
+		try {
+			fLine= fDocument.getLineOfOffset(fPosition);
+		} catch (BadLocationException e) {
+			fLine= -1;
+		}
+		return true;
+	}
+
 	/**
 	 * Returns the contents of the current token.
 	 * 
@@ -2060,6 +2109,8 @@ public final class JavaIndenter {
 	 *         otherwise
 	 */
 	private boolean skipScope(int openToken, int closeToken) {
+		if (skipScopeWithPeer(openToken, closeToken))
+			return true;
 
 		int depth= 1;
 
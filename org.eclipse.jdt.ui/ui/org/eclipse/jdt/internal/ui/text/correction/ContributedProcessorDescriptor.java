@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import org.eclipse.core.expressions.EvaluationContext;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
+import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.ExpressionTagNames;
 
 import org.eclipse.core.runtime.CoreException;
@@ -44,6 +45,7 @@ public final class ContributedProcessorDescriptor {
 	private Boolean fStatus;
 	private String fRequiredSourceLevel;
 	private final Set<String> fHandledMarkerTypes;
+	private Expression fEnablementExpression;
 
 	private static final String ID= "id"; //$NON-NLS-1$
 	private static final String CLASS= "class"; //$NON-NLS-1$
@@ -53,6 +55,8 @@ public final class ContributedProcessorDescriptor {
 	private static final String HANDLED_MARKER_TYPES= "handledMarkerTypes"; //$NON-NLS-1$
 	private static final String MARKER_TYPE= "markerType"; //$NON-NLS-1$
 
+	private static final String COMPILATION_UNIT= "compilationUnit"; //$NON-NLS-1$
+
 	public ContributedProcessorDescriptor(IConfigurationElement element, boolean testMarkerTypes) {
 		fConfigurationElement= element;
 		fProcessorInstance= null;
@@ -108,10 +112,9 @@ public final class ContributedProcessorDescriptor {
 		IConfigurationElement[] children= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
 		if (children.length == 1) {
 			try {
-				ExpressionConverter parser= ExpressionConverter.getDefault();
-				Expression expression= parser.perform(children[0]);
+				Expression expression= getEnablementExpression(children[0]);
 				EvaluationContext evalContext= new EvaluationContext(null, cunit);
-				evalContext.addVariable("compilationUnit", cunit); //$NON-NLS-1$
+				evalContext.addVariable(COMPILATION_UNIT, cunit);
 				IJavaProject javaProject= cunit.getJavaProject();
 				String[] natures= javaProject.getProject().getDescription().getNatureIds();
 				evalContext.addVariable("projectNatures", Arrays.asList(natures)); //$NON-NLS-1$
@@ -126,6 +129,61 @@ public final class ContributedProcessorDescriptor {
 		return false;
 	}
 
+	private synchronized Expression getEnablementExpression(IConfigurationElement enablement) throws CoreException {
+		if (fEnablementExpression == null) {
+			fEnablementExpression= ExpressionConverter.getDefault().perform(enablement);
+		}
+		return fEnablementExpression;
+	}
+
+	/**
+	 * Returns whether the processor has an enablement expression. The expression can test the
+	 * natures and the source level of the project.
+	 *
+	 * @return <code>true</code> if the processor has an enablement expression
+	 * @since 3.11
+	 */
+	public boolean hasEnablement() {
+		return fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT).length > 0;
+	}
+
+	/**
+	 * Returns the source level required by the processor.
+	 *
+	 * @return the required source level, or <code>null</code> if none is specified
+	 * @since 3.11
+	 */
+	public String getRequiredSourceLevel() {
+		return fRequiredSourceLevel;
+	}
+
+	/**
+	 * Returns whether the answer of the processor to <code>hasCorrections</code> only depends on
+	 * the problem ID and the project of the compilation unit. This is only known for the
+	 * processors contributed by this plug-in, since other processors can inspect the compilation
+	 * unit passed to <code>hasCorrections</code>.
+	 *
+	 * @return <code>true</code> if the processor is contributed by this plug-in and its enablement
+	 *         does not access the compilation unit
+	 * @since 3.11
+	 */
+	public boolean hasUnitIndependentCorrections() {
+		return JavaUI.ID_PLUGIN.equals(fConfigurationElement.getContributor().getName()) && !dependsOnCompilationUnit();
+	}
+
+	private boolean dependsOnCompilationUnit() {
+		IConfigurationElement[] children= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
+		if (children.length != 1)
+			return false;
+		try {
+			ExpressionInfo info= getEnablementExpression(children[0]).computeExpressionInfo();
+			return info.hasDefaultVariableAccess() || Arrays.asList(info.getAccessedVariableNames()).contains(COMPILATION_UNIT);
+		} catch (CoreException e) {
+			JavaPlugin.log(e);
+			return true;
+		}
+	}
+
 	public Object getProcessor(ICompilationUnit cunit, Class<?> expectedType) {
 		if (matches(cunit)) {
 			if (fProcessorInstance == null) {
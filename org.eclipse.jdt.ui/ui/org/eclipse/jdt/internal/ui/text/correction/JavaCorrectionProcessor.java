@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,9 +16,12 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IRegistryChangeEvent;
+import org.eclipse.core.runtime.IRegistryChangeListener;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -71,6 +74,8 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 
 	private static ContributedProcessorDescriptor[] fgContributedAssistProcessors= null;
 	private static ContributedProcessorDescriptor[] fgContributedCorrectionProcessors= null;
+	private static QuickFixabilityTable fgQuickFixabilityTable= null;
+	private static IRegistryChangeListener fgRegistryListener= null;
 
 	private static ContributedProcessorDescriptor[] getProcessorDescriptors(String contributionId, boolean testMarkerTypes) {
 		IConfigurationElement[] elements= Platform.getExtensionRegistry().getConfigurationElementsFor(JavaUI.ID_PLUGIN, contributionId);
@@ -89,10 +94,32 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 	}
 
 	private static ContributedProcessorDescriptor[] getCorrectionProcessors() {
-		if (fgContributedCorrectionProcessors == null) {
-			fgContributedCorrectionProcessors= getProcessorDescriptors(QUICKFIX_PROCESSOR_CONTRIBUTION_ID, true);
+		ContributedProcessorDescriptor[] processors= fgContributedCorrectionProcessors;
+		if (processors == null) {
+			processors= getProcessorDescriptors(QUICKFIX_PROCESSOR_CONTRIBUTION_ID, true);
+			fgContributedCorrectionProcessors= processors; // reset when quick fix processors are added or removed
 		}
-		return fgContributedCorrectionProcessors;
+		return processors;
+	}
+
+	private static synchronized QuickFixabilityTable getQuickFixabilityTable() {
+		if (fgRegistryListener == null) {
+			fgRegistryListener= new IRegistryChangeListener() {
+				public void registryChanged(IRegistryChangeEvent event) {
+					if (event.getExtensionDeltas(JavaUI.ID_PLUGIN, QUICKFIX_PROCESSOR_CONTRIBUTION_ID).length > 0) {
+						synchronized (JavaCorrectionProcessor.class) {
+							fgContributedCorrectionProcessors= null;
+							fgQuickFixabilityTable= null;
+						}
+					}
+				}
+			};
+			Platform.getExtensionRegistry().addRegistryChangeListener(fgRegistryListener, JavaUI.ID_PLUGIN);
+		}
+		if (fgQuickFixabilityTable == null) {
+			fgQuickFixabilityTable= new QuickFixabilityTable(getCorrectionProcessors());
+		}
+		return fgQuickFixabilityTable;
 	}
 
 	private static ContributedProcessorDescriptor[] getAssistProcessors() {
@@ -103,7 +130,17 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 	}
 
 	public static boolean hasCorrections(ICompilationUnit cu, int problemId, String markerType) {
-		ContributedProcessorDescriptor[] processors= getCorrectionProcessors();
+		QuickFixabilityTable table= getQuickFixabilityTable();
+		Object key= table.createKey(cu, problemId, markerType);
+		Boolean fixable= table.get(key);
+		if (fixable == null) {
+			fixable= Boolean.valueOf(hasCorrections(cu, problemId, markerType, table.getContextFreeProcessors()));
+			table.put(key, fixable);
+		}
+		return fixable.booleanValue() || hasCorrections(cu, problemId, markerType, table.getUnitDependentProcessors());
+	}
+
+	private static boolean hasCorrections(ICompilationUnit cu, int problemId, String markerType, ContributedProcessorDescriptor[] processors) {
 		SafeHasCorrections collector= new SafeHasCorrections(cu, problemId);
 		for (int i= 0; i < processors.length; i++) {
 			if (processors[i].canHandleMarkerType(markerType)) {
@@ -411,6 +448,8 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 	}
 
 	private static class SafeHasAssist extends SafeCorrectionProcessorAccess {
+		private static final String PERF_HAS_ASSISTS= "org.eclipse.jdt.ui/perf/quick_assist/hasAssists"; //$NON-NLS-1$
+
 		private final IInvocationContext fContext;
 		private boolean fHasAssists;
 
@@ -426,8 +465,16 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 		@Override
 		public void safeRun(ContributedProcessorDescriptor desc) throws Exception {
 			IQuickAssistProcessor processor= (IQuickAssistProcessor) desc.getProcessor(fContext.getCompilationUnit(), IQuickAssistProcessor.class);
-			if (processor != null && processor.hasAssists(fContext)) {
-				fHasAssists= true;
+			if (processor != null) {
+				PerformanceStats stats= PerformanceStats.getStats(PERF_HAS_ASSISTS, processor);
+				stats.startRun();
+				try {
+					if (processor.hasAssists(fContext)) {
+						fHasAssists= true;
+					}
+				} finally {
+					stats.endRun();
+				}
 			}
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -128,7 +128,7 @@ public class QuickAssistLightBulbUpdater {
 				doSelectionChanged(selection.getOffset(), selection.getLength(), astRoot);
 			}
 		};
-		SelectionListenerWithASTManager.getDefault().addListener(fEditor, fListener);
+		SelectionListenerWithASTManager.getDefault().addListener(fEditor, fListener, SelectionListenerWithASTManager.PRIORITY_EDITOR);
 	}
 
 	private void uninstallSelectionListener() {
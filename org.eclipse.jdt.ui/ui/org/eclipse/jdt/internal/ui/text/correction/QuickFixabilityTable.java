@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.correction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Remembers whether the contributed quick fix processors have corrections for a problem.
+ * <p>
+ * The processors are split into the processors of this plug-in whose enablement does not depend
+ * on the compilation unit and the remaining processors. The answer of the former only depends on
+ * the problem ID, the marker type, the natures and the source level of the project, and is stored
+ * in the table. The latter are still asked for every problem, since contributed processors can
+ * inspect the compilation unit. A table is created for every set of contributed processors.
+ * </p>
+ *
+ * @since 3.11
+ */
+final class QuickFixabilityTable {
+
+	private static final int MAX_SIZE= 2048;
+
+	private static final class Key {
+		private final int fProblemId;
+		private final String fMarkerType;
+		private final List<String> fNatures;
+		private final String fSourceLevel;
+
+		public Key(int problemId, String markerType, List<String> natures, String sourceLevel) {
+			fProblemId= problemId;
+			fMarkerType= markerType;
+			fNatures= natures;
+			fSourceLevel= sourceLevel;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fProblemId == other.fProblemId
+					&& equals(fMarkerType, other.fMarkerType)
+					&& equals(fNatures, other.fNatures)
+					&& equals(fSourceLevel, other.fSourceLevel);
+		}
+
+		private static boolean equals(Object o1, Object o2) {
+			return o1 == null ? o2 == null : o1.equals(o2);
+		}
+
+		@Override
+		public int hashCode() {
+			int result= fProblemId;
+			result= 31 * result + (fMarkerType == null ? 0 : fMarkerType.hashCode());
+			result= 31 * result + (fNatures == null ? 0 : fNatures.hashCode());
+			result= 31 * result + (fSourceLevel == null ? 0 : fSourceLevel.hashCode());
+			return result;
+		}
+	}
+
+	private final ContributedProcessorDescriptor[] fContextFreeProcessors;
+	private final ContributedProcessorDescriptor[] fUnitDependentProcessors;
+	private final boolean fNeedsNatures;
+	private final boolean fNeedsSourceLevel;
+
+	// guarded by fTable
+	private final Map<Key, Boolean> fTable;
+
+	/**
+	 * Creates a new table for the given quick fix processors.
+	 *
+	 * @param processors the contributed quick fix processors
+	 */
+	public QuickFixabilityTable(ContributedProcessorDescriptor[] processors) {
+		List<ContributedProcessorDescriptor> contextFree= new ArrayList<ContributedProcessorDescriptor>(processors.length);
+		List<ContributedProcessorDescriptor> unitDependent= new ArrayList<ContributedProcessorDescriptor>();
+		boolean needsNatures= false;
+		boolean needsSourceLevel= false;
+		for (int i= 0; i < processors.length; i++) {
+			ContributedProcessorDescriptor processor= processors[i];
+			if (processor.hasUnitIndependentCorrections()) {
+				contextFree.add(processor);
+				needsNatures|= processor.hasEnablement();
+				needsSourceLevel|= processor.hasEnablement() || processor.getRequiredSourceLevel() != null;
+			} else {
+				unitDependent.add(processor);
+			}
+		}
+		fContextFreeProcessors= contextFree.toArray(new ContributedProcessorDescriptor[contextFree.size()]);
+		fUnitDependentProcessors= unitDependent.toArray(new ContributedProcessorDescriptor[unitDependent.size()]);
+		fNeedsNatures= needsNatures;
+		fNeedsSourceLevel= needsSourceLevel;
+		fTable= new LinkedHashMap<Key, Boolean>(64, 0.75f, true) {
+			private static final long serialVersionUID= 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+				return size() > MAX_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Returns the processors whose answer does not depend on the compilation unit.
+	 *
+	 * @return the context free processors
+	 */
+	public ContributedProcessorDescriptor[] getContextFreeProcessors() {
+		return fContextFreeProcessors;
+	}
+
+	/**
+	 * Returns the processors whose answer can depend on the compilation unit.
+	 *
+	 * @return the processors that have to be asked for every problem
+	 */
+	public ContributedProcessorDescriptor[] getUnitDependentProcessors() {
+		return fUnitDependentProcessors;
+	}
+
+	/**
+	 * Creates the key of a problem.
+	 *
+	 * @param cu the compilation unit of the problem
+	 * @param problemId the problem ID
+	 * @param markerType the marker type of the problem
+	 * @return the key of the problem, or <code>null</code> if the project of the compilation unit
+	 *         cannot be accessed
+	 */
+	public Object createKey(ICompilationUnit cu, int problemId, String markerType) {
+		List<String> natures= null;
+		String sourceLevel= null;
+		if (fNeedsNatures || fNeedsSourceLevel) {
+			IJavaProject project= cu.getJavaProject();
+			if (fNeedsNatures) {
+				try {
+					natures= Arrays.asList(project.getProject().getDescription().getNatureIds());
+				} catch (CoreException e) {
+					JavaPlugin.log(e);
+					return null;
+				}
+			}
+			sourceLevel= project.getOption(JavaCore.COMPILER_SOURCE, true);
+		}
+		return new Key(problemId, markerType, natures, sourceLevel);
+	}
+
+	/**
+	 * Returns whether the context free processors have corrections for a problem.
+	 *
+	 * @param key the key of the problem
+	 * @return {@link Boolean#TRUE} or {@link Boolean#FALSE}, or <code>null</code> if the problem
+	 *         is not in the table
+	 */
+	public Boolean get(Object key) {
+		if (key == null)
+			return null;
+		synchronized (fTable) {
+			return fTable.get(key);
+		}
+	}
+
+	/**
+	 * Stores whether the context free processors have corrections for a problem.
+	 *
+	 * @param key the key of the problem
+	 * @param fixable whether the context free processors have corrections
+	 */
+	public void put(Object key, Boolean fixable) {
+		if (key == null)
+			return;
+		synchronized (fTable) {
+			fTable.put((Key) key, fixable);
+		}
+	}
+}
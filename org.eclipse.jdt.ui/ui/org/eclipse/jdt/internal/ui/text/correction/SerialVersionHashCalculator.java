@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.correction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IRegion;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.util.IClassFileReader;
+
+/**
+ * Calculates the serial version ids of many types at once.
+ * <p>
+ * The class files of all types are located with a single query for the resources generated from
+ * their compilation units, instead of one query per type. The class files are then read and
+ * hashed by a bounded number of worker jobs.
+ * </p>
+ *
+ * @since 3.11
+ */
+public final class SerialVersionHashCalculator {
+
+	/**
+	 * The maximal number of threads hashing class files, including the calling thread.
+	 */
+	private static final int MAX_THREADS= 4;
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super(CorrectionMessages.SerialVersionHashOperation_computing_id);
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			int index;
+			while ((index= claim()) != -1) {
+				calculateId(index);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private final ITypeBinding[] fBindings;
+	private final IFile[] fClassFiles;
+	private final Long[] fIds;
+	private final Exception[] fExceptions;
+
+	// guarded by this
+	private int fNext;
+	private int fPending;
+	private boolean fCanceled;
+
+	/**
+	 * Creates a new calculator.
+	 *
+	 * @param bindings the bindings of the types to calculate the serial version ids for
+	 */
+	public SerialVersionHashCalculator(ITypeBinding[] bindings) {
+		fBindings= bindings;
+		fClassFiles= new IFile[bindings.length];
+		fIds= new Long[bindings.length];
+		fExceptions= new Exception[bindings.length];
+	}
+
+	/**
+	 * Calculates the serial version ids. The class files of the types must be up to date.
+	 *
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @throws OperationCanceledException if the calculation has been canceled
+	 */
+	public void calculate(IProgressMonitor monitor) {
+		if (monitor == null)
+			monitor= new NullProgressMonitor();
+		try {
+			monitor.beginTask(CorrectionMessages.SerialVersionHashOperation_computing_id, 2 * fBindings.length);
+			findClassFiles();
+			monitor.worked(fBindings.length);
+
+			int nWorkers= Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()) - 1;
+			for (int i= 0; i < nWorkers; i++) {
+				new Worker().schedule();
+			}
+			// the calling thread helps the workers, such that the calculation also completes
+			// if the workers are not run
+			int done= 0;
+			int index;
+			while ((index= claim()) != -1) {
+				calculateId(index);
+				monitor.worked(1);
+				done++;
+				if (monitor.isCanceled())
+					cancel();
+			}
+			waitForWorkers();
+			monitor.worked(fBindings.length - done);
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Returns the serial version id of the type with the given index.
+	 *
+	 * @param index the index of the type binding
+	 * @return the serial version id, or <code>null</code> if it could not be calculated
+	 */
+	public Long getSerialVersionId(int index) {
+		return fIds[index];
+	}
+
+	/**
+	 * Returns the exception thrown while calculating the serial version id of the type with the
+	 * given index.
+	 *
+	 * @param index the index of the type binding
+	 * @return the {@link CoreException} or {@link IOException}, or <code>null</code>
+	 */
+	public Exception getException(int index) {
+		return fExceptions[index];
+	}
+
+	private void findClassFiles() {
+		IRegion region= JavaCore.newRegion();
+		for (int i= 0; i < fBindings.length; i++) {
+			IType type= (IType) fBindings[i].getJavaElement();
+			if (type != null && type.getCompilationUnit() != null)
+				region.add(type.getCompilationUnit());
+		}
+
+		Map<String, List<IFile>> filesByName= new HashMap<String, List<IFile>>();
+		IResource[] resources= JavaCore.getGeneratedResources(region, false);
+		for (int i= 0; i < resources.length; i++) {
+			IResource resource= resources[i];
+			if (resource.getType() == IResource.FILE) {
+				List<IFile> files= filesByName.get(resource.getName());
+				if (files == null) {
+					files= new ArrayList<IFile>(1);
+					filesByName.put(resource.getName(), files);
+				}
+				files.add((IFile) resource);
+			}
+		}
+
+		for (int i= 0; i < fBindings.length; i++) {
+			try {
+				fClassFiles[i]= findClassFile(fBindings[i], filesByName);
+			} catch (CoreException e) {
+				fExceptions[i]= e;
+			}
+		}
+	}
+
+	private static IFile findClassFile(ITypeBinding binding, Map<String, List<IFile>> filesByName) throws CoreException {
+		IType type= (IType) binding.getJavaElement();
+		String name= binding.getBinaryName();
+		if (type == null || type.getCompilationUnit() == null || name == null)
+			return SerialVersionHashOperation.getClassfile(binding);
+
+		IPath packagePath= Path.EMPTY;
+		int packStart= name.lastIndexOf('.');
+		if (packStart != -1) {
+			packagePath= new Path(name.substring(0, packStart).replace('.', '/'));
+			name= name.substring(packStart + 1);
+		}
+
+		// class files of different packages and output folders can have the same name
+		IPath folderPath= getOutputLocation(type).append(packagePath);
+		List<IFile> files= filesByName.get(name + ".class"); //$NON-NLS-1$
+		if (files != null) {
+			for (int i= 0; i < files.size(); i++) {
+				IFile file= files.get(i);
+				if (file.getParent().getFullPath().equals(folderPath))
+					return file;
+			}
+		}
+		return SerialVersionHashOperation.getClassfile(binding);
+	}
+
+	/**
+	 * Returns the output location of the source folder of a type.
+	 *
+	 * @param type the type
+	 * @return the workspace relative path of the output folder
+	 * @throws JavaModelException if the classpath cannot be accessed
+	 */
+	private static IPath getOutputLocation(IType type) throws JavaModelException {
+		IPackageFragmentRoot root= (IPackageFragmentRoot) type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+		IPath outputLocation= root.getRawClasspathEntry().getOutputLocation();
+		if (outputLocation == null)
+			outputLocation= type.getJavaProject().getOutputLocation();
+		return outputLocation;
+	}
+
+	private synchronized int claim() {
+		if (fCanceled || fNext >= fBindings.length)
+			return -1;
+		fPending++;
+		return fNext++;
+	}
+
+	private synchronized void cancel() {
+		fCanceled= true;
+	}
+
+	private synchronized void waitForWorkers() {
+		while (fPending > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// continue waiting
+			}
+		}
+	}
+
+	private void calculateId(int index) {
+		try {
+			doCalculateId(index);
+		} finally {
+			synchronized (this) {
+				fPending--;
+				notifyAll();
+			}
+		}
+	}
+
+	private void doCalculateId(int index) {
+		IFile classFile= fClassFiles[index];
+		if (classFile == null)
+			return;
+		try {
+			InputStream contents= classFile.getContents();
+			try {
+				IClassFileReader cfReader= ToolFactory.createDefaultClassFileReader(contents, IClassFileReader.ALL);
+				if (cfReader != null)
+					fIds[index]= SerialVersionHashOperation.calculateSerialVersionId(cfReader);
+			} finally {
+				contents.close();
+			}
+		} catch (CoreException e) {
+			fExceptions[index]= e;
+		} catch (IOException e) {
+			fExceptions[index]= e;
+		}
+	}
+}
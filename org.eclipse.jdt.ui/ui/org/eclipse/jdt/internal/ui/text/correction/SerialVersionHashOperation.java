@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -109,7 +109,7 @@ public final class SerialVersionHashOperation extends AbstractSerialVersionOpera
 		return new String(name).replace('/', '.');
 	}
 
-	private static Long calculateSerialVersionId(IClassFileReader cfReader) throws IOException {
+	static Long calculateSerialVersionId(IClassFileReader cfReader) throws IOException {
 		// implementing algorithm specified on http://download.oracle.com/javase/6/docs/platform/serialization/spec/class.html#4100
 
 		ByteArrayOutputStream os= new ByteArrayOutputStream();
@@ -251,7 +251,7 @@ public final class SerialVersionHashOperation extends AbstractSerialVersionOpera
 		return allMethods;
 	}
 
-	private static IFile getClassfile(ITypeBinding typeBinding) throws CoreException {
+	static IFile getClassfile(ITypeBinding typeBinding) throws CoreException {
 		// bug 191943
 		IType type= (IType) typeBinding.getJavaElement();
 		if (type == null || type.getCompilationUnit() == null) {
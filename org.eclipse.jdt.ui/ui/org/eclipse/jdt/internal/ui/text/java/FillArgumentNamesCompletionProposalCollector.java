@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@ package org.eclipse.jdt.internal.ui.text.java;
 
 import org.eclipse.jface.preference.IPreferenceStore;
 
+import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -38,6 +39,7 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 public final class FillArgumentNamesCompletionProposalCollector extends CompletionProposalCollector {
 
 	private final boolean fIsGuessArguments;
+	private ParameterGuesser fParameterGuesser;
 
 	public FillArgumentNamesCompletionProposalCollector(JavaContentAssistInvocationContext context) {
 		super(context.getCompilationUnit(), true);
@@ -74,13 +76,25 @@ public final class FillArgumentNamesCompletionProposalCollector extends Completi
 			return super.createJavaCompletionProposal(methodProposal);
 
 		LazyJavaCompletionProposal proposal= null;
-		proposal= ParameterGuessingProposal.createProposal(methodProposal, getInvocationContext(), fIsGuessArguments);
+		proposal= ParameterGuessingProposal.createProposal(methodProposal, getInvocationContext(), getParameterGuesser(), fIsGuessArguments);
 		if (proposal == null) {
 			proposal= new FilledArgumentNamesMethodProposal(methodProposal, getInvocationContext());
 		}
 		return proposal;
 	}
 
+	/**
+	 * Returns the parameter guesser shared by the method proposals of the current context.
+	 *
+	 * @return the parameter guesser, or <code>null</code> if the context isn't extended
+	 */
+	private ParameterGuesser getParameterGuesser() {
+		CompletionContext context= getContext();
+		if (fParameterGuesser == null && context != null && context.isExtended())
+			fParameterGuesser= new ParameterGuesser(context);
+		return fParameterGuesser;
+	}
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.text.java.ResultCollector#createTypeCompletion(org.eclipse.jdt.core.CompletionProposal)
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,11 @@ package org.eclipse.jdt.internal.ui.text.java;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.swt.graphics.Image;
@@ -26,6 +28,7 @@ import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 
 import org.eclipse.jdt.core.BindingKey;
+import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
@@ -51,6 +54,11 @@ import org.eclipse.jdt.internal.ui.viewsupport.JavaElementImageProvider;
 /**
  * This class triggers a code-completion that will track all local and member variables for later
  * use as a parameter guessing proposal.
+ * <p>
+ * A guesser created for a core completion context can be shared by all proposals of the context:
+ * the variables that are visible at the completion location and assignable to a parameter type
+ * are then only computed once per type.
+ * </p>
  */
 public class ParameterGuesser {
 
@@ -76,8 +84,6 @@ public class ParameterGuesser {
 		public final char[] triggerChars;
 		public final ImageDescriptor descriptor;
 
-		public boolean alreadyMatched;
-
 		public Variable(String qualifiedTypeName, String name, int variableType, boolean isAutoboxMatch, int positionScore, char[] triggerChars, ImageDescriptor descriptor) {
 			this.qualifiedTypeName= qualifiedTypeName;
 			this.name= name;
@@ -86,7 +92,6 @@ public class ParameterGuesser {
 			this.triggerChars= triggerChars;
 			this.descriptor= descriptor;
 			this.isAutoboxingMatch= isAutoboxMatch;
-			this.alreadyMatched= false;
 		}
 
 		/*
@@ -112,14 +117,33 @@ public class ParameterGuesser {
 	private final Set<String> fAlreadyMatchedNames;
 	private final IJavaElement fEnclosingElement;
 
+	private final CompletionContext fCoreContext;
+	private final Map<String, List<Variable>> fVisibleMatches;
+
 	/**
 	 * Creates a parameter guesser
 	 * 
 	 * @param enclosingElement the enclosing Java element
 	 */
 	public ParameterGuesser(IJavaElement enclosingElement) {
+		this(enclosingElement, null);
+	}
+
+	/**
+	 * Creates a parameter guesser that can be shared by the proposals of a completion context.
+	 *
+	 * @param coreContext the extended core completion context
+	 * @since 3.11
+	 */
+	public ParameterGuesser(CompletionContext coreContext) {
+		this(coreContext.getEnclosingElement(), coreContext);
+	}
+
+	private ParameterGuesser(IJavaElement enclosingElement, CompletionContext coreContext) {
 		fEnclosingElement= enclosingElement;
+		fCoreContext= coreContext;
 		fAlreadyMatchedNames= new HashSet<String>();
+		fVisibleMatches= new HashMap<String, List<Variable>>();
 	}
 
 	private List<Variable> evaluateVisibleMatches(String expectedType, IJavaElement[] suggestions) throws JavaModelException {
@@ -132,9 +156,6 @@ public class ParameterGuesser {
 		for (int i= 0; i < suggestions.length; i++) {
 			Variable variable= createVariable(suggestions[i], currentType, expectedType, i);
 			if (variable != null) {
-				if (fAlreadyMatchedNames.contains(variable.name)) {
-					variable.alreadyMatched= true;
-				}
 				res.add(variable);
 			}
 		}
@@ -296,7 +317,38 @@ public class ParameterGuesser {
 	 */
 	public ICompletionProposal[] parameterProposals(String expectedType, String paramName, Position pos, IJavaElement[] suggestions, boolean fillBestGuess, boolean isLastParameter) throws JavaModelException {
 		List<Variable> typeMatches= evaluateVisibleMatches(expectedType, suggestions);
-		orderMatches(typeMatches, paramName);
+		return createProposals(typeMatches, paramName, pos, fAlreadyMatchedNames, fillBestGuess, isLastParameter);
+	}
+
+	/**
+	 * Returns the matches for the type and name argument, ordered by match quality. The variables
+	 * of the completion context that match a type are computed once and reused for all parameters
+	 * of that type. Only available if this guesser has been created for a completion context.
+	 *
+	 * @param typeSignature the type signature of the parameter we are trying to match
+	 * @param paramName the name of the parameter (used to find similarly named matches)
+	 * @param pos the position
+	 * @param alreadyMatchedNames the names of the best matches of the other parameters of the
+	 *            method, the name of the best match is added to it
+	 * @param fillBestGuess <code>true</code> if the best guess should be filled in
+	 * @param isLastParameter <code>true</code> iff this proposal is for the last parameter of a method
+	 * @return returns the matches, ordered by match quality
+	 * @throws JavaModelException if it fails
+	 * @since 3.11
+	 */
+	public ICompletionProposal[] parameterProposals(char[] typeSignature, String paramName, Position pos, Set<String> alreadyMatchedNames, boolean fillBestGuess, boolean isLastParameter) throws JavaModelException {
+		String signature= new String(typeSignature);
+		List<Variable> typeMatches= fVisibleMatches.get(signature);
+		if (typeMatches == null) {
+			String expectedType= new String(Signature.toCharArray(typeSignature));
+			typeMatches= evaluateVisibleMatches(expectedType, fCoreContext.getVisibleElements(signature));
+			fVisibleMatches.put(signature, typeMatches);
+		}
+		return createProposals(new ArrayList<Variable>(typeMatches), paramName, pos, alreadyMatchedNames, fillBestGuess, isLastParameter);
+	}
+
+	private ICompletionProposal[] createProposals(List<Variable> typeMatches, String paramName, Position pos, Set<String> alreadyMatchedNames, boolean fillBestGuess, boolean isLastParameter) {
+		orderMatches(typeMatches, paramName, alreadyMatchedNames);
 
 		boolean hasVarWithParamName= false;
 		ICompletionProposal[] ret= new ICompletionProposal[typeMatches.size()];
@@ -304,7 +356,7 @@ public class ParameterGuesser {
 		for (Iterator<Variable> it= typeMatches.iterator(); it.hasNext();) {
 			Variable v= it.next();
 			if (i == 0) {
-				fAlreadyMatchedNames.add(v.name);
+				alreadyMatchedNames.add(v.name);
 				replacementLength= v.name.length();
 			}
 
@@ -335,12 +387,25 @@ public class ParameterGuesser {
 	private static class MatchComparator implements Comparator<Variable> {
 
 		private String fParamName;
+		private Set<String> fAlreadyMatchedNames;
+		private Map<Variable, Integer> fScores;
 
-		MatchComparator(String paramName) {
+		MatchComparator(String paramName, Set<String> alreadyMatchedNames) {
 			fParamName= paramName;
+			fAlreadyMatchedNames= alreadyMatchedNames;
+			fScores= new HashMap<Variable, Integer>();
 		}
 		public int compare(Variable one, Variable two) {
-			return score(two) - score(one);
+			return getScore(two) - getScore(one);
+		}
+
+		private int getScore(Variable v) {
+			Integer score= fScores.get(v);
+			if (score == null) {
+				score= Integer.valueOf(score(v));
+				fScores.put(v, score);
+			}
+			return score.intValue();
 		}
 
 		/**
@@ -361,7 +426,7 @@ public class ParameterGuesser {
 				subStringScore= 0;
 
 			int positionScore= v.positionScore; // since ???
-			int matchedScore= v.alreadyMatched ? 0 : 1;
+			int matchedScore= fAlreadyMatchedNames.contains(v.name) ? 0 : 1;
 			int autoboxingScore= v.isAutoboxingMatch ? 0 : 1;
 
 			int score= autoboxingScore << 30 | variableScore << 21 | subStringScore << 11 | matchedScore << 10 | positionScore;
@@ -388,9 +453,10 @@ public class ParameterGuesser {
 	 *
 	 * @param typeMatches the list of type matches
 	 * @param paramName the parameter name
+	 * @param alreadyMatchedNames the names of the variables already used during this completion
 	 */
-	private static void orderMatches(List<Variable> typeMatches, String paramName) {
-		if (typeMatches != null) Collections.sort(typeMatches, new MatchComparator(paramName));
+	private static void orderMatches(List<Variable> typeMatches, String paramName, Set<String> alreadyMatchedNames) {
+		if (typeMatches != null) Collections.sort(typeMatches, new MatchComparator(paramName, alreadyMatchedNames));
 	}
 
 	/**
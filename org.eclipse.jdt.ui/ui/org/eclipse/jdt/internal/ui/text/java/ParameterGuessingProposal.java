@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.VerifyEvent;
 import org.eclipse.swt.graphics.Point;
@@ -43,7 +46,6 @@ import org.eclipse.ui.texteditor.link.EditorLinkedModeUI;
 
 import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.CompletionProposal;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 
@@ -80,6 +82,26 @@ public class ParameterGuessingProposal extends JavaMethodCompletionProposal {
  		return null;
 	}
 
+	/**
+	 * Creates a {@link ParameterGuessingProposal} that shares the parameter guesser with the other
+	 * proposals of the completion context, or <code>null</code> if the core context isn't available
+	 * or extended.
+	 *
+	 * @param proposal the original completion proposal
+	 * @param context the current context
+	 * @param guesser the parameter guesser of the core context, or <code>null</code> to create a
+	 *            new one
+	 * @param fillBestGuess if set, the best guess will be filled in
+	 *
+	 * @return a proposal or <code>null</code>
+	 * @since 3.11
+	 */
+	public static ParameterGuessingProposal createProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, ParameterGuesser guesser, boolean fillBestGuess) {
+		if (guesser == null)
+			return createProposal(proposal, context, fillBestGuess);
+		return new ParameterGuessingProposal(proposal, context, guesser, fillBestGuess);
+	}
+
 	private ICompletionProposal[][] fChoices; // initialized by guessParameters()
 	private Position[] fPositions; // initialized by guessParameters()
 
@@ -88,27 +110,25 @@ public class ParameterGuessingProposal extends JavaMethodCompletionProposal {
 
 	private final boolean fFillBestGuess;
 
-	private final CompletionContext fCoreContext;
+	private final ParameterGuesser fGuesser;
 
  	public ParameterGuessingProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, CompletionContext coreContext, boolean fillBestGuess) {
- 		super(proposal, context);
-		fCoreContext= coreContext;
-		fFillBestGuess= fillBestGuess;
+		this(proposal, context, new ParameterGuesser(coreContext), fillBestGuess);
  	}
 
-	private IJavaElement getEnclosingElement() {
-		return fCoreContext.getEnclosingElement();
-	}
-
-	private IJavaElement[][] getAssignableElements() {
-		char[] signature= SignatureUtil.fix83600(getProposal().getSignature());
-		char[][] types= Signature.getParameterTypes(signature);
-
-		IJavaElement[][] assignableElements= new IJavaElement[types.length][];
-		for (int i= 0; i < types.length; i++) {
-			assignableElements[i]= fCoreContext.getVisibleElements(new String(types[i]));
-		}
-		return assignableElements;
+	/**
+	 * Creates a parameter guessing proposal.
+	 *
+	 * @param proposal the original completion proposal
+	 * @param context the current context
+	 * @param guesser the parameter guesser of the core context
+	 * @param fillBestGuess if set, the best guess will be filled in
+	 * @since 3.11
+	 */
+	public ParameterGuessingProposal(CompletionProposal proposal, JavaContentAssistInvocationContext context, ParameterGuesser guesser, boolean fillBestGuess) {
+		super(proposal, context);
+		fGuesser= guesser;
+		fFillBestGuess= fillBestGuess;
 	}
 
 	/*
@@ -321,16 +341,15 @@ public class ParameterGuessingProposal extends JavaMethodCompletionProposal {
 		fPositions= new Position[count];
 		fChoices= new ICompletionProposal[count][];
 
-		String[] parameterTypes= getParameterTypes();
-		ParameterGuesser guesser= new ParameterGuesser(getEnclosingElement());
-		IJavaElement[][] assignableElements= getAssignableElements();
+		char[][] parameterTypes= getParameterTypes();
+		Set<String> alreadyMatchedNames= new HashSet<String>();
 
 		for (int i= count - 1; i >= 0; i--) {
 			String paramName= new String(parameterNames[i]);
 			Position position= new Position(0,0);
 
 			boolean isLastParameter= i == count - 1;
-			ICompletionProposal[] argumentProposals= guesser.parameterProposals(parameterTypes[i], paramName, position, assignableElements[i], fFillBestGuess, isLastParameter);
+			ICompletionProposal[] argumentProposals= fGuesser.parameterProposals(parameterTypes[i], paramName, position, alreadyMatchedNames, fFillBestGuess, isLastParameter);
 			if (argumentProposals.length == 0) {
 				JavaCompletionProposal proposal= new JavaCompletionProposal(paramName, 0, paramName.length(), null, paramName, 0);
 				if (isLastParameter)
@@ -345,15 +364,9 @@ public class ParameterGuessingProposal extends JavaMethodCompletionProposal {
 		return fChoices;
 	}
 
-	private String[] getParameterTypes() {
+	private char[][] getParameterTypes() {
 		char[] signature= SignatureUtil.fix83600(fProposal.getSignature());
-		char[][] types= Signature.getParameterTypes(signature);
-
-		String[] ret= new String[types.length];
-		for (int i= 0; i < types.length; i++) {
-			ret[i]= new String(Signature.toCharArray(types[i]));
-		}
-		return ret;
+		return Signature.getParameterTypes(signature);
 	}
 
 	/*
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,12 @@
 package org.eclipse.jdt.internal.ui.text.template.contentassist;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -47,6 +51,136 @@ public class TemplateEngine {
 	private static final String $_LINE_SELECTION= "${" + GlobalTemplateVariables.LineSelection.NAME + "}"; //$NON-NLS-1$ //$NON-NLS-2$
 	private static final String $_WORD_SELECTION= "${" + GlobalTemplateVariables.WordSelection.NAME + "}"; //$NON-NLS-1$ //$NON-NLS-2$
 
+	/**
+	 * A template together with its position in the template store and its lower case name.
+	 *
+	 * @since 3.11
+	 */
+	private static final class IndexedTemplate {
+		final Template fTemplate;
+		final int fOrder;
+		final String fName;
+
+		IndexedTemplate(Template template, int order) {
+			fTemplate= template;
+			fOrder= order;
+			fName= template.getName().toLowerCase();
+		}
+	}
+
+	/**
+	 * The templates of the template store, grouped by context type and sorted by lower case name.
+	 * Content assist only evaluates the templates of compatible context types whose names start
+	 * with the typed prefix, instead of all templates in the store.
+	 *
+	 * @since 3.11
+	 */
+	private static final class TemplateIndex {
+		private static final Comparator<IndexedTemplate> NAME_COMPARATOR= new Comparator<IndexedTemplate>() {
+			public int compare(IndexedTemplate t1, IndexedTemplate t2) {
+				return t1.fName.compareTo(t2.fName);
+			}
+		};
+
+		private static final Comparator<IndexedTemplate> ORDER_COMPARATOR= new Comparator<IndexedTemplate>() {
+			public int compare(IndexedTemplate t1, IndexedTemplate t2) {
+				return t1.fOrder - t2.fOrder;
+			}
+		};
+
+		private final Template[] fTemplates;
+		private final Map<String, IndexedTemplate[]> fTemplatesByContextType= new HashMap<String, IndexedTemplate[]>();
+
+		TemplateIndex(Template[] templates) {
+			fTemplates= templates;
+			Map<String, List<IndexedTemplate>> byContextType= new HashMap<String, List<IndexedTemplate>>();
+			for (int i= 0; i < templates.length; i++) {
+				String contextTypeId= templates[i].getContextTypeId();
+				List<IndexedTemplate> list= byContextType.get(contextTypeId);
+				if (list == null) {
+					list= new ArrayList<IndexedTemplate>();
+					byContextType.put(contextTypeId, list);
+				}
+				list.add(new IndexedTemplate(templates[i], i));
+			}
+			for (Iterator<Entry<String, List<IndexedTemplate>>> iter= byContextType.entrySet().iterator(); iter.hasNext();) {
+				Entry<String, List<IndexedTemplate>> entry= iter.next();
+				IndexedTemplate[] sorted= entry.getValue().toArray(new IndexedTemplate[entry.getValue().size()]);
+				Arrays.sort(sorted, NAME_COMPARATOR);
+				fTemplatesByContextType.put(entry.getKey(), sorted);
+			}
+		}
+
+		/**
+		 * Returns whether this index contains exactly the given templates.
+		 *
+		 * @param templates the templates of the template store
+		 * @return <code>true</code> if the index is up to date
+		 */
+		boolean isIndexOf(Template[] templates) {
+			if (templates.length != fTemplates.length)
+				return false;
+			for (int i= 0; i < templates.length; i++) {
+				if (templates[i] != fTemplates[i])
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns all templates of the template store.
+		 *
+		 * @return the templates in the order of the template store
+		 */
+		Template[] getTemplates() {
+			return fTemplates;
+		}
+
+		/**
+		 * Returns the templates that may be evaluated in the given context, in the order of the
+		 * template store. The caller still has to check whether they can be evaluated.
+		 *
+		 * @param context the context
+		 * @return the candidate templates
+		 */
+		Template[] getCandidates(CompilationUnitContext context) {
+			String prefix= context.getKey().toLowerCase();
+			List<IndexedTemplate> candidates= new ArrayList<IndexedTemplate>();
+			for (Iterator<Entry<String, IndexedTemplate[]>> iter= fTemplatesByContextType.entrySet().iterator(); iter.hasNext();) {
+				Entry<String, IndexedTemplate[]> entry= iter.next();
+				if (context.isCompatibleContextType(entry.getKey()))
+					addPrefixMatches(entry.getValue(), prefix, candidates);
+			}
+			Collections.sort(candidates, ORDER_COMPARATOR);
+			Template[] result= new Template[candidates.size()];
+			for (int i= 0; i < result.length; i++) {
+				result[i]= candidates.get(i).fTemplate;
+			}
+			return result;
+		}
+
+		private static void addPrefixMatches(IndexedTemplate[] templates, String prefix, List<IndexedTemplate> result) {
+			int low= 0;
+			int high= templates.length;
+			while (low < high) {
+				int mid= (low + high) >>> 1;
+				if (templates[mid].fName.compareTo(prefix) < 0)
+					low= mid + 1;
+				else
+					high= mid;
+			}
+			for (int i= low; i < templates.length && templates[i].fName.startsWith(prefix); i++) {
+				result.add(templates[i]);
+			}
+		}
+	}
+
+	/**
+	 * The index of the templates of the template store, shared by all engines.
+	 * @since 3.11
+	 */
+	private static TemplateIndex fgTemplateIndex;
+
 	/** The context type. */
 	private TemplateContextType fContextType;
 	/** The result proposals. */
@@ -122,9 +256,8 @@ public class TemplateEngine {
 		int end= context.getEnd();
 		IRegion region= new Region(start, end - start);
 
-		Template[] templates= JavaPlugin.getDefault().getTemplateStore().getTemplates();
-
 		if (selection.y == 0) {
+			Template[] templates= getTemplateIndex().getCandidates(context);
 			for (int i= 0; i != templates.length; i++) {
 				Template template= templates[i];
 				if (context.canEvaluate(template)) {
@@ -133,8 +266,14 @@ public class TemplateEngine {
 			}
 		} else {
 
-			if (context.getKey().length() == 0)
+			Template[] templates;
+			if (context.getKey().length() == 0) {
 				context.setForceEvaluation(true);
+				// a forced context decides on its own which context types it accepts
+				templates= getTemplateIndex().getTemplates();
+			} else {
+				templates= getTemplateIndex().getCandidates(context);
+			}
 
 			boolean multipleLinesSelected= areMultipleLinesSelected(viewer);
 
@@ -149,6 +288,19 @@ public class TemplateEngine {
 		}
 	}
 
+	/**
+	 * Returns the index of the templates in the template store.
+	 *
+	 * @return the up to date template index
+	 * @since 3.11
+	 */
+	private static synchronized TemplateIndex getTemplateIndex() {
+		Template[] templates= JavaPlugin.getDefault().getTemplateStore().getTemplates();
+		if (fgTemplateIndex == null || !fgTemplateIndex.isIndexOf(templates))
+			fgTemplateIndex= new TemplateIndex(templates);
+		return fgTemplateIndex;
+	}
+
 	protected TemplateContextType getContextType() {
 		return fContextType;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,7 +13,10 @@ package org.eclipse.jdt.internal.ui.typehierarchy;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -53,6 +56,14 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
  */
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
+	/**
+	 * The maximal number of changed compilation units for which the hierarchy is refreshed
+	 * incrementally. Larger changes rebuild the viewers.
+	 * 
+	 * @since 3.11
+	 */
+	private static final int MAX_INCREMENTAL_UNITS= 200;
+
 	private boolean fHierarchyRefreshNeeded;
 	private ITypeHierarchy fHierarchy;
 	private IJavaElement[] fInputElements;
@@ -81,6 +92,23 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	private boolean fRefreshJobCanceledExplicitly= true;
 
+	/**
+	 * The compilation units that have changed since the hierarchy was last refreshed, or
+	 * <code>null</code> if the pending changes can not be handled by an incremental refresh (e.g.
+	 * a classpath change). Guarded by <code>this</code>.
+	 * 
+	 * @since 3.11
+	 */
+	private Set<ICompilationUnit> fPendingChangedUnits= new HashSet<ICompilationUnit>();
+
+	/**
+	 * The types affected by the last incremental refresh, or <code>null</code> if the last
+	 * refresh rebuilt the whole hierarchy.
+	 * 
+	 * @since 3.11
+	 */
+	private IType[] fLastAffectedTypes;
+
 	/**
 	 * Creates the type hierarchy life cycle.
 	 *
@@ -122,6 +150,8 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			fInputElements= null;
 		}
 		synchronized (this) {
+			fPendingChangedUnits= new HashSet<ICompilationUnit>();
+			fLastAffectedTypes= null;
 			if (fRefreshHierarchyJob != null) {
 				fRefreshHierarchyJob.cancel();
 				fRefreshHierarchyJob= null;
@@ -269,6 +299,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	protected void doHierarchyRefreshBackground(final IJavaElement[] elements, final IProgressMonitor pm) throws JavaModelException {
 		doHierarchyRefresh(elements, pm);
+		final IType[] affectedTypes= fLastAffectedTypes;
 		if (!pm.isCanceled()) {
 			Display.getDefault().asyncExec(new Runnable() {
 				/*
@@ -283,8 +314,13 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 					}
 					if (pm.isCanceled())
 						return;
-					fTypeHierarchyViewPart.setViewersInput();
-					fTypeHierarchyViewPart.updateViewers();
+					if (affectedTypes != null) {
+						// incremental refresh: keep the viewers and only update the affected subtrees
+						fTypeHierarchyViewPart.updateAffectedTypes(affectedTypes);
+					} else {
+						fTypeHierarchyViewPart.setViewersInput();
+						fTypeHierarchyViewPart.updateViewers();
+					}
 				}
 			});
 		}
@@ -326,12 +362,27 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			fHierarchy.removeTypeHierarchyChangedListener(this);
 			JavaCore.removeElementChangedListener(this);
 		}
+		Set<ICompilationUnit> changedUnits;
+		synchronized (this) {
+			changedUnits= fPendingChangedUnits;
+			fPendingChangedUnits= new HashSet<ICompilationUnit>();
+		}
+		fLastAffectedTypes= null;
 		if (hierachyCreationNeeded) {
 			fHierarchy= createTypeHierarchy(elements, pm);
 			if (pm != null && pm.isCanceled()) {
 				throw new OperationCanceledException();
 			}
 			fInputElements= elements;
+		} else if (changedUnits != null && !changedUnits.isEmpty()) {
+			// only compilation units changed: remember the affected subtrees so that the viewers don't need to be rebuilt
+			Set<IType> affectedTypes= new LinkedHashSet<IType>();
+			collectAffectedTypes(changedUnits, affectedTypes);
+			fHierarchy.refresh(pm);
+			if (pm != null && pm.isCanceled())
+				throw new OperationCanceledException();
+			collectAffectedTypes(changedUnits, affectedTypes);
+			fLastAffectedTypes= affectedTypes.toArray(new IType[affectedTypes.size()]);
 		} else {
 			fHierarchy.refresh(pm);
 			if (pm != null && pm.isCanceled())
@@ -342,6 +393,52 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		fHierarchyRefreshNeeded= false;
 	}
 
+	/**
+	 * Returns the types affected by the last refresh of the hierarchy.
+	 * 
+	 * @return the types whose super- or subtypes might have changed in the last refresh, or
+	 *         <code>null</code> if the last refresh rebuilt the whole hierarchy
+	 * @since 3.11
+	 */
+	public IType[] getLastAffectedTypes() {
+		return fLastAffectedTypes;
+	}
+
+	/**
+	 * Adds the types of the hierarchy that are declared in one of the given compilation units,
+	 * together with their direct super- and subtypes. For the added compilation units, the
+	 * declared types that are contained in the hierarchy are added as well.
+	 * 
+	 * @param changedUnits the changed compilation units
+	 * @param affectedTypes the set to add the affected types to
+	 * @throws JavaModelException if accessing the types of an added compilation unit fails
+	 */
+	private void collectAffectedTypes(Set<ICompilationUnit> changedUnits, Set<IType> affectedTypes) throws JavaModelException {
+		IType[] allTypes= fHierarchy.getAllTypes();
+		for (int i= 0; i < allTypes.length; i++) {
+			IType type= allTypes[i];
+			if (changedUnits.contains(type.getCompilationUnit())) {
+				addWithDirectRelatives(type, affectedTypes);
+			}
+		}
+		for (ICompilationUnit cu : changedUnits) {
+			if (cu.exists()) {
+				IType[] types= cu.getAllTypes();
+				for (int i= 0; i < types.length; i++) {
+					if (fHierarchy.contains(types[i])) {
+						addWithDirectRelatives(types[i], affectedTypes);
+					}
+				}
+			}
+		}
+	}
+
+	private void addWithDirectRelatives(IType type, Set<IType> affectedTypes) {
+		affectedTypes.add(type);
+		affectedTypes.addAll(Arrays.asList(fHierarchy.getSupertypes(type)));
+		affectedTypes.addAll(Arrays.asList(fHierarchy.getSubtypes(type)));
+	}
+
 	/*
 	 * @see ITypeHierarchyChangedListener#typeHierarchyChanged
 	 */
@@ -359,6 +456,12 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 
 		if (fHierarchyRefreshNeeded) {
+			synchronized (this) {
+				if (fPendingChangedUnits != null
+						&& (!collectChangedUnits(event.getDelta(), fPendingChangedUnits) || fPendingChangedUnits.size() > MAX_INCREMENTAL_UNITS)) {
+					fPendingChangedUnits= null; // full refresh required
+				}
+			}
 			return;
 		} else {
 			ArrayList<IType> changedTypes= new ArrayList<IType>();
@@ -417,6 +520,59 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	/**
+	 * Collects the primary compilation units that are changed, added or removed by the given
+	 * delta.
+	 * 
+	 * @param delta the Java element delta
+	 * @param changedUnits the set to add the changed compilation units to
+	 * @return <code>false</code> if the delta contains changes that can not be handled by an
+	 *         incremental refresh, like classpath changes, changes to binary types or added or
+	 *         removed package fragments, <code>true</code> otherwise
+	 * @since 3.11
+	 */
+	private boolean collectChangedUnits(IJavaElementDelta delta, Set<ICompilationUnit> changedUnits) {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return collectChangedUnitsOfChildren(delta, changedUnits);
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || isClasspathChange(delta.getFlags())) {
+					return false;
+				}
+				return collectChangedUnitsOfChildren(delta, changedUnits);
+			case IJavaElement.COMPILATION_UNIT:
+				ICompilationUnit cu= (ICompilationUnit) element;
+				if (JavaModelUtil.isPrimary(cu)) {
+					changedUnits.add(cu);
+				}
+				return true;
+			case IJavaElement.CLASS_FILE:
+				return false;
+			default:
+				return true;
+		}
+	}
+
+	private boolean collectChangedUnitsOfChildren(IJavaElementDelta delta, Set<ICompilationUnit> changedUnits) {
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!collectChangedUnits(children[i], changedUnits)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isClasspathChange(int flags) {
+		return (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+				| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+				| IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER
+				| IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0;
+	}
+
 	private boolean isPossibleStructuralChange(int flags) {
 		return (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT;
 	}
@@ -1600,6 +1600,10 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 				} catch (InterruptedException e) {
 					return;
 				}
+				if (fHierarchyLifeCycle.isRefreshJobRunning()) {
+					// the refresh job updates the viewers when it is done, see updateAffectedTypes
+					return;
+				}
 				fMethodsViewer.refresh();
 				updateHierarchyViewer(false);
 			} else {
@@ -1621,6 +1625,36 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 		}
 	}
 
+	/**
+	 * Updates the viewers after an incremental refresh of the hierarchy. Only the subtrees of the
+	 * given types are refreshed, the input and the expansion state of the viewers are kept.
+	 * 
+	 * @param affectedTypes the types whose super- or subtypes might have changed
+	 * @since 3.11
+	 */
+	public void updateAffectedTypes(IType[] affectedTypes) {
+		if (fInputElements == null || isDisposed())
+			return;
+		TypeHierarchyViewer viewer= getCurrentViewer();
+		boolean inputAffected= false;
+		for (int i= 0; i < fInputElements.length; i++) {
+			if (Arrays.asList(affectedTypes).contains(fInputElements[i])) {
+				inputAffected= true;
+				break;
+			}
+		}
+		if (inputAffected || viewer.containsElements() == null) {
+			// the root of the viewer might have changed
+			updateHierarchyViewer(false);
+		} else {
+			for (int i= 0; i < affectedTypes.length; i++) {
+				viewer.refresh(affectedTypes[i]);
+			}
+		}
+		fMethodsViewer.refresh();
+		updateToolTipAndDescription();
+	}
+
 	/*
 	 * @see IViewPart#init
 	 */
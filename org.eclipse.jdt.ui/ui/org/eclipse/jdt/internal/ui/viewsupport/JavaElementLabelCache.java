@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.viewsupport;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.jface.viewers.StyledString;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.ui.JavaElementLabels;
+
+/**
+ * Caches the labels and image descriptors of Java elements shown in viewers.
+ * <p>
+ * The cache is keyed by the element handle and the rendering flags. Entries are held weakly by
+ * their element, such that they are dropped once no viewer references the element anymore.
+ * Entries are invalidated when the element, one of its ancestors, or the appearance preferences
+ * change. The entries are grouped by their compilation unit or class file, so that a change
+ * inside a file only looks at the entries of that file. The groups are held weakly by their
+ * container as well, and are dropped when they become empty.
+ * </p>
+ *
+ * @since 3.11
+ */
+public class JavaElementLabelCache {
+
+	private static final int TEXT= 0;
+	private static final int STYLED_TEXT= 1;
+	private static final int IMAGE= 2;
+
+	/**
+	 * A cached value of an element. The values of an element form a linked list, since an element
+	 * is typically rendered with few different flags.
+	 */
+	private static final class Value {
+		final int fKind;
+		final long fFlags;
+		final Object fValue;
+		final Value fNext;
+
+		Value(int kind, long flags, Object value, Value next) {
+			fKind= kind;
+			fFlags= flags;
+			fValue= value;
+			fNext= next;
+		}
+	}
+
+	private final IElementChangedListener fElementChangedListener= new IElementChangedListener() {
+		public void elementChanged(ElementChangedEvent event) {
+			invalidate(event.getDelta());
+		}
+	};
+
+	private final IPropertyChangeListener fPropertyChangeListener= new IPropertyChangeListener() {
+		public void propertyChange(PropertyChangeEvent event) {
+			clear();
+		}
+	};
+
+	private IPreferenceStore fPreferenceStore;
+
+	// guarded by this
+	/**
+	 * Maps the container of an element, see {@link #getContainer(IJavaElement)}, to the values of
+	 * the elements in the container.
+	 */
+	private final Map<IJavaElement, Map<IJavaElement, Value>> fValues= new WeakHashMap<IJavaElement, Map<IJavaElement, Value>>();
+	private int fGeneration;
+	/** The number of values being computed. */
+	private int fComputing;
+
+	/**
+	 * Starts listening for changes of Java elements and of the given preference store.
+	 *
+	 * @param store the preference store with the appearance preferences
+	 */
+	public void install(IPreferenceStore store) {
+		fPreferenceStore= store;
+		fPreferenceStore.addPropertyChangeListener(fPropertyChangeListener);
+		JavaCore.addElementChangedListener(fElementChangedListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Stops listening for changes and clears the cache.
+	 */
+	public void dispose() {
+		JavaCore.removeElementChangedListener(fElementChangedListener);
+		if (fPreferenceStore != null) {
+			fPreferenceStore.removePropertyChangeListener(fPropertyChangeListener);
+			fPreferenceStore= null;
+		}
+		clear();
+	}
+
+	/**
+	 * Returns the label of a Java element, see {@link JavaElementLabels#getElementLabel(IJavaElement, long)}.
+	 *
+	 * @param element the element to render
+	 * @param flags the rendering flags
+	 * @return the label of the Java element
+	 */
+	public String getElementLabel(IJavaElement element, long flags) {
+		String label= (String) get(element, TEXT, flags);
+		if (label == null) {
+			int generation= startComputing();
+			try {
+				label= JavaElementLabels.getElementLabel(element, flags);
+			} finally {
+				endComputing(element, TEXT, flags, label, generation);
+			}
+		}
+		return label;
+	}
+
+	/**
+	 * Returns the styled label of a Java element, see
+	 * {@link JavaElementLabels#getStyledElementLabel(IJavaElement, long)}.
+	 *
+	 * @param element the element to render
+	 * @param flags the rendering flags
+	 * @return a new styled label of the Java element that can be modified by the caller
+	 */
+	public StyledString getStyledElementLabel(IJavaElement element, long flags) {
+		StyledString label= (StyledString) get(element, STYLED_TEXT, flags);
+		if (label == null) {
+			int generation= startComputing();
+			try {
+				label= JavaElementLabels.getStyledElementLabel(element, flags);
+			} finally {
+				endComputing(element, STYLED_TEXT, flags, label, generation);
+			}
+		}
+		return new StyledString().append(label);
+	}
+
+	/**
+	 * Returns the image descriptor of a Java element.
+	 *
+	 * @param provider the image provider that computes the descriptor if it is not cached
+	 * @param element the element to render
+	 * @param flags the image flags
+	 * @return the image descriptor of the Java element
+	 */
+	public ImageDescriptor getImageDescriptor(JavaElementImageProvider provider, IJavaElement element, int flags) {
+		ImageDescriptor descriptor= (ImageDescriptor) get(element, IMAGE, flags);
+		if (descriptor == null) {
+			int generation= startComputing();
+			try {
+				descriptor= provider.getJavaImageDescriptor(element, flags);
+			} finally {
+				endComputing(element, IMAGE, flags, descriptor, generation);
+			}
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Removes all cached labels and image descriptors.
+	 */
+	public synchronized void clear() {
+		fValues.clear();
+		fGeneration++;
+	}
+
+	private synchronized int startComputing() {
+		fComputing++;
+		return fGeneration;
+	}
+
+	/*
+	 * Values computed while the cache was invalidated are not stored, since they may already be stale.
+	 */
+	private synchronized void endComputing(IJavaElement element, int kind, long flags, Object value, int generation) {
+		fComputing--;
+		if (value == null || generation != fGeneration)
+			return;
+		IJavaElement container= getContainer(element);
+		Map<IJavaElement, Value> values= fValues.get(container);
+		if (values == null) {
+			values= new WeakHashMap<IJavaElement, Value>();
+			fValues.put(container, values);
+		}
+		values.put(element, new Value(kind, flags, value, values.get(element)));
+	}
+
+	private synchronized Object get(IJavaElement element, int kind, long flags) {
+		IJavaElement container= getContainer(element);
+		Map<IJavaElement, Value> values= fValues.get(container);
+		if (values == null)
+			return null;
+		if (values.isEmpty()) {
+			// all elements of the group have been garbage collected
+			fValues.remove(container);
+			return null;
+		}
+		for (Value value= values.get(element); value != null; value= value.fNext) {
+			if (value.fKind == kind && value.fFlags == flags)
+				return value.fValue;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the compilation unit or class file of an element, or the element itself if it is not
+	 * inside a file.
+	 *
+	 * @param element the element
+	 * @return the container of the element
+	 */
+	private static IJavaElement getContainer(IJavaElement element) {
+		IJavaElement container= element.getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (container == null)
+			container= element.getAncestor(IJavaElement.CLASS_FILE);
+		return container != null ? container : element;
+	}
+
+	private static boolean isAncestorOrSelf(Set<IJavaElement> ancestors, IJavaElement element) {
+		for (IJavaElement current= element; current != null; current= current.getParent()) {
+			if (ancestors.contains(current))
+				return true;
+		}
+		return false;
+	}
+
+	private void invalidate(IJavaElementDelta delta) {
+		Set<IJavaElement> changed= new HashSet<IJavaElement>();
+		Set<IJavaElement> changedWithDescendants= new HashSet<IJavaElement>();
+		collectChangedElements(delta, changed, changedWithDescendants);
+		if (changed.isEmpty() && changedWithDescendants.isEmpty())
+			return;
+
+		synchronized (this) {
+			boolean invalidated= false;
+			for (Iterator<IJavaElement> iter= changed.iterator(); iter.hasNext();) {
+				IJavaElement element= iter.next();
+				IJavaElement container= getContainer(element);
+				Map<IJavaElement, Value> values= fValues.get(container);
+				if (values != null) {
+					if (values.remove(element) != null)
+						invalidated= true;
+					if (values.isEmpty())
+						fValues.remove(container);
+				}
+			}
+			Set<IJavaElement> containers= new HashSet<IJavaElement>();
+			boolean aboveContainers= false;
+			for (Iterator<IJavaElement> iter= changedWithDescendants.iterator(); iter.hasNext();) {
+				IJavaElement element= iter.next();
+				IJavaElement container= getContainer(element);
+				if (container == element && element.getElementType() != IJavaElement.COMPILATION_UNIT && element.getElementType() != IJavaElement.CLASS_FILE)
+					aboveContainers= true;
+				else
+					containers.add(container);
+			}
+			if (aboveContainers) {
+				// a package, root or project changed: look at all containers
+				containers= new HashSet<IJavaElement>(fValues.keySet());
+			}
+			for (Iterator<IJavaElement> iter= containers.iterator(); iter.hasNext();) {
+				IJavaElement container= iter.next();
+				Map<IJavaElement, Value> values= fValues.get(container);
+				if (values == null)
+					continue;
+				if (isAncestorOrSelf(changedWithDescendants, container)) {
+					invalidated|= !values.isEmpty();
+					fValues.remove(container);
+					continue;
+				}
+				for (Iterator<IJavaElement> elements= values.keySet().iterator(); elements.hasNext();) {
+					if (isAncestorOrSelf(changedWithDescendants, elements.next())) {
+						elements.remove();
+						invalidated= true;
+					}
+				}
+				if (values.isEmpty())
+					fValues.remove(container);
+			}
+			// values being computed may be based on the old state of the changed elements
+			if (invalidated || fComputing > 0)
+				fGeneration++;
+		}
+	}
+
+	/*
+	 * The label and the image of an element whose children changed can change as well, for example
+	 * the image of an empty package or of a type with a main method. The labels and images of the
+	 * descendants of an element only change if the element itself changes. A content change of a
+	 * member is only ignored if it is fine-grained, i.e. limited to the reported child deltas. A
+	 * member content change without details can be a change of a return type, a field type or the
+	 * type parameters, which are part of the label.
+	 */
+	private static void collectChangedElements(IJavaElementDelta delta, Set<IJavaElement> changed, Set<IJavaElement> changedWithDescendants) {
+		IJavaElement element= delta.getElement();
+		boolean isMember= element instanceof IMember;
+		int flags= delta.getFlags() & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED);
+		if ((delta.getFlags() & IJavaElementDelta.F_FINE_GRAINED) != 0)
+			flags&= ~IJavaElementDelta.F_CONTENT; // the changed children are reported by their own deltas
+		if (delta.getKind() == IJavaElementDelta.CHANGED && flags == 0) {
+			if (!isMember || (delta.getFlags() & IJavaElementDelta.F_CHILDREN) != 0)
+				changed.add(element);
+		} else {
+			changedWithDescendants.add(element);
+		}
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			collectChangedElements(children[i], changed, changedWithDescendants);
+		}
+	}
+}
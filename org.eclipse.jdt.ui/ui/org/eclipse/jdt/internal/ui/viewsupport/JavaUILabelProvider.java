@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,8 +30,12 @@ import org.eclipse.jface.viewers.StyledCellLabelProvider;
 import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider.IStyledLabelProvider;
 
+import org.eclipse.jdt.core.IJavaElement;
+
 import org.eclipse.jdt.ui.JavaElementLabels;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 public class JavaUILabelProvider implements ILabelProvider, IColorProvider, IStyledLabelProvider {
 
 	protected ListenerList fListeners = new ListenerList();
@@ -167,7 +171,11 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 	 * @see ILabelProvider#getText
 	 */
 	public String getText(Object element) {
-		String result= JavaElementLabels.getTextLabel(element, evaluateTextFlags(element));
+		String result;
+		if (element instanceof IJavaElement)
+			result= JavaPlugin.getDefault().getJavaElementLabelCache().getElementLabel((IJavaElement) element, evaluateTextFlags(element));
+		else
+			result= JavaElementLabels.getTextLabel(element, evaluateTextFlags(element));
 		if (result.length() == 0 && (element instanceof IStorage)) {
 			result= fStorageLabelProvider.getText(element);
 		}
@@ -175,7 +183,11 @@ public class JavaUILabelProvider implements ILabelProvider, IColorProvider, ISty
 	}
 
 	public StyledString getStyledText(Object element) {
-		StyledString string= JavaElementLabels.getStyledTextLabel(element, (evaluateTextFlags(element) | JavaElementLabels.COLORIZE));
+		StyledString string;
+		if (element instanceof IJavaElement)
+			string= JavaPlugin.getDefault().getJavaElementLabelCache().getStyledElementLabel((IJavaElement) element, evaluateTextFlags(element) | JavaElementLabels.COLORIZE);
+		else
+			string= JavaElementLabels.getStyledTextLabel(element, (evaluateTextFlags(element) | JavaElementLabels.COLORIZE));
 		if (string.length() == 0 && (element instanceof IStorage)) {
 			string= new StyledString(fStorageLabelProvider.getText(element));
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,14 +10,17 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.viewsupport;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
@@ -44,9 +47,42 @@ import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 
 /**
  * Infrastructure to share an AST for editor post selection listeners.
+ * <p>
+ * Each editor has one job that informs its listeners. Post selection events that arrive while the
+ * job is waiting replace the pending selection, such that only the latest selection is reported.
+ * All listeners of an editor get the same AST and are informed in the order of their priority. A
+ * listener that is still busy with a previous selection of another editor is skipped and informed
+ * again once the job has informed the other listeners.
+ * </p>
  */
 public class SelectionListenerWithASTManager {
 
+	/**
+	 * Priority of listeners that update the editor, for example the occurrence annotations.
+	 * @since 3.11
+	 */
+	public static final int PRIORITY_EDITOR= 20;
+
+	/**
+	 * Default priority of listeners.
+	 * @since 3.11
+	 */
+	public static final int PRIORITY_DEFAULT= 10;
+
+	/**
+	 * Priority of listeners that update views linked with the editor.
+	 * @since 3.11
+	 */
+	public static final int PRIORITY_VIEW= 0;
+
+	/**
+	 * Delay in milliseconds to wait for further post selection events before the listeners are
+	 * informed.
+	 */
+	private static final long DELAY= 50;
+
+	private static final String PERF_SELECTION_LISTENER= "org.eclipse.jdt.ui/perf/selection_listener_with_ast/listeners"; //$NON-NLS-1$
+
 	private static SelectionListenerWithASTManager fgDefault;
 
 	/**
@@ -60,22 +96,33 @@ public class SelectionListenerWithASTManager {
 	}
 
 
-	private final static class PartListenerGroup {
+	private static final class ListenerEntry {
+		public final ISelectionListenerWithAST fListener;
+		public final int fPriority;
+
+		public ListenerEntry(ISelectionListenerWithAST listener, int priority) {
+			fListener= listener;
+			fPriority= priority;
+		}
+	}
+
+	private final class PartListenerGroup {
 		private ITextEditor fPart;
 		private ISelectionListener fPostSelectionListener;
 		private ISelectionChangedListener fSelectionListener;
-		private Job fCurrentJob;
-		private ListenerList fAstListeners;
-		/**
-		 * Lock to avoid having more than one calculateAndInform job in parallel.
-		 * Only jobs may synchronize on this as otherwise deadlocks are possible.
-		 */
-		private final Object fJobLock= new Object();
+		private final Job fJob;
+
+		// guarded by this
+		private ListenerEntry[] fAstListeners;
+		private ITypeRoot fPendingInput;
+		private ITextSelection fPendingSelection;
+		private long fPendingTime;
+		/** The listeners to inform about the pending selection, or <code>null</code> for all listeners */
+		private ListenerEntry[] fPendingListeners;
 
 		public PartListenerGroup(ITextEditor editorPart) {
 			fPart= editorPart;
-			fCurrentJob= null;
-			fAstListeners= new ListenerList(ListenerList.IDENTITY);
+			fAstListeners= new ListenerEntry[0];
 
 			fSelectionListener= new ISelectionChangedListener() {
 				public void selectionChanged(SelectionChangedEvent event) {
@@ -92,29 +139,61 @@ public class SelectionListenerWithASTManager {
 						firePostSelectionChanged((ITextSelection) selection);
 				}
 			};
+
+			fJob= new Job(JavaUIMessages.SelectionListenerWithASTManager_job_title) {
+				@Override
+				public IStatus run(IProgressMonitor monitor) {
+					if (monitor == null) {
+						monitor= new NullProgressMonitor();
+					}
+					return calculateASTandInform(monitor);
+				}
+			};
+			fJob.setPriority(Job.DECORATE);
+			fJob.setSystem(true);
 		}
 
-		public boolean isEmpty() {
-			return fAstListeners.isEmpty();
+		public synchronized boolean isEmpty() {
+			return fAstListeners.length == 0;
 		}
 
-		public void install(ISelectionListenerWithAST listener) {
+		public void install(ISelectionListenerWithAST listener, int priority) {
 			if (isEmpty()) {
 				fPart.getEditorSite().getPage().addPostSelectionListener(fPostSelectionListener);
 				ISelectionProvider selectionProvider= fPart.getSelectionProvider();
 				if (selectionProvider != null)
 						selectionProvider.addSelectionChangedListener(fSelectionListener);
 			}
-			fAstListeners.add(listener);
+			synchronized (this) {
+				List<ListenerEntry> listeners= new ArrayList<ListenerEntry>(fAstListeners.length + 1);
+				for (int i= 0; i < fAstListeners.length; i++) {
+					if (fAstListeners[i].fListener != listener)
+						listeners.add(fAstListeners[i]);
+				}
+				// keep the registration order of listeners with the same priority
+				int index= 0;
+				while (index < listeners.size() && listeners.get(index).fPriority >= priority)
+					index++;
+				listeners.add(index, new ListenerEntry(listener, priority));
+				fAstListeners= listeners.toArray(new ListenerEntry[listeners.size()]);
+			}
 		}
 
 		public void uninstall(ISelectionListenerWithAST listener) {
-			fAstListeners.remove(listener);
+			synchronized (this) {
+				List<ListenerEntry> listeners= new ArrayList<ListenerEntry>(fAstListeners.length);
+				for (int i= 0; i < fAstListeners.length; i++) {
+					if (fAstListeners[i].fListener != listener)
+						listeners.add(fAstListeners[i]);
+				}
+				fAstListeners= listeners.toArray(new ListenerEntry[listeners.size()]);
+			}
 			if (isEmpty()) {
 				fPart.getEditorSite().getPage().removePostSelectionListener(fPostSelectionListener);
 				ISelectionProvider selectionProvider= fPart.getSelectionProvider();
 				if (selectionProvider != null)
 					selectionProvider.removeSelectionChangedListener(fSelectionListener);
+				fJob.cancel();
 			}
 		}
 
@@ -124,9 +203,7 @@ public class SelectionListenerWithASTManager {
 		 * @param selection the selection
 		 */
 		public void fireSelectionChanged(final ITextSelection selection) {
-			if (fCurrentJob != null) {
-				fCurrentJob.cancel();
-			}
+			fJob.cancel();
 		}
 
 		/**
@@ -135,33 +212,39 @@ public class SelectionListenerWithASTManager {
 		 * @param selection the selection
 		 */
 		public void firePostSelectionChanged(final ITextSelection selection) {
-			if (fCurrentJob != null) {
-				fCurrentJob.cancel();
-			}
+			fJob.cancel();
 			IJavaElement input= EditorUtility.getEditorInputJavaElement(fPart, false);
 			if (!(input instanceof ITypeRoot)) {
 				return;
 			}
-			final ITypeRoot typeRoot= (ITypeRoot) input;
-
 
-			fCurrentJob= new Job(JavaUIMessages.SelectionListenerWithASTManager_job_title) {
-				@Override
-				public IStatus run(IProgressMonitor monitor) {
-					if (monitor == null) {
-						monitor= new NullProgressMonitor();
-					}
-					synchronized (fJobLock) {
-						return calculateASTandInform(typeRoot, selection, monitor);
-					}
-				}
-			};
-			fCurrentJob.setPriority(Job.DECORATE);
-			fCurrentJob.setSystem(true);
-			fCurrentJob.schedule();
+			synchronized (this) {
+				fPendingInput= (ITypeRoot) input;
+				fPendingSelection= selection;
+				fPendingTime= System.currentTimeMillis();
+				fPendingListeners= null;
+			}
+			// a waiting job is restarted with the delay, a running job is rescheduled when it is done
+			fJob.schedule(DELAY);
 		}
 
-		protected final IStatus calculateASTandInform(ITypeRoot input, ITextSelection selection, IProgressMonitor monitor) {
+		protected final IStatus calculateASTandInform(IProgressMonitor monitor) {
+			ITypeRoot input;
+			ITextSelection selection;
+			long time;
+			ListenerEntry[] listeners;
+			synchronized (this) {
+				input= fPendingInput;
+				selection= fPendingSelection;
+				time= fPendingTime;
+				listeners= fPendingListeners != null ? fPendingListeners : fAstListeners;
+				fPendingInput= null;
+				fPendingSelection= null;
+				fPendingListeners= null;
+			}
+			if (input == null) {
+				return Status.OK_STATUS;
+			}
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
@@ -170,16 +253,29 @@ public class SelectionListenerWithASTManager {
 				CompilationUnit astRoot= SharedASTProvider.getAST(input, SharedASTProvider.WAIT_ACTIVE_ONLY, monitor);
 
 				if (astRoot != null && !monitor.isCanceled()) {
-					Object[] listeners;
-					synchronized (PartListenerGroup.this) {
-						listeners= fAstListeners.getListeners();
-					}
+					List<ListenerEntry> skipped= null;
 					for (int i= 0; i < listeners.length; i++) {
-						((ISelectionListenerWithAST) listeners[i]).selectionChanged(fPart, selection, astRoot);
+						ISelectionListenerWithAST listener= listeners[i].fListener;
+						if (!startInvocation(listener, time)) {
+							if (skipped == null)
+								skipped= new ArrayList<ListenerEntry>();
+							skipped.add(listeners[i]);
+							continue;
+						}
+						PerformanceStats stats= PerformanceStats.getStats(PERF_SELECTION_LISTENER, listener);
+						stats.startRun();
+						try {
+							listener.selectionChanged(fPart, selection, astRoot);
+						} finally {
+							stats.endRun();
+							endInvocation(listener);
+						}
 						if (monitor.isCanceled()) {
 							return Status.CANCEL_STATUS;
 						}
 					}
+					if (skipped != null)
+						informLater(input, selection, time, skipped);
 					return Status.OK_STATUS;
 				}
 			} catch (OperationCanceledException e) {
@@ -187,28 +283,69 @@ public class SelectionListenerWithASTManager {
 			}
 			return Status.CANCEL_STATUS;
 		}
+
+		/**
+		 * Informs the skipped listeners about the selection unless a newer selection is pending.
+		 *
+		 * @param input the input of the editor
+		 * @param selection the selection
+		 * @param time the time of the post selection event
+		 * @param skipped the skipped listeners
+		 */
+		private void informLater(ITypeRoot input, ITextSelection selection, long time, List<ListenerEntry> skipped) {
+			synchronized (this) {
+				if (fPendingInput != null)
+					return;
+				fPendingInput= input;
+				fPendingSelection= selection;
+				fPendingTime= time;
+				fPendingListeners= skipped.toArray(new ListenerEntry[skipped.size()]);
+			}
+			fJob.schedule(DELAY);
+		}
 	}
 
 
 	private Map<ITextEditor, PartListenerGroup> fListenerGroups;
 
+	/**
+	 * The listeners that are currently informed, guarded by itself. Also guards the statistics.
+	 */
+	private final Map<ISelectionListenerWithAST, Boolean> fRunningListeners;
+	private long fInvocationCount;
+	private long fSkipCount;
+	private long fTotalLatency;
+
 	private SelectionListenerWithASTManager() {
 		fListenerGroups= new HashMap<ITextEditor, PartListenerGroup>();
+		fRunningListeners= new IdentityHashMap<ISelectionListenerWithAST, Boolean>();
 	}
 
 	/**
-	 * Registers a selection listener for the given editor part.
+	 * Registers a selection listener for the given editor part with the default priority.
 	 * @param part The editor part to listen to.
 	 * @param listener The listener to register.
 	 */
 	public void addListener(ITextEditor part, ISelectionListenerWithAST listener) {
+		addListener(part, listener, PRIORITY_DEFAULT);
+	}
+
+	/**
+	 * Registers a selection listener for the given editor part. Listeners with a higher priority
+	 * are informed first.
+	 * @param part The editor part to listen to.
+	 * @param listener The listener to register.
+	 * @param priority The priority of the listener, for example {@link #PRIORITY_EDITOR}.
+	 * @since 3.11
+	 */
+	public void addListener(ITextEditor part, ISelectionListenerWithAST listener, int priority) {
 		synchronized (this) {
 			PartListenerGroup partListener= fListenerGroups.get(part);
 			if (partListener == null) {
 				partListener= new PartListenerGroup(part);
 				fListenerGroups.put(part, partListener);
 			}
-			partListener.install(listener);
+			partListener.install(listener, priority);
 		}
 	}
 
@@ -228,4 +365,60 @@ public class SelectionListenerWithASTManager {
 			}
 		}
 	}
+
+	/**
+	 * Returns the number of times listeners have been informed.
+	 *
+	 * @return the number of invocations
+	 * @since 3.11
+	 */
+	public long getInvocationCount() {
+		synchronized (fRunningListeners) {
+			return fInvocationCount;
+		}
+	}
+
+	/**
+	 * Returns the number of times listeners have been skipped because they were still busy with a
+	 * previous selection.
+	 *
+	 * @return the number of skipped invocations
+	 * @since 3.11
+	 */
+	public long getSkipCount() {
+		synchronized (fRunningListeners) {
+			return fSkipCount;
+		}
+	}
+
+	/**
+	 * Returns the average time between a post selection event and the invocation of a listener.
+	 *
+	 * @return the average latency in milliseconds
+	 * @since 3.11
+	 */
+	public long getAverageLatency() {
+		synchronized (fRunningListeners) {
+			return fInvocationCount == 0 ? 0 : fTotalLatency / fInvocationCount;
+		}
+	}
+
+	private boolean startInvocation(ISelectionListenerWithAST listener, long selectionTime) {
+		synchronized (fRunningListeners) {
+			if (fRunningListeners.containsKey(listener)) {
+				fSkipCount++;
+				return false;
+			}
+			fRunningListeners.put(listener, Boolean.TRUE);
+			fInvocationCount++;
+			fTotalLatency+= System.currentTimeMillis() - selectionTime;
+			return true;
+		}
+	}
+
+	private void endInvocation(ISelectionListenerWithAST listener) {
+		synchronized (fRunningListeners) {
+			fRunningListeners.remove(listener);
+		}
+	}
 }
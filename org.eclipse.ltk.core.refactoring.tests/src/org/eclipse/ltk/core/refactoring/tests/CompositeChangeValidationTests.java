@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.text.edits.InsertEdit;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
+
+public class CompositeChangeValidationTests extends TestCase {
+
+	private static final int FILES_PER_FOLDER= 50;
+
+	private static class ValidationChange extends Change {
+
+		private final RefactoringStatus fStatus;
+		private final boolean fThrow;
+
+		public ValidationChange(RefactoringStatus status, boolean throwException) {
+			fStatus= status;
+			fThrow= throwException;
+		}
+
+		public String getName() {
+			return "Validation change";
+		}
+
+		public void initializeValidationData(IProgressMonitor pm) {
+		}
+
+		public RefactoringStatus isValid(IProgressMonitor pm) throws CoreException {
+			if (fThrow)
+				throw new CoreException(new Status(IStatus.ERROR, RefactoringCoreTestPlugin.getPluginId(), "validation failed"));
+			return fStatus;
+		}
+
+		public Change perform(IProgressMonitor pm) throws CoreException {
+			return null;
+		}
+
+		public Object getModifiedElement() {
+			return null;
+		}
+	}
+
+	private SimpleTestProject fProject;
+
+	protected void setUp() throws Exception {
+		fProject= new SimpleTestProject();
+	}
+
+	protected void tearDown() throws Exception {
+		setParallelValidation(true);
+		fProject.delete();
+	}
+
+	private void setParallelValidation(boolean enabled) throws Exception {
+		IEclipsePreferences preferences= new InstanceScope().getNode(RefactoringCorePlugin.getPluginId());
+		preferences.putBoolean(RefactoringPreferenceConstants.PREFERENCE_PARALLEL_CHANGE_VALIDATION, enabled);
+	}
+
+	private IFile[] createFiles(final int count) throws CoreException {
+		final IFile[] files= new IFile[count];
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				IFolder folder= null;
+				for (int i= 0; i < count; i++) {
+					if (i % FILES_PER_FOLDER == 0)
+						folder= fProject.createFolder("folder" + i / FILES_PER_FOLDER);
+					files[i]= fProject.createFile(folder, "file" + i + ".txt", "content of file " + i);
+				}
+			}
+		}, null);
+		return files;
+	}
+
+	/*
+	 * Creates a change tree with one nested composite change per folder.
+	 */
+	private CompositeChange createChange(IFile[] files) {
+		CompositeChange result= new CompositeChange("root");
+		CompositeChange folderChange= null;
+		for (int i= 0; i < files.length; i++) {
+			if (i % FILES_PER_FOLDER == 0) {
+				folderChange= new CompositeChange("folder");
+				result.add(folderChange);
+			}
+			TextFileChange change= new TextFileChange("change", files[i]);
+			change.setEdit(new InsertEdit(0, "new "));
+			folderChange.add(change);
+		}
+		return result;
+	}
+
+	private RefactoringStatus validate(Change change, boolean parallel) throws Exception {
+		setParallelValidation(parallel);
+		return change.isValid(new NullProgressMonitor());
+	}
+
+	private static void assertEqualStatus(RefactoringStatus expected, RefactoringStatus actual) {
+		assertEquals(expected.getSeverity(), actual.getSeverity());
+		RefactoringStatusEntry[] expectedEntries= expected.getEntries();
+		RefactoringStatusEntry[] actualEntries= actual.getEntries();
+		assertEquals(expectedEntries.length, actualEntries.length);
+		for (int i= 0; i < expectedEntries.length; i++) {
+			assertEquals(expectedEntries[i].getSeverity(), actualEntries[i].getSeverity());
+			assertEquals(expectedEntries[i].getMessage(), actualEntries[i].getMessage());
+		}
+	}
+
+	public void testValidChanges() throws Exception {
+		CompositeChange change= createChange(createFiles(200));
+		change.add(new ValidationChange(RefactoringStatus.createWarningStatus("warning"), false));
+		change.initializeValidationData(new NullProgressMonitor());
+		try {
+			RefactoringStatus sequential= validate(change, false);
+			RefactoringStatus parallel= validate(change, true);
+			assertTrue(sequential.hasWarning());
+			assertEqualStatus(sequential, parallel);
+		} finally {
+			change.dispose();
+		}
+	}
+
+	public void testFirstFatalError() throws Exception {
+		IFile[] files= createFiles(200);
+		CompositeChange change= createChange(files);
+		change.initializeValidationData(new NullProgressMonitor());
+		try {
+			files[170].setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+			files[80].setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+
+			RefactoringStatus sequential= validate(change, false);
+			RefactoringStatus parallel= validate(change, true);
+			assertTrue(sequential.hasFatalError());
+			assertEquals(1, sequential.getEntries().length);
+			assertTrue(sequential.getEntryWithHighestSeverity().getMessage().indexOf(files[80].getName()) != -1);
+			assertEqualStatus(sequential, parallel);
+		} finally {
+			change.dispose();
+		}
+	}
+
+	public void testDisabledChanges() throws Exception {
+		IFile[] files= createFiles(200);
+		CompositeChange change= createChange(files);
+		change.initializeValidationData(new NullProgressMonitor());
+		try {
+			files[10].delete(true, null);
+			change.getChildren()[0].setEnabled(false);
+
+			RefactoringStatus sequential= validate(change, false);
+			RefactoringStatus parallel= validate(change, true);
+			assertTrue(sequential.isOK());
+			assertEqualStatus(sequential, parallel);
+		} finally {
+			change.dispose();
+		}
+	}
+
+	public void testException() throws Exception {
+		CompositeChange change= createChange(createFiles(200));
+		change.add(new ValidationChange(null, true));
+		change.initializeValidationData(new NullProgressMonitor());
+		try {
+			setParallelValidation(true);
+			change.isValid(new NullProgressMonitor());
+			fail("exception expected");
+		} catch (CoreException e) {
+			assertEquals("validation failed", e.getMessage());
+		} finally {
+			change.dispose();
+		}
+	}
+
+	public void testUndoChanges() throws Exception {
+		IFile[] files= createFiles(200);
+		CompositeChange change= createChange(files);
+		change.initializeValidationData(new NullProgressMonitor());
+		Change undo= null;
+		try {
+			undo= change.perform(new NullProgressMonitor());
+			undo.initializeValidationData(new NullProgressMonitor());
+			RefactoringStatus sequential= validate(undo, false);
+			assertTrue(sequential.isOK());
+			assertEqualStatus(sequential, validate(undo, true));
+		} finally {
+			change.dispose();
+			if (undo != null)
+				undo.dispose();
+		}
+	}
+}
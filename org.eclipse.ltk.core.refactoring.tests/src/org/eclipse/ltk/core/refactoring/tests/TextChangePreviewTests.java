@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEditGroup;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Region;
+
+import org.eclipse.ltk.core.refactoring.DocumentChange;
+import org.eclipse.ltk.core.refactoring.TextEditChangeGroup;
+
+public class TextChangePreviewTests extends TestCase {
+
+	private IDocument fDocument;
+	private DocumentChange fChange;
+	private TextEditChangeGroup fFirstGroup;
+	private TextEditChangeGroup fSecondGroup;
+
+	protected void setUp() throws Exception {
+		fDocument= new Document("first second third");
+		fChange= new DocumentChange("change", fDocument);
+		MultiTextEdit root= new MultiTextEdit();
+		fChange.setEdit(root);
+
+		ReplaceEdit first= new ReplaceEdit(0, 5, "1st");
+		root.addChild(first);
+		fFirstGroup= new TextEditChangeGroup(fChange, new TextEditGroup("first", first));
+		fChange.addTextEditChangeGroup(fFirstGroup);
+
+		ReplaceEdit second= new ReplaceEdit(6, 6, "2nd");
+		root.addChild(second);
+		fSecondGroup= new TextEditChangeGroup(fChange, new TextEditGroup("second", second));
+		fChange.addTextEditChangeGroup(fSecondGroup);
+	}
+
+	public void testPreviewContent() throws Exception {
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+
+		IDocument preview= fChange.getPreviewDocument(null);
+		preview.replace(0, preview.getLength(), "modified");
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+	}
+
+	public void testEnablement() throws Exception {
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		fSecondGroup.setEnabled(false);
+		assertEquals("1st second third", fChange.getPreviewContent(null));
+		fSecondGroup.setEnabled(true);
+		fFirstGroup.setEnabled(false);
+		assertEquals("first 2nd third", fChange.getPreviewContent(null));
+	}
+
+	public void testCurrentContentChanged() throws Exception {
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		fDocument.replace(13, 5, "3rd--");
+		assertEquals("1st 2nd 3rd--", fChange.getPreviewContent(null));
+	}
+
+	public void testEditAdded() throws Exception {
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		fChange.addEdit(new ReplaceEdit(13, 5, "3rd"));
+		assertEquals("1st 2nd 3rd", fChange.getPreviewContent(null));
+	}
+
+	public void testNestedEditAdded() throws Exception {
+		MultiTextEdit nested= new MultiTextEdit();
+		nested.addChild(new ReplaceEdit(13, 1, "T"));
+		nested.addChild(new ReplaceEdit(17, 1, "D"));
+		fChange.addEdit(nested);
+		assertEquals("1st 2nd ThirD", fChange.getPreviewContent(null));
+
+		// the root edit keeps its range and children
+		nested.addChild(new ReplaceEdit(15, 1, "I"));
+		assertEquals("1st 2nd ThIrD", fChange.getPreviewContent(null));
+	}
+
+	public void testDispose() throws Exception {
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		fChange.dispose();
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		fSecondGroup.setEnabled(false);
+		assertEquals("1st second third", fChange.getPreviewContent(null));
+	}
+
+	public void testRegionPreview() throws Exception {
+		TextEditChangeGroup[] groups= new TextEditChangeGroup[] { fSecondGroup };
+		Region region= new Region(6, 6);
+		assertEquals("2nd", fChange.getPreviewContent(groups, region, false, 0, null));
+		assertEquals("first 2nd third", fChange.getPreviewContent(groups, region, true, 0, null));
+		assertEquals("1st 2nd third", fChange.getPreviewContent(null));
+		assertEquals("2nd", fChange.getPreviewContent(groups, region, false, 0, null));
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+
+import org.eclipse.text.edits.ReplaceEdit;
+
+import org.eclipse.ltk.core.refactoring.PerformChangeOperation;
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
+import org.eclipse.ltk.internal.core.refactoring.UndoManager2;
+
+public class UndoManagerMemoryTests extends TestCase {
+
+	private static final int CONTENT_LENGTH= 10000;
+
+	private SimpleTestProject fProject;
+	private IFolder fFolder;
+	private UndoManager2 fUndoManager;
+
+	protected void setUp() throws Exception {
+		fProject= new SimpleTestProject();
+		fFolder= fProject.createFolder("folder");
+		fUndoManager= (UndoManager2) RefactoringCore.getUndoManager();
+		fUndoManager.flush();
+	}
+
+	protected void tearDown() throws Exception {
+		getPreferences().remove(RefactoringPreferenceConstants.PREFERENCE_UNDO_MEMORY_BUDGET);
+		fUndoManager.flush();
+		fProject.delete();
+	}
+
+	private IEclipsePreferences getPreferences() {
+		return new InstanceScope().getNode(RefactoringCorePlugin.getPluginId());
+	}
+
+	private void performChange(int number) throws CoreException {
+		StringBuffer content= new StringBuffer(CONTENT_LENGTH);
+		for (int i= 0; i < CONTENT_LENGTH; i++) {
+			content.append((char) ('a' + i % 26));
+		}
+		IFile file= fProject.createFile(fFolder, "file" + number + ".txt", content.toString());
+
+		TextFileChange change= new TextFileChange("change " + number, file);
+		change.setEdit(new ReplaceEdit(0, CONTENT_LENGTH, "replaced"));
+		change.initializeValidationData(null);
+		PerformChangeOperation operation= new PerformChangeOperation(change);
+		operation.setUndoManager(fUndoManager, change.getName());
+		operation.run(null);
+		assertTrue(operation.changeExecuted());
+	}
+
+	public void testMemoryUsage() throws Exception {
+		assertEquals(0, fUndoManager.getUndoMemoryUsage());
+		performChange(0);
+		long usage= fUndoManager.getUndoMemoryUsage();
+		assertTrue(usage >= 2 * CONTENT_LENGTH);
+
+		performChange(1);
+		assertEquals(2 * usage, fUndoManager.getUndoMemoryUsage());
+
+		fUndoManager.performUndo(null, null);
+		assertTrue(fUndoManager.testHasNumberOfUndos(1));
+		assertTrue(fUndoManager.testHasNumberOfRedos(1));
+		assertTrue(fUndoManager.getUndoMemoryUsage() > usage);
+
+		fUndoManager.flush();
+		assertEquals(0, fUndoManager.getUndoMemoryUsage());
+	}
+
+	public void testMemoryBudget() throws Exception {
+		getPreferences().putLong(RefactoringPreferenceConstants.PREFERENCE_UNDO_MEMORY_BUDGET, 0);
+		for (int i= 0; i < 5; i++) {
+			performChange(i);
+		}
+		assertTrue(fUndoManager.testHasNumberOfUndos(5));
+		long usagePerChange= fUndoManager.getUndoMemoryUsage() / 5;
+
+		long budget= usagePerChange * 5 / 2;
+		getPreferences().putLong(RefactoringPreferenceConstants.PREFERENCE_UNDO_MEMORY_BUDGET, budget);
+		performChange(5);
+		assertTrue(fUndoManager.testHasNumberOfUndos(2));
+		assertTrue(fUndoManager.getUndoMemoryUsage() <= budget);
+		assertEquals("change 5", fUndoManager.peekUndoName());
+
+		// the most recent undo is kept even if it exceeds the budget
+		getPreferences().putLong(RefactoringPreferenceConstants.PREFERENCE_UNDO_MEMORY_BUDGET, 1);
+		performChange(6);
+		assertTrue(fUndoManager.testHasNumberOfUndos(1));
+		assertEquals("change 6", fUndoManager.peekUndoName());
+	}
+}
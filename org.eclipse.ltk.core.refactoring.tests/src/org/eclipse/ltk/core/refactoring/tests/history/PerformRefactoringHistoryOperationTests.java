@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.ltk.core.refactoring.PerformRefactoringHistoryOperation;
+import org.eclipse.ltk.core.refactoring.Refactoring;
+import org.eclipse.ltk.core.refactoring.RefactoringContext;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptorProxy;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringDescriptorProxyAdapter;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryImplementation;
+
+public class PerformRefactoringHistoryOperationTests extends TestCase {
+
+	private static class RecordingOperation extends PerformRefactoringHistoryOperation {
+
+		private final List fPerformed= new ArrayList();
+		private final String fFailing;
+
+		public RecordingOperation(RefactoringDescriptorProxy[] proxies, String failing) {
+			super(new RefactoringHistoryImplementation(proxies));
+			fFailing= failing;
+		}
+
+		protected RefactoringContext createRefactoringContext(RefactoringDescriptor descriptor, RefactoringStatus status, IProgressMonitor monitor) throws CoreException {
+			if (descriptor.getDescription().equals(fFailing)) {
+				status.merge(RefactoringStatus.createFatalErrorStatus("failed"));
+				return null;
+			}
+			return super.createRefactoringContext(descriptor, status, monitor);
+		}
+
+		protected RefactoringStatus aboutToPerformRefactoring(Refactoring refactoring, RefactoringDescriptor descriptor, IProgressMonitor monitor) {
+			fPerformed.add(descriptor.getDescription());
+			return super.aboutToPerformRefactoring(refactoring, descriptor, monitor);
+		}
+	}
+
+	private RefactoringDescriptorProxy[] createProxies() {
+		String[] projects= { "P1", "P2", "P2", "P3", "P4", null };
+		int[] flags= { RefactoringDescriptor.NONE, RefactoringDescriptor.BREAKING_CHANGE, RefactoringDescriptor.NONE, RefactoringDescriptor.NONE, RefactoringDescriptor.MULTI_CHANGE, RefactoringDescriptor.NONE };
+		RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[projects.length];
+		for (int index= 0; index < proxies.length; index++) {
+			MockRefactoringDescriptor descriptor= new MockRefactoringDescriptor(projects[index], "step " + index, null, flags[index]);
+			// the history is sorted by descending time stamps
+			descriptor.setTimeStamp(proxies.length - index);
+			proxies[index]= new RefactoringDescriptorProxyAdapter(descriptor);
+		}
+		return proxies;
+	}
+
+	public void testPerformHistory() throws Exception {
+		RecordingOperation operation= new RecordingOperation(createProxies(), null);
+		operation.run(new NullProgressMonitor());
+		assertTrue(operation.getExecutionStatus().isOK());
+
+		List performed= operation.fPerformed;
+		assertEquals(6, performed.size());
+		for (int index= 0; index < performed.size(); index++)
+			assertEquals("step " + index, performed.get(index));
+	}
+
+	public void testFailingStep() throws Exception {
+		RecordingOperation operation= new RecordingOperation(createProxies(), "step 1");
+		operation.run(new NullProgressMonitor());
+		assertTrue(operation.getExecutionStatus().hasFatalError());
+
+		List performed= operation.fPerformed;
+		assertEquals(5, performed.size());
+		assertFalse(performed.contains("step 1"));
+	}
+}
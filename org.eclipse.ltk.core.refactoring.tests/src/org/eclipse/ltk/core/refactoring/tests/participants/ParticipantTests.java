@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ public class ParticipantTests {
 		suite.addTestSuite(FailingParticipantTests.class);
 		suite.addTestSuite(SharedTextChangeTests.class);
 		suite.addTestSuite(CancelingParticipantTests.class);
+		suite.addTestSuite(ThreadSafeParticipantTests.class);
 		return suite;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.participants;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.NullChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.ltk.core.refactoring.participants.CheckConditionsContext;
+import org.eclipse.ltk.core.refactoring.participants.IThreadSafeParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RefactoringParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
+import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
+import org.eclipse.ltk.core.refactoring.participants.RenameProcessor;
+import org.eclipse.ltk.core.refactoring.participants.RenameRefactoring;
+import org.eclipse.ltk.core.refactoring.participants.SharableParticipants;
+
+public class ThreadSafeParticipantTests extends TestCase {
+
+	/**
+	 * A latch that is released when it has been counted down to zero.
+	 */
+	private static class Latch {
+		private int fCount;
+
+		public Latch(int count) {
+			fCount= count;
+		}
+		public synchronized void countDown() {
+			fCount--;
+			notifyAll();
+		}
+		public synchronized void await() {
+			long end= System.currentTimeMillis() + 5000;
+			long remaining;
+			while (fCount > 0 && (remaining= end - System.currentTimeMillis()) > 0) {
+				try {
+					wait(remaining);
+				} catch (InterruptedException e) {
+					// continue waiting
+				}
+			}
+		}
+	}
+
+	private static class SequentialParticipant extends RenameParticipant {
+		private final String fName;
+		private final int fSeverity;
+		private final Latch fAwait;
+		private final Latch fRelease;
+
+		public SequentialParticipant(String name, int severity) {
+			this(name, severity, null, null);
+		}
+		/**
+		 * @param name the name of the participant
+		 * @param severity the severity of the status, or <code>-1</code> to fail
+		 * @param await the latch to wait for before checking, or <code>null</code>
+		 * @param release the latch to count down after checking, or <code>null</code>
+		 */
+		public SequentialParticipant(String name, int severity, Latch await, Latch release) {
+			fName= name;
+			fSeverity= severity;
+			fAwait= await;
+			fRelease= release;
+		}
+		protected boolean initialize(Object element) {
+			return true;
+		}
+		public String getName() {
+			return fName;
+		}
+		public RefactoringStatus checkConditions(IProgressMonitor pm, CheckConditionsContext context) throws OperationCanceledException {
+			if (fAwait != null)
+				fAwait.await();
+			try {
+				if (fSeverity == -1)
+					throw new IllegalStateException("failed");
+				RefactoringStatus result= new RefactoringStatus();
+				result.addEntry(fSeverity, fName, null, null, 0);
+				return result;
+			} finally {
+				if (fRelease != null)
+					fRelease.countDown();
+			}
+		}
+		public Change createChange(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new NullChange(fName);
+		}
+	}
+
+	private static class ConcurrentParticipant extends SequentialParticipant implements IThreadSafeParticipant {
+		public ConcurrentParticipant(String name, int severity) {
+			super(name, severity);
+		}
+		public ConcurrentParticipant(String name, int severity, Latch await, Latch release) {
+			super(name, severity, await, release);
+		}
+	}
+
+	private static class TestProcessor extends RenameProcessor {
+		private final RefactoringParticipant[] fParticipants;
+
+		public TestProcessor(RefactoringParticipant[] participants) {
+			fParticipants= participants;
+		}
+		public Object[] getElements() {
+			return new Object[] { Boolean.TRUE };
+		}
+		public String getIdentifier() {
+			return "org.eclipse.ltk.core.refactoring.tests.TestProcessor";
+		}
+		public String getProcessorName() {
+			return "processor";
+		}
+		public boolean isApplicable() throws CoreException {
+			return true;
+		}
+		public RefactoringStatus checkInitialConditions(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new RefactoringStatus();
+		}
+		public RefactoringStatus checkFinalConditions(IProgressMonitor pm, CheckConditionsContext context) throws CoreException, OperationCanceledException {
+			return new RefactoringStatus();
+		}
+		public Change createChange(IProgressMonitor pm) throws CoreException, OperationCanceledException {
+			return new NullChange("test change");
+		}
+		public RefactoringParticipant[] loadParticipants(RefactoringStatus status, SharableParticipants sharedParticipants) throws CoreException {
+			for (int i= 0; i < fParticipants.length; i++) {
+				fParticipants[i].initialize(this, Boolean.TRUE, new RenameArguments("", false));
+			}
+			return fParticipants;
+		}
+	}
+
+	private static void assertMessages(String[] expected, RefactoringStatus status) {
+		RefactoringStatusEntry[] entries= status.getEntries();
+		assertEquals(expected.length, entries.length);
+		for (int i= 0; i < entries.length; i++) {
+			assertEquals(expected[i], entries[i].getMessage());
+		}
+	}
+
+	private static void assertSeverities(int[] expected, RefactoringStatus status) {
+		RefactoringStatusEntry[] entries= status.getEntries();
+		assertEquals(expected.length, entries.length);
+		for (int i= 0; i < entries.length; i++) {
+			assertEquals(expected[i], entries[i].getSeverity());
+		}
+	}
+
+	public void testStatusOrder() throws Exception {
+		// the thread-safe participants finish after all other participants
+		Latch sequentialDone= new Latch(2);
+		RefactoringParticipant[] participants= new RefactoringParticipant[] {
+				new ConcurrentParticipant("p0", RefactoringStatus.WARNING, sequentialDone, null),
+				new SequentialParticipant("p1", RefactoringStatus.INFO, null, sequentialDone),
+				new ConcurrentParticipant("p2", RefactoringStatus.WARNING, sequentialDone, null),
+				new ConcurrentParticipant("p3", RefactoringStatus.INFO, sequentialDone, null),
+				new SequentialParticipant("p4", RefactoringStatus.WARNING, null, sequentialDone)
+		};
+		RenameRefactoring refactoring= new RenameRefactoring(new TestProcessor(participants));
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+		assertMessages(new String[] { "p0", "p1", "p2", "p3", "p4" }, status);
+
+		Change change= refactoring.createChange(new NullProgressMonitor());
+		assertEquals(6, ((CompositeChange) change).getChildren().length);
+	}
+
+	public void testFailingParticipant() throws Exception {
+		RefactoringParticipant[] participants= new RefactoringParticipant[] {
+				new ConcurrentParticipant("p0", RefactoringStatus.WARNING),
+				new ConcurrentParticipant("p1", -1),
+				new SequentialParticipant("p2", RefactoringStatus.WARNING)
+		};
+		RenameRefactoring refactoring= new RenameRefactoring(new TestProcessor(participants));
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+		assertEquals(RefactoringStatus.ERROR, status.getSeverity());
+		assertEquals(3, status.getEntries().length);
+		assertEquals("p0", status.getEntryAt(0).getMessage());
+		assertEquals("p2", status.getEntryAt(2).getMessage());
+
+		// the failing participant does not contribute a change
+		Change change= refactoring.createChange(new NullProgressMonitor());
+		assertEquals(3, ((CompositeChange) change).getChildren().length);
+	}
+
+	public void testFatalError() throws Exception {
+		// more thread-safe participants than workers wait until p4 failed, so p3 is claimed
+		// after the fatal error
+		Latch fatalDone= new Latch(1);
+		RefactoringParticipant[] participants= new RefactoringParticipant[] {
+				new ConcurrentParticipant("p0", RefactoringStatus.WARNING, fatalDone, null),
+				new ConcurrentParticipant("p1", RefactoringStatus.WARNING, fatalDone, null),
+				new ConcurrentParticipant("p2", RefactoringStatus.WARNING, fatalDone, null),
+				new ConcurrentParticipant("p3", RefactoringStatus.WARNING, fatalDone, null),
+				new SequentialParticipant("p4", RefactoringStatus.FATAL, null, fatalDone),
+				new ConcurrentParticipant("p5", RefactoringStatus.WARNING),
+				new SequentialParticipant("p6", RefactoringStatus.WARNING)
+		};
+		RenameRefactoring refactoring= new RenameRefactoring(new TestProcessor(participants));
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+		assertEquals(RefactoringStatus.FATAL, status.getSeverity());
+		assertMessages(new String[] { "p0", "p1", "p2", "p3", "p4" }, status);
+		assertSeverities(new int[] { RefactoringStatus.WARNING, RefactoringStatus.WARNING, RefactoringStatus.WARNING, RefactoringStatus.WARNING, RefactoringStatus.FATAL }, status);
+	}
+
+	public void testFatalErrorOfThreadSafeParticipant() throws Exception {
+		// p0 waits until p2 failed, p1 must still be checked
+		Latch fatalDone= new Latch(1);
+		RefactoringParticipant[] participants= new RefactoringParticipant[] {
+				new SequentialParticipant("p0", RefactoringStatus.INFO, fatalDone, null),
+				new SequentialParticipant("p1", RefactoringStatus.WARNING),
+				new ConcurrentParticipant("p2", RefactoringStatus.FATAL, null, fatalDone),
+				new SequentialParticipant("p3", RefactoringStatus.WARNING)
+		};
+		RenameRefactoring refactoring= new RenameRefactoring(new TestProcessor(participants));
+		RefactoringStatus status= refactoring.checkFinalConditions(new NullProgressMonitor());
+		assertEquals(RefactoringStatus.FATAL, status.getSeverity());
+		assertMessages(new String[] { "p0", "p1", "p2" }, status);
+		assertSeverities(new int[] { RefactoringStatus.INFO, RefactoringStatus.WARNING, RefactoringStatus.FATAL }, status);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -227,10 +227,21 @@ public class CompositeChange extends Change {
 	 * will not receive the <code>isValid</code> call.
 	 * </p>
 	 * <p>
+	 * If the change contains many text file changes, the validation states of
+	 * their files may be checked concurrently, and the files are then checked
+	 * together. The returned status contains the same problems as if the
+	 * children had been validated one after the other, but the problems of the
+	 * files may come after the ones of the other children.
+	 * </p>
+	 * <p>
 	 * Client are allowed to extend this method.
 	 * </p>
 	 */
 	public RefactoringStatus isValid(IProgressMonitor pm) throws CoreException {
+		ParallelChangeValidator validator= ParallelChangeValidator.create(fChanges);
+		if (validator != null)
+			return validator.validate(pm);
+
 		RefactoringStatus result= new RefactoringStatus();
 		pm.beginTask("", fChanges.size()); //$NON-NLS-1$
 		for (Iterator iter= fChanges.iterator(); iter.hasNext() && !result.hasFatalError();) {
@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.ltk.internal.core.refactoring.Changes;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
+
+/**
+ * Validates the leaves of a change tree concurrently.
+ * <p>
+ * The leaves are the enabled changes below a composite change, where nested composite changes of
+ * the exact type {@link CompositeChange} are flattened. For leaves whose <code>isValid</code>
+ * method is the one of {@link TextFileChange} or {@link UndoTextFileChange}, the check of the
+ * {@link org.eclipse.ltk.internal.core.refactoring.BufferValidationState buffer validation state}
+ * is done by a bounded number of worker jobs. All other leaves are validated in the calling thread.
+ * </p>
+ * <p>
+ * The files of the text file changes are not checked by the workers, since
+ * {@link org.eclipse.core.resources.IWorkspace#validateEdit(IFile[], Object) validateEdit} calls
+ * the team provider, which is not known to be thread-safe. The calling thread checks them with a
+ * single call once the validation states have been checked.
+ * </p>
+ * <p>
+ * The statuses of the leaves are merged in their order, and merging stops at the first fatal error
+ * or exception. The status of the files of the merged text file changes is appended, so the result
+ * contains the same problems as the sequential validation done by
+ * {@link CompositeChange#isValid(IProgressMonitor)}, where the problems of the files come last.
+ * </p>
+ *
+ * @since 3.7
+ */
+final class ParallelChangeValidator {
+
+	/**
+	 * The minimal number of leaves that can be validated concurrently for the parallel validation
+	 * to be used.
+	 */
+	private static final int MIN_CONCURRENT_LEAVES= 64;
+
+	/**
+	 * The maximal number of threads validating leaves, including the calling thread.
+	 */
+	private static final int MAX_THREADS= 4;
+
+	/** Maps change classes to <code>Boolean</code>: whether their instances can be validated concurrently. */
+	private static final Map fgConcurrentClasses= new WeakHashMap();
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super(RefactoringCoreMessages.ParallelChangeValidator_job_name);
+			setSystem(true);
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			int index;
+			while ((index= claim(true)) != -1) {
+				validate(index, new NullProgressMonitor());
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private final Change[] fLeaves;
+	private final boolean[] fConcurrent;
+	/** Whether the text file change leaves need saving. */
+	private final boolean[] fNeedsSaving;
+
+	private final RefactoringStatus[] fResults;
+	private final Throwable[] fExceptions;
+
+	private Thread fCaller;
+	/** The number of leaves validated by workers that have been reported to the progress monitor. */
+	private int fReported;
+
+	// the following fields are guarded by this
+	private final boolean[] fClaimed;
+	private int fNextConcurrent;
+	private int fNext;
+	private int fPending;
+	private int fCompletedByWorkers;
+	/** Leaves after this index don't need to be validated. */
+	private int fLastNeeded;
+
+	private ParallelChangeValidator(Change[] leaves, boolean[] concurrent) {
+		fLeaves= leaves;
+		fConcurrent= concurrent;
+		fNeedsSaving= new boolean[leaves.length];
+		for (int i= 0; i < leaves.length; i++) {
+			if (concurrent[i] && leaves[i] instanceof TextFileChange)
+				fNeedsSaving[i]= ((TextFileChange) leaves[i]).needsSaving();
+		}
+		fResults= new RefactoringStatus[leaves.length];
+		fExceptions= new Throwable[leaves.length];
+		fClaimed= new boolean[leaves.length];
+		fLastNeeded= leaves.length - 1;
+	}
+
+	/**
+	 * Creates a validator for the given children of a composite change.
+	 *
+	 * @param changes the children of a composite change
+	 * @return the validator, or <code>null</code> if the changes are to be validated sequentially
+	 */
+	static ParallelChangeValidator create(List changes) {
+		List leaves= new ArrayList(changes.size());
+		collectLeaves(changes, leaves);
+
+		int nConcurrent= 0;
+		boolean[] concurrent= new boolean[leaves.size()];
+		for (int i= 0; i < concurrent.length; i++) {
+			concurrent[i]= canValidateConcurrently((Change) leaves.get(i));
+			if (concurrent[i])
+				nConcurrent++;
+		}
+		if (nConcurrent < MIN_CONCURRENT_LEAVES || !isEnabled())
+			return null;
+		return new ParallelChangeValidator((Change[]) leaves.toArray(new Change[leaves.size()]), concurrent);
+	}
+
+	private static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(RefactoringCorePlugin.getPluginId(), RefactoringPreferenceConstants.PREFERENCE_PARALLEL_CHANGE_VALIDATION, true, null);
+	}
+
+	private static void collectLeaves(List changes, List leaves) {
+		for (Iterator iter= changes.iterator(); iter.hasNext();) {
+			Change change= (Change) iter.next();
+			if (!change.isEnabled())
+				continue;
+			if (change.getClass() == CompositeChange.class) {
+				Change[] children= ((CompositeChange) change).getChildren();
+				List list= new ArrayList(children.length);
+				for (int i= 0; i < children.length; i++) {
+					list.add(children[i]);
+				}
+				collectLeaves(list, leaves);
+			} else {
+				leaves.add(change);
+			}
+		}
+	}
+
+	private static boolean canValidateConcurrently(Change change) {
+		if (!(change instanceof TextFileChange) && !(change instanceof UndoTextFileChange))
+			return false;
+		Class clazz= change.getClass();
+		synchronized (fgConcurrentClasses) {
+			Boolean result= (Boolean) fgConcurrentClasses.get(clazz);
+			if (result == null) {
+				result= Boolean.FALSE;
+				try {
+					Method method= clazz.getMethod("isValid", new Class[] { IProgressMonitor.class }); //$NON-NLS-1$
+					Class declaringClass= method.getDeclaringClass();
+					if (declaringClass == TextFileChange.class || declaringClass == UndoTextFileChange.class)
+						result= Boolean.TRUE;
+				} catch (NoSuchMethodException e) {
+					// validate in the calling thread
+				}
+				fgConcurrentClasses.put(clazz, result);
+			}
+			return result.booleanValue();
+		}
+	}
+
+	/**
+	 * Validates the leaves.
+	 *
+	 * @param pm the progress monitor
+	 * @return the merged status of the leaves
+	 * @throws CoreException if the validation of a leaf failed
+	 * @throws OperationCanceledException if the validation has been canceled
+	 */
+	RefactoringStatus validate(IProgressMonitor pm) throws CoreException {
+		pm.beginTask("", fLeaves.length); //$NON-NLS-1$
+		fCaller= Thread.currentThread();
+		try {
+			int nWorkers= Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()) - 1;
+			for (int i= 0; i < nWorkers; i++) {
+				new Worker().schedule();
+			}
+
+			// the calling thread validates the leaves that must not run in a worker, and
+			// helps the workers with the other ones
+			int index;
+			while ((index= claim(false)) != -1) {
+				validate(index, new SubProgressMonitor(pm, 1));
+				reportProgress(pm);
+				if (pm.isCanceled())
+					cancel();
+			}
+			waitForWorkers(pm);
+			return merge();
+		} finally {
+			pm.done();
+		}
+	}
+
+	/**
+	 * Claims the next leaf to validate.
+	 *
+	 * @param concurrentOnly <code>true</code> to only claim leaves that can be validated in a
+	 *            worker
+	 * @return the index of the leaf, or -1 if there is no more leaf to validate
+	 */
+	private synchronized int claim(boolean concurrentOnly) {
+		int index= concurrentOnly ? fNextConcurrent : fNext;
+		while (index <= fLastNeeded && (fClaimed[index] || concurrentOnly && !fConcurrent[index]))
+			index++;
+		if (concurrentOnly)
+			fNextConcurrent= index;
+		else
+			fNext= index;
+		if (index > fLastNeeded)
+			return -1;
+		fClaimed[index]= true;
+		fPending++;
+		return index;
+	}
+
+	private void validate(int index, IProgressMonitor pm) {
+		boolean stop= false;
+		try {
+			Change leaf= fLeaves[index];
+			if (fConcurrent[index] && leaf instanceof TextFileChange)
+				fResults[index]= ((TextFileChange) leaf).checkValidationState(fNeedsSaving[index]);
+			else
+				fResults[index]= leaf.isValid(pm);
+			stop= fResults[index].hasFatalError();
+		} catch (CoreException e) {
+			fExceptions[index]= e;
+			stop= true;
+		} catch (RuntimeException e) {
+			fExceptions[index]= e;
+			stop= true;
+		} catch (Error e) {
+			fExceptions[index]= e;
+			stop= true;
+		}
+		synchronized (this) {
+			if (stop && index < fLastNeeded)
+				fLastNeeded= index;
+			if (Thread.currentThread() != fCaller)
+				fCompletedByWorkers++;
+			fPending--;
+			notifyAll();
+		}
+	}
+
+	private synchronized void cancel() {
+		fLastNeeded= -1;
+		while (fPending > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// continue waiting
+			}
+		}
+		throw new OperationCanceledException();
+	}
+
+	private void reportProgress(IProgressMonitor pm) {
+		int completed;
+		synchronized (this) {
+			completed= fCompletedByWorkers;
+		}
+		if (completed > fReported) {
+			pm.worked(completed - fReported);
+			fReported= completed;
+		}
+	}
+
+	private void waitForWorkers(IProgressMonitor pm) {
+		while (true) {
+			synchronized (this) {
+				if (fPending == 0)
+					break;
+				try {
+					wait(100);
+				} catch (InterruptedException e) {
+					// continue waiting
+				}
+			}
+			reportProgress(pm);
+			if (pm.isCanceled())
+				cancel();
+		}
+		reportProgress(pm);
+	}
+
+	/*
+	 * Runs in the calling thread, which also validates the files of the merged text file changes.
+	 */
+	private RefactoringStatus merge() throws CoreException {
+		RefactoringStatus result= new RefactoringStatus();
+		List filesToModify= new ArrayList();
+		List filesToCheck= new ArrayList();
+		for (int i= 0; i < fLeaves.length && !result.hasFatalError(); i++) {
+			Throwable exception= fExceptions[i];
+			if (exception instanceof CoreException)
+				throw (CoreException) exception;
+			if (exception instanceof RuntimeException)
+				throw (RuntimeException) exception;
+			if (exception instanceof Error)
+				throw (Error) exception;
+			if (fResults[i] == null)
+				break;
+			result.merge(fResults[i]);
+			if (fConcurrent[i] && fLeaves[i] instanceof TextFileChange) {
+				IFile file= ((TextFileChange) fLeaves[i]).getFile();
+				if (fNeedsSaving[i])
+					filesToModify.add(file);
+				else
+					filesToCheck.add(file);
+			}
+		}
+		if (!filesToModify.isEmpty())
+			result.merge(Changes.validateModifiesFiles((IFile[]) filesToModify.toArray(new IFile[filesToModify.size()])));
+		if (!filesToCheck.isEmpty()) {
+			// these files are only read, so they should be at least in sync
+			result.merge(Changes.checkInSync((IFile[]) filesToCheck.toArray(new IFile[filesToCheck.size()])));
+		}
+		return result;
+	}
+}
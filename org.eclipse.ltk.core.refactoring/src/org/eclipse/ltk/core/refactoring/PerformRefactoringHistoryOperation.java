@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.eclipse.ltk.core.refactoring;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.core.resources.IWorkspaceRunnable;
@@ -32,6 +33,10 @@ import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryServi
  * <code>IWorkspace</code> to achieve proper delta batching.
  * </p>
  * <p>
+ * Since 3.7, the descriptors of the history are resolved before the first
+ * refactoring is executed.
+ * </p>
+ * <p>
  * Note: this class is not intended to be instantiated or extended outside of
  * the refactoring framework.
  * </p>
@@ -48,6 +53,9 @@ import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryServi
  */
 public class PerformRefactoringHistoryOperation implements IWorkspaceRunnable {
 
+	private static final String PERF_RESOLVE_DESCRIPTOR= "org.eclipse.ltk.core.refactoring/perf/history/resolveDescriptor"; //$NON-NLS-1$
+	private static final String PERF_PERFORM_REFACTORING= "org.eclipse.ltk.core.refactoring/perf/history/performRefactoring"; //$NON-NLS-1$
+
 	/** The status of the execution */
 	private RefactoringStatus fExecutionStatus= new RefactoringStatus();
 
@@ -213,42 +221,95 @@ public class PerformRefactoringHistoryOperation implements IWorkspaceRunnable {
 		final IRefactoringHistoryService service= RefactoringHistoryService.getInstance();
 		try {
 			service.connect();
+			final RefactoringDescriptor[] descriptors= resolveDescriptors(proxies, new SubProgressMonitor(monitor, 10 * proxies.length, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+			for (int index= 0; index < descriptors.length; index++) {
+				if (descriptors[index] != null)
+					performRefactoring(descriptors[index], new SubProgressMonitor(monitor, 160, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+				else
+					monitor.worked(160);
+			}
+		} finally {
+			service.disconnect();
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Resolves the descriptors of the specified proxies.
+	 * <p>
+	 * The descriptors are resolved before any refactoring is performed:
+	 * performing a refactoring adds it to the refactoring history, which
+	 * invalidates the history file read last, so resolving the descriptors
+	 * in between would parse the history files again and again.
+	 * </p>
+	 *
+	 * @param proxies
+	 *            the refactoring descriptor proxies
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return the resolved descriptors, with <code>null</code> elements for
+	 *         descriptors which could not be resolved
+	 */
+	private RefactoringDescriptor[] resolveDescriptors(final RefactoringDescriptorProxy[] proxies, final IProgressMonitor monitor) {
+		final RefactoringDescriptor[] descriptors= new RefactoringDescriptor[proxies.length];
+		try {
+			monitor.beginTask("", proxies.length); //$NON-NLS-1$
 			for (int index= 0; index < proxies.length; index++) {
-				final RefactoringDescriptor descriptor= proxies[index].requestDescriptor(new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-				if (descriptor != null) {
-					RefactoringContext context= null;
-					RefactoringStatus status= new RefactoringStatus();
-					try {
-						try {
-							context= createRefactoringContext(descriptor, status, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-						} catch (CoreException exception) {
-							status.merge(RefactoringStatus.create(exception.getStatus()));
-						}
-						if (context != null && !status.hasFatalError()) {
-							Refactoring refactoring= context.getRefactoring();
-							final PerformRefactoringOperation operation= new PerformRefactoringOperation(refactoring, CheckConditionsOperation.ALL_CONDITIONS);
-							try {
-								status.merge(aboutToPerformRefactoring(refactoring, descriptor, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
-								if (!status.hasFatalError()) {
-									ResourcesPlugin.getWorkspace().run(operation, new SubProgressMonitor(monitor, 90, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-									status.merge(operation.getConditionStatus());
-									if (!status.hasFatalError())
-										status.merge(operation.getValidationStatus());
-								}
-							} finally {
-								refactoringPerformed(refactoring, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
-							}
-						}
-					} finally {
-						fExecutionStatus.merge(status);
-						if (context != null)
-							context.dispose();
+				final PerformanceStats stats= PerformanceStats.getStats(PERF_RESOLVE_DESCRIPTOR, proxies[index].getDescription());
+				stats.startRun();
+				descriptors[index]= proxies[index].requestDescriptor(new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+				stats.endRun();
+			}
+		} finally {
+			monitor.done();
+		}
+		return descriptors;
+	}
+
+	/**
+	 * Performs the refactoring described by the specified descriptor and
+	 * merges the outcome into the execution status.
+	 *
+	 * @param descriptor
+	 *            the refactoring descriptor
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs while performing the refactoring
+	 */
+	private void performRefactoring(final RefactoringDescriptor descriptor, final IProgressMonitor monitor) throws CoreException {
+		final PerformanceStats stats= PerformanceStats.getStats(PERF_PERFORM_REFACTORING, descriptor.getID() + ", " + descriptor.getDescription()); //$NON-NLS-1$
+		stats.startRun();
+		RefactoringContext context= null;
+		RefactoringStatus status= new RefactoringStatus();
+		try {
+			monitor.beginTask("", 160); //$NON-NLS-1$
+			try {
+				context= createRefactoringContext(descriptor, status, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+			} catch (CoreException exception) {
+				status.merge(RefactoringStatus.create(exception.getStatus()));
+			}
+			if (context != null && !status.hasFatalError()) {
+				Refactoring refactoring= context.getRefactoring();
+				final PerformRefactoringOperation operation= new PerformRefactoringOperation(refactoring, CheckConditionsOperation.ALL_CONDITIONS);
+				try {
+					status.merge(aboutToPerformRefactoring(refactoring, descriptor, new SubProgressMonitor(monitor, 30, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
+					if (!status.hasFatalError()) {
+						ResourcesPlugin.getWorkspace().run(operation, new SubProgressMonitor(monitor, 90, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+						status.merge(operation.getConditionStatus());
+						if (!status.hasFatalError())
+							status.merge(operation.getValidationStatus());
 					}
+				} finally {
+					refactoringPerformed(refactoring, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
 				}
 			}
 		} finally {
-			service.disconnect();
+			fExecutionStatus.merge(status);
+			if (context != null)
+				context.dispose();
 			monitor.done();
+			stats.endRun();
 		}
 	}
 }
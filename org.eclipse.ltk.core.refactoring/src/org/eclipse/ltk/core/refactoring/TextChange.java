@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -72,6 +72,8 @@ public abstract class TextChange extends TextEditBasedChange {
 
 	private TextEdit fEdit;
 	private TextEditCopier fCopier;
+	/** The cached previews, or <code>null</code> if none have been computed since the change was disposed. */
+	private TextChangePreviewCache fPreviewCache;
 
 	/**
 	 * Creates a new text change with the specified name.  The name is a
@@ -401,14 +403,15 @@ public abstract class TextChange extends TextEditBasedChange {
 	 */
 	public IDocument getPreviewDocument(IProgressMonitor pm) throws CoreException {
 		PreviewAndRegion result= getPreviewDocument(ALL_EDITS, pm);
-		return result.document;
+		// the preview document is cached: hand out a copy
+		return new Document(result.document.get());
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public String getPreviewContent(IProgressMonitor pm) throws CoreException {
-		return getPreviewDocument(pm).get();
+		return getPreviewDocument(ALL_EDITS, pm).document.get();
 	}
 
 	/**
@@ -521,10 +524,44 @@ public abstract class TextChange extends TextEditBasedChange {
 
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The text change drops its cached previews.
+	 * </p>
+	 */
+	public void dispose() {
+		synchronized (this) {
+			fPreviewCache= null;
+		}
+		super.dispose();
+	}
+
 	//---- private helper methods --------------------------------------------------
 
+	private synchronized TextChangePreviewCache getPreviewCache() {
+		if (fPreviewCache == null)
+			fPreviewCache= new TextChangePreviewCache();
+		return fPreviewCache;
+	}
+
+	/*
+	 * Previews are cached, see TextChangePreviewCache. The returned document must not be modified.
+	 */
 	private PreviewAndRegion getPreviewDocument(TextEditBasedChangeGroup[] changes, IProgressMonitor pm) throws CoreException {
-		IDocument document= new Document(getCurrentDocument(pm).get());
+		String currentContent= getCurrentDocument(pm).get();
+		TextChangePreviewCache.Key key= changes == ALL_EDITS
+			? new TextChangePreviewCache.Key(this, true, getChangeGroups())
+			: new TextChangePreviewCache.Key(this, false, changes);
+		TextChangePreviewCache previewCache= getPreviewCache();
+		TextChangePreviewCache.Entry entry= previewCache.get(key, currentContent);
+		if (entry != null) {
+			if (getKeepPreviewEdits())
+				fCopier= entry.fCopier;
+			return new PreviewAndRegion(entry.fDocument, entry.fRegion);
+		}
+
+		IDocument document= new Document(currentContent);
 		boolean trackChanges= getKeepPreviewEdits();
 		setKeepPreviewEdits(true);
 		TextEditProcessor processor= changes == ALL_EDITS
@@ -532,7 +569,9 @@ public abstract class TextChange extends TextEditBasedChange {
 			: createTextEditProcessor(document, TextEdit.NONE, changes);
 		try {
 			processor.performEdits();
-			return new PreviewAndRegion(document, getNewRegion(changes));
+			PreviewAndRegion result= new PreviewAndRegion(document, getNewRegion(changes));
+			previewCache.put(key, new TextChangePreviewCache.Entry(currentContent, document, result.region, fCopier));
+			return result;
 		} catch (BadLocationException e) {
 			throw Changes.asCoreException(e);
 		} finally {
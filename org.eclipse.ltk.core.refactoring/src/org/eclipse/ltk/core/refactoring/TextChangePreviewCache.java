@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.TextEditCopier;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * A least recently used cache of the preview documents computed by a {@link TextChange}.
+ * <p>
+ * Computing a preview applies the text edits of a change to a copy of its current document. For
+ * large files with many edits this is expensive, and the refactoring preview asks for the same
+ * previews again and again when the user selects elements in the change tree.
+ * </p>
+ * <p>
+ * Every text change has its own cache, which is dropped when the change is disposed. An entry is
+ * valid as long as the current content of the change, the whole edit tree and the enabled state of
+ * the previewed change groups have not changed.
+ * </p>
+ *
+ * @since 3.7
+ */
+final class TextChangePreviewCache {
+
+	/**
+	 * Identifies a preview of a change.
+	 */
+	static final class Key {
+
+		private final boolean fAllEdits;
+		private final TextEditBasedChangeGroup[] fGroups;
+		private final boolean[] fEnabled;
+		/** The edits of the edit tree in preorder. */
+		private final TextEdit[] fEdits;
+		/** The offset, length and number of children of every edit in {@link #fEdits}. */
+		private final int[] fShapes;
+		private final int fHashCode;
+
+		/**
+		 * Creates a key.
+		 *
+		 * @param change the change
+		 * @param allEdits <code>true</code> if the preview includes all enabled edits,
+		 *            <code>false</code> if it includes the edits of the given groups
+		 * @param groups the change groups that determine the edits of the preview
+		 */
+		Key(TextChange change, boolean allEdits, TextEditBasedChangeGroup[] groups) {
+			fAllEdits= allEdits;
+			fGroups= groups;
+			fEnabled= new boolean[groups.length];
+			int hashCode= allEdits ? 1 : 0;
+			for (int i= 0; i < groups.length; i++) {
+				fEnabled[i]= groups[i].isEnabled();
+				hashCode= 31 * hashCode + System.identityHashCode(groups[i]);
+			}
+			fHashCode= hashCode;
+			List edits= new ArrayList();
+			TextEdit edit= change.getEdit();
+			if (edit != null)
+				collectEdits(edit, edits);
+			fEdits= (TextEdit[]) edits.toArray(new TextEdit[edits.size()]);
+			fShapes= new int[fEdits.length * 3];
+			for (int i= 0; i < fEdits.length; i++) {
+				fShapes[3 * i]= fEdits[i].getOffset();
+				fShapes[3 * i + 1]= fEdits[i].getLength();
+				fShapes[3 * i + 2]= fEdits[i].getChildrenSize();
+			}
+		}
+
+		private static void collectEdits(TextEdit edit, List edits) {
+			edits.add(edit);
+			TextEdit[] children= edit.getChildren();
+			for (int i= 0; i < children.length; i++) {
+				collectEdits(children[i], edits);
+			}
+		}
+
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			if (fAllEdits != other.fAllEdits || fGroups.length != other.fGroups.length || fEdits.length != other.fEdits.length)
+				return false;
+			for (int i= 0; i < fGroups.length; i++) {
+				if (fGroups[i] != other.fGroups[i] || fEnabled[i] != other.fEnabled[i])
+					return false;
+			}
+			for (int i= 0; i < fEdits.length; i++) {
+				if (fEdits[i] != other.fEdits[i])
+					return false;
+			}
+			for (int i= 0; i < fShapes.length; i++) {
+				if (fShapes[i] != other.fShapes[i])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A cached preview.
+	 */
+	static final class Entry {
+
+		final String fCurrentContent;
+		final IDocument fDocument;
+		final IRegion fRegion;
+		final TextEditCopier fCopier;
+
+		/**
+		 * Creates an entry.
+		 *
+		 * @param currentContent the content the preview was computed from
+		 * @param document the preview document, must not be modified afterwards
+		 * @param region the region of the previewed edits in the preview document, or
+		 *            <code>null</code>
+		 * @param copier the copier used to create the previewed edits
+		 */
+		Entry(String currentContent, IDocument document, IRegion region, TextEditCopier copier) {
+			fCurrentContent= currentContent;
+			fDocument= document;
+			fRegion= region;
+			fCopier= copier;
+		}
+	}
+
+	/**
+	 * The maximal number of previews of a change, e.g. the preview of all edits and the previews of
+	 * some change groups.
+	 */
+	private static final int MAX_ENTRIES= 4;
+
+	private final Map fEntries= new LinkedHashMap(MAX_ENTRIES, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Returns the cached preview for the given key.
+	 *
+	 * @param key the key
+	 * @param currentContent the current content of the change
+	 * @return the preview, or <code>null</code> if no valid preview is in the cache
+	 */
+	Entry get(Key key, String currentContent) {
+		synchronized (fEntries) {
+			Entry entry= (Entry) fEntries.get(key);
+			if (entry == null)
+				return null;
+			if (!entry.fCurrentContent.equals(currentContent)) {
+				fEntries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Adds a preview to the cache.
+	 *
+	 * @param key the key
+	 * @param entry the preview
+	 */
+	void put(Key key, Entry entry) {
+		synchronized (fEntries) {
+			fEntries.put(key, entry);
+		}
+	}
+}
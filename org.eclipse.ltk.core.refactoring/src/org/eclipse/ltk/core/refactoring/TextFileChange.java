@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -182,11 +182,8 @@ public class TextFileChange extends TextChange {
 			monitor= new NullProgressMonitor();
 		try {
 			monitor.beginTask("", 1); //$NON-NLS-1$
-			if (fValidationState == null)
-				throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), "TextFileChange has not been initialialized")); //$NON-NLS-1$
-
 			boolean needsSaving= needsSaving();
-			RefactoringStatus result= fValidationState.isValid(needsSaving);
+			RefactoringStatus result= checkValidationState(needsSaving);
 			if (needsSaving) {
 				result.merge(Changes.validateModifiesFiles(new IFile[] { fFile}));
 			} else {
@@ -199,6 +196,17 @@ public class TextFileChange extends TextChange {
 		}
 	}
 
+	/*
+	 * Checks the validation state of the file without checking whether the file can be modified.
+	 * Unlike the check of the file, which calls the team provider, this can be done concurrently for
+	 * different changes, see ParallelChangeValidator.
+	 */
+	RefactoringStatus checkValidationState(boolean needsSaving) throws CoreException {
+		if (fValidationState == null)
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), "TextFileChange has not been initialialized")); //$NON-NLS-1$
+		return fValidationState.isValid(needsSaving);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -206,6 +214,7 @@ public class TextFileChange extends TextChange {
 		if (fValidationState != null) {
 			fValidationState.dispose();
 		}
+		super.dispose();
 	}
 
 	/**
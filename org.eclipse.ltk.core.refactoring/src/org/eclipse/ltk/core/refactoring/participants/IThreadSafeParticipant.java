@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.participants;
+
+/**
+ * A tagging interface for {@link RefactoringParticipant}s whose condition checking can run
+ * concurrently with the condition checking of other participants.
+ * <p>
+ * The {@link RefactoringParticipant#checkConditions(org.eclipse.core.runtime.IProgressMonitor, CheckConditionsContext)
+ * checkConditions} method of a participant tagged with this interface may be called from a
+ * thread other than the thread checking the final conditions of the refactoring. Such a
+ * participant must therefore:
+ * </p>
+ * <ul>
+ *   <li>synchronize on the given {@link CheckConditionsContext} when it accesses the condition
+ *       checkers of the context, for example to record resource modifications with the
+ *       {@link ResourceChangeChecker},</li>
+ *   <li>not acquire scheduling rules or run workspace operations, and</li>
+ *   <li>not synchronously run code in the user interface thread.</li>
+ * </ul>
+ * <p>
+ * Clients may implement this interface to tag participants as thread-safe.
+ * </p>
+ *
+ * @see RefactoringParticipant
+ * @since 3.7
+ */
+public interface IThreadSafeParticipant {
+}
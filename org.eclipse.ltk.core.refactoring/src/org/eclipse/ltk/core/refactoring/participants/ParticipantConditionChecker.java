@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.participants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.PerformanceStats;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.internal.core.refactoring.Messages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+
+/**
+ * Checks the conditions of the participants of a {@link ProcessorBasedRefactoring}.
+ * <p>
+ * Participants tagged with {@link IThreadSafeParticipant} are checked by a bounded number of
+ * worker jobs while the calling thread checks the other participants one after the other. The
+ * calling thread holds the lock of the {@link CheckConditionsContext} while it checks a
+ * participant that is not thread-safe. The resulting status is the same as if the participants
+ * had been checked sequentially in their original order: after a fatal error, all participants
+ * before the failing one are still checked, but none after it is started.
+ * </p>
+ *
+ * @since 3.7
+ */
+final class ParticipantConditionChecker {
+
+	private static final String PERF_CHECK_CONDITIONS= "org.eclipse.ltk.core.refactoring/perf/participants/checkConditions"; //$NON-NLS-1$
+
+	/**
+	 * The maximal number of threads checking participants, including the calling thread.
+	 */
+	private static final int MAX_THREADS= 4;
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super(RefactoringCoreMessages.ProcessorBasedRefactoring_final_conditions);
+			setSystem(true);
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			int index;
+			while ((index= claim()) != -1) {
+				checkConcurrent(index);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/**
+	 * The progress monitor passed to thread-safe participants. Progress is not reported, the
+	 * cancellation state is the one of the condition check.
+	 */
+	private class ConcurrentMonitor extends NullProgressMonitor {
+
+		public boolean isCanceled() {
+			return super.isCanceled() || ParticipantConditionChecker.this.isCanceled();
+		}
+	}
+
+	private final String fRefactoringName;
+	private final RefactoringParticipant[] fParticipants;
+	private final CheckConditionsContext fContext;
+
+	private final RefactoringStatus[] fStatuses;
+	private final boolean[] fFailed;
+	private final long[] fTimes;
+
+	/** The indices of the thread-safe participants */
+	private final int[] fConcurrent;
+
+	// guarded by this
+	private int fNext;
+	private int fPending;
+	private boolean fCanceled;
+	/** The lowest index of a participant with a fatal error, or the number of participants */
+	private int fFatalIndex;
+
+	/**
+	 * Creates a new checker.
+	 *
+	 * @param refactoringName the name of the refactoring
+	 * @param participants the participants to check
+	 * @param context the condition checking context
+	 */
+	public ParticipantConditionChecker(String refactoringName, RefactoringParticipant[] participants, CheckConditionsContext context) {
+		fRefactoringName= refactoringName;
+		fParticipants= participants;
+		fContext= context;
+		fStatuses= new RefactoringStatus[participants.length];
+		fFailed= new boolean[participants.length];
+		fTimes= new long[participants.length];
+		fFatalIndex= participants.length;
+
+		List concurrent= new ArrayList();
+		for (int i= 0; i < participants.length; i++) {
+			if (participants[i] instanceof IThreadSafeParticipant)
+				concurrent.add(new Integer(i));
+		}
+		fConcurrent= new int[concurrent.size()];
+		for (int i= 0; i < fConcurrent.length; i++) {
+			fConcurrent[i]= ((Integer) concurrent.get(i)).intValue();
+		}
+	}
+
+	/**
+	 * Checks the conditions of the participants.
+	 *
+	 * @param pm a progress monitor
+	 * @return the merged status of the participants
+	 * @throws OperationCanceledException if the condition check has been canceled
+	 */
+	public RefactoringStatus check(IProgressMonitor pm) {
+		pm.beginTask("", fParticipants.length); //$NON-NLS-1$
+		try {
+			int nSequential= fParticipants.length - fConcurrent.length;
+			int nThreads= Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+			int nWorkers= Math.min(fConcurrent.length - (nSequential == 0 ? 1 : 0), nThreads - 1);
+			for (int i= 0; i < nWorkers; i++) {
+				new Worker().schedule();
+			}
+
+			for (int i= 0; i < fParticipants.length && !isDone(i); i++) {
+				if (!(fParticipants[i] instanceof IThreadSafeParticipant)) {
+					synchronized (fContext) {
+						checkParticipant(i, new SubProgressMonitor(pm, 1));
+					}
+					if (pm.isCanceled())
+						cancel();
+				}
+			}
+
+			// the calling thread helps the workers, such that the check also completes
+			// if the workers are not run
+			int index;
+			while ((index= claim()) != -1) {
+				checkConcurrent(index);
+				pm.worked(1);
+				if (pm.isCanceled())
+					cancel();
+			}
+			waitForWorkers(pm);
+		} finally {
+			pm.done();
+		}
+		if (isCanceled())
+			throw new OperationCanceledException();
+		return createStatus();
+	}
+
+	/**
+	 * Returns whether the participant with the given index failed with an exception and must
+	 * be ignored during change creation.
+	 *
+	 * @param index the index of the participant
+	 * @return <code>true</code> if the participant failed
+	 */
+	public boolean hasFailed(int index) {
+		return fFailed[index];
+	}
+
+	private RefactoringStatus createStatus() {
+		RefactoringStatus result= new RefactoringStatus();
+		boolean reportTimes= PerformanceStats.isEnabled(PERF_CHECK_CONDITIONS);
+		for (int i= 0; i < fParticipants.length && !result.hasFatalError(); i++) {
+			if (fFailed[i]) {
+				result.merge(RefactoringStatus.createErrorStatus(Messages.format(
+					RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
+					fParticipants[i].getName())));
+			} else if (fStatuses[i] != null) {
+				result.merge(fStatuses[i]);
+				if (reportTimes) {
+					result.addInfo(Messages.format(
+						RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_time,
+						new String[] { fParticipants[i].getName(), String.valueOf(fTimes[i]) }));
+				}
+			}
+		}
+		return result;
+	}
+
+	private void checkParticipant(int index, IProgressMonitor monitor) {
+		RefactoringParticipant participant= fParticipants[index];
+
+		final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, fRefactoringName + ", " + participant.getName()); //$NON-NLS-1$
+		stats.startRun();
+		long start= System.currentTimeMillis();
+
+		try {
+			RefactoringStatus status= participant.checkConditions(monitor, fContext);
+			fStatuses[index]= status;
+			if (status != null && status.hasFatalError())
+				setFatal(index);
+		} catch (OperationCanceledException e) {
+			cancel();
+		} catch (RuntimeException e) {
+			// the participant will be ignored during change execution.
+			RefactoringCorePlugin.log(e);
+			fFailed[index]= true;
+		}
+
+		fTimes[index]= System.currentTimeMillis() - start;
+		stats.endRun();
+	}
+
+	private void checkConcurrent(int index) {
+		try {
+			checkParticipant(index, new ConcurrentMonitor());
+		} finally {
+			synchronized (this) {
+				fPending--;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Claims the next thread-safe participant to check. Participants after a participant with a
+	 * fatal error are not claimed.
+	 *
+	 * @return the index of the participant, or <code>-1</code> if there is none left
+	 */
+	private synchronized int claim() {
+		if (fNext >= fConcurrent.length || isDone(fConcurrent[fNext]))
+			return -1;
+		fPending++;
+		return fConcurrent[fNext++];
+	}
+
+	private synchronized void waitForWorkers(IProgressMonitor pm) {
+		while (fPending > 0) {
+			try {
+				wait(100);
+			} catch (InterruptedException e) {
+				// continue waiting
+			}
+			if (pm.isCanceled())
+				fCanceled= true;
+		}
+	}
+
+	private synchronized void cancel() {
+		fCanceled= true;
+	}
+
+	private synchronized boolean isCanceled() {
+		return fCanceled;
+	}
+
+	private synchronized void setFatal(int index) {
+		fFatalIndex= Math.min(fFatalIndex, index);
+	}
+
+	/**
+	 * Returns whether the participant with the given index does not need to be checked, because
+	 * the check has been canceled or a participant before it has a fatal error.
+	 *
+	 * @param index the index of the participant
+	 * @return <code>true</code> if the participant must not be checked
+	 */
+	private synchronized boolean isDone(int index) {
+		return fCanceled || index > fFatalIndex;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -38,7 +38,6 @@ import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.TextChange;
 import org.eclipse.ltk.core.refactoring.TextFileChange;
-import org.eclipse.ltk.internal.core.refactoring.Messages;
 import org.eclipse.ltk.internal.core.refactoring.ParticipantDescriptor;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
@@ -58,7 +57,6 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
  */
 public class ProcessorBasedRefactoring extends Refactoring {
 
-	private static final String PERF_CHECK_CONDITIONS= "org.eclipse.ltk.core.refactoring/perf/participants/checkConditions"; //$NON-NLS-1$
 	private static final String PERF_CREATE_CHANGES= "org.eclipse.ltk.core.refactoring/perf/participants/createChanges"; //$NON-NLS-1$
 
 	private RefactoringProcessor fProcessor;
@@ -243,35 +241,14 @@ public class ProcessorBasedRefactoring extends Refactoring {
 			pm.done();
 			return result;
 		}
-		IProgressMonitor sm= new SubProgressMonitor(pm, 2);
-
-		sm.beginTask("", fParticipants.size()); //$NON-NLS-1$
-		for (Iterator iter= fParticipants.iterator(); iter.hasNext() && !result.hasFatalError(); ) {
-
-			RefactoringParticipant participant= (RefactoringParticipant) iter.next();
-
-			final PerformanceStats stats= PerformanceStats.getStats(PERF_CHECK_CONDITIONS, getName() + ", " + participant.getName()); //$NON-NLS-1$
-			stats.startRun();
-
-			try {
-				result.merge(participant.checkConditions(new SubProgressMonitor(sm, 1), context));
-			} catch (OperationCanceledException e) {
-				throw e;
-			} catch (RuntimeException e) {
-				// remove the participant so that it will be ignored during change execution.
-				RefactoringCorePlugin.log(e);
-				result.merge(RefactoringStatus.createErrorStatus(Messages.format(
-					RefactoringCoreMessages.ProcessorBasedRefactoring_check_condition_participant_failed,
-					participant.getName())));
-				iter.remove();
-			}
-
-			stats.endRun();
-
-			if (sm.isCanceled())
-				throw new OperationCanceledException();
+		RefactoringParticipant[] participants= (RefactoringParticipant[]) fParticipants.toArray(new RefactoringParticipant[fParticipants.size()]);
+		ParticipantConditionChecker checker= new ParticipantConditionChecker(getName(), participants, context);
+		result.merge(checker.check(new SubProgressMonitor(pm, 2)));
+		for (int i= participants.length - 1; i >= 0; i--) {
+			// remove the participant so that it will be ignored during change execution.
+			if (checker.hasFailed(i))
+				fParticipants.remove(i);
 		}
-		sm.done();
 		if (result.hasFatalError()) {
 			pm.done();
 			return result;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
@@ -31,11 +36,29 @@ public class ParticipantDescriptor {
 	private IConfigurationElement fConfigurationElement;
 	private boolean fEnabled;
 
+	/** The enablement expression, converted on first use */
+	private Expression fExpression;
+	private boolean fExpressionConverted;
+
+	/**
+	 * The evaluation results of the enablement expression, keyed by the element type, the
+	 * processor identifier and the affected natures, or <code>null</code> if the result
+	 * depends on more than these.
+	 */
+	private Map fEvaluationCache;
+
 	private static final String ID= "id"; //$NON-NLS-1$
 	private static final String NAME= "name";  //$NON-NLS-1$
 	private static final String CLASS= "class"; //$NON-NLS-1$
 	private static final String PROCESS_ON_CANCEL= "processOnCancel";  //$NON-NLS-1$
 
+	private static final String VARIABLE= "variable"; //$NON-NLS-1$
+	private static final String ELEMENT_VARIABLE= "element"; //$NON-NLS-1$
+	private static final String AFFECTED_NATURES_VARIABLE= "affectedNatures"; //$NON-NLS-1$
+	private static final String PROCESSOR_IDENTIFIER_VARIABLE= "processorIdentifier"; //$NON-NLS-1$
+
+	private static final int MAX_CACHED_EVALUATIONS= 32;
+
 	public ParticipantDescriptor(IConfigurationElement element) {
 		fConfigurationElement= element;
 		fEnabled= true;
@@ -68,12 +91,10 @@ public class ParticipantDescriptor {
 	}
 
 	public boolean matches(IEvaluationContext context, IParticipantDescriptorFilter filter, RefactoringStatus status) throws CoreException {
-		IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
-		if (elements.length == 0)
+		Expression exp= getExpression();
+		if (exp == null)
 			return false;
-		Assert.isTrue(elements.length == 1);
-		Expression exp= ExpressionConverter.getDefault().perform(elements[0]);
-		if (!convert(exp.evaluate(context)))
+		if (!evaluate(exp, context))
 			return false;
 		if (filter != null && !filter.select(fConfigurationElement, status))
 			return false;
@@ -100,6 +121,91 @@ public class ParticipantDescriptor {
 		return Boolean.valueOf(attr).booleanValue();
 	}
 
+	private synchronized Expression getExpression() throws CoreException {
+		if (!fExpressionConverted) {
+			IConfigurationElement[] elements= fConfigurationElement.getChildren(ExpressionTagNames.ENABLEMENT);
+			if (elements.length != 0) {
+				Assert.isTrue(elements.length == 1);
+				fExpression= ExpressionConverter.getDefault().perform(elements[0]);
+				if (isCacheable(elements[0], false))
+					fEvaluationCache= new HashMap();
+			}
+			fExpressionConverted= true;
+		}
+		return fExpression;
+	}
+
+	private boolean evaluate(Expression expression, IEvaluationContext context) throws CoreException {
+		List key= null;
+		synchronized (this) {
+			if (fEvaluationCache != null) {
+				key= createCacheKey(context);
+				if (key != null) {
+					Boolean result= (Boolean) fEvaluationCache.get(key);
+					if (result != null)
+						return result.booleanValue();
+				}
+			}
+		}
+		EvaluationResult eval= expression.evaluate(context);
+		boolean result= convert(eval);
+		if (key != null && eval != EvaluationResult.NOT_LOADED) {
+			synchronized (this) {
+				if (fEvaluationCache.size() >= MAX_CACHED_EVALUATIONS)
+					fEvaluationCache.clear();
+				fEvaluationCache.put(key, Boolean.valueOf(result));
+			}
+		}
+		return result;
+	}
+
+	private static List createCacheKey(IEvaluationContext context) {
+		Object element= context.getVariable(ELEMENT_VARIABLE);
+		if (element == null)
+			return null;
+		List key= new ArrayList(3);
+		key.add(element.getClass());
+		key.add(context.getVariable(PROCESSOR_IDENTIFIER_VARIABLE));
+		key.add(context.getVariable(AFFECTED_NATURES_VARIABLE));
+		return key;
+	}
+
+	/**
+	 * Returns whether the result of the given expression only depends on the type of the
+	 * element, the processor identifier and the affected natures. This is the case if the
+	 * element is only tested with <code>instanceof</code> and values are only compared for the
+	 * processor identifier and the affected natures.
+	 *
+	 * @param element the configuration element of the expression
+	 * @param valueScope <code>true</code> if the expression is evaluated for the processor
+	 *            identifier or the affected natures
+	 * @return <code>true</code> if the evaluation result can be cached per element type
+	 */
+	private static boolean isCacheable(IConfigurationElement element, boolean valueScope) {
+		String name= element.getName();
+		if (ExpressionTagNames.WITH.equals(name)) {
+			String variable= element.getAttribute(VARIABLE);
+			if (ELEMENT_VARIABLE.equals(variable))
+				valueScope= false;
+			else if (PROCESSOR_IDENTIFIER_VARIABLE.equals(variable) || AFFECTED_NATURES_VARIABLE.equals(variable))
+				valueScope= true;
+			else
+				return false;
+		} else if (ExpressionTagNames.EQUALS.equals(name) || ExpressionTagNames.ITERATE.equals(name) || ExpressionTagNames.COUNT.equals(name)) {
+			if (!valueScope)
+				return false;
+		} else if (!ExpressionTagNames.ENABLEMENT.equals(name) && !ExpressionTagNames.AND.equals(name) && !ExpressionTagNames.OR.equals(name)
+				&& !ExpressionTagNames.NOT.equals(name) && !ExpressionTagNames.INSTANCEOF.equals(name)) {
+			return false;
+		}
+		IConfigurationElement[] children= element.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!isCacheable(children[i], valueScope))
+				return false;
+		}
+		return true;
+	}
+
 	private boolean convert(EvaluationResult eval) {
 		if (eval == EvaluationResult.FALSE)
 			return false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -124,6 +124,8 @@ public final class RefactoringCoreMessages extends NLS {
 
 	public static String ParticipantDescriptor_error_name_missing;
 
+	public static String ParallelChangeValidator_job_name;
+
 	public static String ParticipantExtensionPoint_participant_removed;
 
 	public static String ParticipantExtensionPoint_wrong_type;
@@ -132,6 +134,8 @@ public final class RefactoringCoreMessages extends NLS {
 
 	public static String ProcessorBasedRefactoring_check_condition_participant_failed;
 
+	public static String ProcessorBasedRefactoring_check_condition_participant_time;
+
 	public static String ProcessorBasedRefactoring_create_change;
 
 	public static String ProcessorBasedRefactoring_final_conditions;
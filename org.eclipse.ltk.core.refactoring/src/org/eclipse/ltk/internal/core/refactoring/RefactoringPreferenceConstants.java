@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,20 @@ public final class RefactoringPreferenceConstants {
 	/** The shared refactoring history preference */
 	public static final String PREFERENCE_SHARED_REFACTORING_HISTORY= "org.eclipse.ltk.core.refactoring.enable.project.refactoring.history"; //$NON-NLS-1$
 
+	/**
+	 * The parallel change validation preference
+	 *
+	 * @since 3.7
+	 */
+	public static final String PREFERENCE_PARALLEL_CHANGE_VALIDATION= "org.eclipse.ltk.core.refactoring.parallel.change.validation"; //$NON-NLS-1$
+
+	/**
+	 * The memory budget of the refactoring undo history in bytes, a value &lt;= 0 disables the budget
+	 *
+	 * @since 3.7
+	 */
+	public static final String PREFERENCE_UNDO_MEMORY_BUDGET= "org.eclipse.ltk.core.refactoring.undo.memory.budget"; //$NON-NLS-1$
+
 	private RefactoringPreferenceConstants() {
 		// Not for instantiation
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -133,4 +133,12 @@ public class UndoDocumentChange extends Change {
 		return result[0];
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object getAdapter(Class adapter) {
+		if (UndoEdit.class.equals(adapter))
+			return fUndo;
+		return super.getAdapter(adapter);
+	}
 }
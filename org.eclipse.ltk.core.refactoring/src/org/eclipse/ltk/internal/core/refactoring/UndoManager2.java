@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.IOperationHistory;
 import org.eclipse.core.commands.operations.IOperationHistoryListener;
+import org.eclipse.core.commands.operations.IUndoContext;
 import org.eclipse.core.commands.operations.IUndoableOperation;
 import org.eclipse.core.commands.operations.OperationHistoryEvent;
 import org.eclipse.core.commands.operations.OperationHistoryFactory;
@@ -24,10 +28,17 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.UndoEdit;
+
 import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.IUndoManager;
 import org.eclipse.ltk.core.refactoring.IUndoManagerListener;
 import org.eclipse.ltk.core.refactoring.IValidationCheckResultQuery;
@@ -99,9 +110,27 @@ public class UndoManager2 implements IUndoManager {
 		}
 	}
 
+	/**
+	 * The default memory budget of the refactoring undo history in bytes.
+	 */
+	private static final long DEFAULT_MEMORY_BUDGET= 64 * 1024 * 1024;
+
+	/**
+	 * Estimated size in bytes of a change, not counting its undo edits.
+	 */
+	private static final long CHANGE_SIZE= 200;
+
+	/**
+	 * Estimated size in bytes of a text edit, not counting its text.
+	 */
+	private static final long EDIT_SIZE= 64;
+
 	private IOperationHistory fOperationHistory;
 	private IOperationHistoryListener fOperationHistoryListener;
 
+	/** Maps changes in the history to their estimated memory usage (<code>Long</code>). */
+	private final Map fMemoryUsages= new WeakHashMap();
+
 	private boolean fIsOpen;
 	private TriggeredOperations fActiveOperation;
 
@@ -162,7 +191,98 @@ public class UndoManager2 implements IUndoManager {
 			operation.setLabel(name);
 			fOperationHistory.add(fActiveOperation);
 			fActiveOperation= null;
+			enforceMemoryBudget();
+		}
+	}
+
+	/**
+	 * Returns the estimated memory used by the changes in the refactoring undo and redo history.
+	 * The estimate covers the change objects and the text of their undo edits.
+	 *
+	 * @return the estimated memory usage in bytes
+	 * @since 3.7
+	 */
+	public long getUndoMemoryUsage() {
+		IUndoContext context= RefactoringCorePlugin.getUndoContext();
+		return getMemoryUsage(fOperationHistory.getUndoHistory(context)) + getMemoryUsage(fOperationHistory.getRedoHistory(context));
+	}
+
+	/**
+	 * Removes the oldest undo operations until the memory used by the history fits into the
+	 * configured budget. The most recent undo operation is always kept.
+	 */
+	private void enforceMemoryBudget() {
+		long budget= Platform.getPreferencesService().getLong(RefactoringCorePlugin.getPluginId(), RefactoringPreferenceConstants.PREFERENCE_UNDO_MEMORY_BUDGET, DEFAULT_MEMORY_BUDGET, null);
+		if (budget <= 0)
+			return;
+		long usage= getUndoMemoryUsage();
+		if (usage <= budget)
+			return;
+		IUndoableOperation[] undos= fOperationHistory.getUndoHistory(RefactoringCorePlugin.getUndoContext());
+		for (int i= 0; i < undos.length - 1 && usage > budget; i++) {
+			IUndoableOperation undo= undos[i];
+			usage-= getMemoryUsage(undo);
+			fOperationHistory.replaceOperation(undo, new IUndoableOperation[0]);
+			undo.dispose();
+		}
+	}
+
+	private long getMemoryUsage(IUndoableOperation[] operations) {
+		long result= 0;
+		for (int i= 0; i < operations.length; i++) {
+			result+= getMemoryUsage(operations[i]);
+		}
+		return result;
+	}
+
+	private long getMemoryUsage(IUndoableOperation operation) {
+		UndoableOperation2ChangeAdapter changeOperation= getUnwrappedOperation(operation);
+		if (changeOperation == null)
+			return 0;
+		Change change= changeOperation.getChange();
+		if (change == null)
+			return 0;
+		synchronized (fMemoryUsages) {
+			Long usage= (Long) fMemoryUsages.get(change);
+			if (usage == null) {
+				usage= new Long(estimateMemoryUsage(change));
+				fMemoryUsages.put(change, usage);
+			}
+			return usage.longValue();
+		}
+	}
+
+	private static long estimateMemoryUsage(Change change) {
+		long result= CHANGE_SIZE;
+		if (change instanceof CompositeChange) {
+			Change[] children= ((CompositeChange) change).getChildren();
+			for (int i= 0; i < children.length; i++) {
+				result+= estimateMemoryUsage(children[i]);
+			}
+		} else {
+			Object undo= change.getAdapter(UndoEdit.class);
+			if (undo instanceof TextEdit)
+				result+= estimateMemoryUsage((TextEdit) undo);
+		}
+		return result;
+	}
+
+	private static long estimateMemoryUsage(TextEdit edit) {
+		long result= EDIT_SIZE;
+		String text= null;
+		if (edit instanceof ReplaceEdit)
+			text= ((ReplaceEdit) edit).getText();
+		else if (edit instanceof InsertEdit)
+			text= ((InsertEdit) edit).getText();
+		if (text != null)
+			result+= 2 * text.length();
+		if (edit.hasChildren()) {
+			TextEdit[] children= edit.getChildren();
+			for (int i= 0; i < children.length; i++) {
+				result+= estimateMemoryUsage(children[i]);
+			}
 		}
+		return result;
 	}
 
 	public boolean anythingToUndo() {